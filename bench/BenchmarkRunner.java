@@ -0,0 +1,318 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Exécute les mesures de performance et enregistre les résultats au format JSON de JMH,
+ * pour comparer les versions avec les mêmes outils.
+ *
+ * Chaque mesure est exécutée pour chaque nombre de véhicules et de threads qu'elle déclare :
+ * des itérations de chauffe, puis des itérations mesurées de durée fixe pendant lesquelles
+ * chaque thread appelle operate en boucle. Le score est le débit moyen des itérations
+ * mesurées (opérations par milliseconde), ou le temps moyen par opération (microsecondes).
+ *
+ * JMH ne peut pas être utilisé directement : ses classes générées doivent appartenir à un
+ * paquetage nommé, et ne pourraient donc pas accéder aux classes du paquetage par défaut.
+ *
+ * Usage : java BenchmarkRunner [-wi itérations de chauffe] [-i itérations mesurées]
+ *         [-r durée d'une itération en ms] [-o fichier JSON] [expressions de sélection...]
+ */
+public class BenchmarkRunner {
+    static final int DEFAULT_WARMUP_ITERATIONS = 3;
+    static final int DEFAULT_MEASUREMENT_ITERATIONS = 5;
+    static final int DEFAULT_ITERATION_MILLIS = 1000;
+    static final int BATCH_SIZE = 64; // Opérations par appel à operate
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final int iterationMillis;
+    private final PrintStream console = System.out; // Certaines mesures redirigent System.out
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * Constructeur de l'exécuteur de mesures.
+     * @param warmupIterations Le nombre d'itérations de chauffe
+     * @param measurementIterations Le nombre d'itérations mesurées
+     * @param iterationMillis La durée d'une itération en millisecondes
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, int iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    /**
+     * Retourne toutes les mesures disponibles.
+     */
+    static List<MicroBenchmark> allBenchmarks() {
+        List<MicroBenchmark> benchmarks = new ArrayList<>();
+        benchmarks.addAll(IntersectionBenchmarks.all());
+        benchmarks.addAll(VehicleManagerBenchmarks.all());
+        benchmarks.addAll(SmartTrafficLightBenchmarks.all());
+        benchmarks.addAll(TrafficStatisticsBenchmarks.all());
+        benchmarks.addAll(TraceRecorderBenchmarks.all());
+        benchmarks.addAll(CanvasVehicleRendererBenchmarks.all());
+        benchmarks.addAll(LogPanelBenchmarks.all());
+        benchmarks.addAll(PanelUpdateBenchmarks.all());
+        benchmarks.addAll(UiEventRingBenchmarks.all());
+        benchmarks.addAll(ExplosionRendererBenchmarks.all());
+        return benchmarks;
+    }
+
+    /**
+     * Exécute une mesure pour toutes ses combinaisons de véhicules et de threads.
+     */
+    public void run(MicroBenchmark benchmark) throws Exception {
+        for (int vehicles : benchmark.getVehicleCounts()) {
+            for (int threads : benchmark.getThreadCounts()) {
+                benchmark.setup(vehicles, threads);
+                try {
+                    for (int i = 0; i < warmupIterations; i++) {
+                        runIteration(benchmark, threads);
+                    }
+                    double[] scores = new double[measurementIterations];
+                    for (int i = 0; i < measurementIterations; i++) {
+                        scores[i] = score(benchmark, runIteration(benchmark, threads));
+                    }
+                    Result result = new Result(benchmark, vehicles, threads, scores);
+                    results.add(result);
+                    console.println(String.format(Locale.ROOT, "%-45s véhicules=%-6d threads=%-3d %12.3f ± %.3f %s",
+                            benchmark.getName(), vehicles, threads, result.getScore(), result.getScoreError(),
+                            result.getUnit()));
+                } finally {
+                    benchmark.tearDown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Exécute une itération : tous les threads démarrent ensemble et appellent operate
+     * jusqu'à la fin de la durée de l'itération.
+     * @return Le nombre d'opérations et la durée de l'itération en nanosecondes
+     */
+    private long[] runIteration(MicroBenchmark benchmark, int threads) throws Exception {
+        long[] operations = new long[threads];
+        long[] sinks = new long[threads];
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        long[] startNanos = new long[1];
+        CyclicBarrier startBarrier = new CyclicBarrier(threads, () -> startNanos[0] = System.nanoTime());
+        long deadlineNanos = (long) iterationMillis * 1_000_000;
+        int batchSize = benchmark.getBatchSize();
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    startBarrier.await();
+                    long start = startNanos[0];
+                    long count = 0;
+                    long sink = 0;
+                    do {
+                        sink += benchmark.operate(thread, batchSize);
+                        count += batchSize;
+                    } while (System.nanoTime() - start < deadlineNanos);
+                    operations[thread] = count;
+                    sinks[thread] = sink;
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                    startBarrier.reset();
+                }
+            }, "bench-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - startNanos[0];
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        long total = 0;
+        long sink = 0;
+        long measured = 0;
+        for (int t = 0; t < threads; t++) {
+            total += operations[t];
+            sink ^= sinks[t];
+            measured += sinks[t];
+        }
+        if (sink == 42) {
+            console.print(""); // Consomme les résultats
+        }
+        return new long[] {total, benchmark.measuresOwnTime() ? measured / threads : elapsed};
+    }
+
+    private static double score(MicroBenchmark benchmark, long[] iteration) {
+        double operations = iteration[0];
+        double nanos = iteration[1];
+        if (benchmark.reportsAverageTime()) {
+            return nanos / 1000.0 / operations; // us/op
+        }
+        return operations / (nanos / 1_000_000.0); // ops/ms
+    }
+
+    /**
+     * Enregistre les résultats au format JSON de JMH.
+     * @param output Le fichier de résultats
+     */
+    public void writeJson(Path output) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write("[\n");
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).writeJson(writer);
+                writer.write(i < results.size() - 1 ? ",\n" : "\n");
+            }
+            writer.write("]\n");
+        }
+    }
+
+    /**
+     * Résultat d'une mesure pour un nombre de véhicules et de threads.
+     */
+    private class Result {
+        private final MicroBenchmark benchmark;
+        private final int vehicles;
+        private final int threads;
+        private final double[] scores;
+        private final double score;
+        private final double scoreError;
+
+        Result(MicroBenchmark benchmark, int vehicles, int threads, double[] scores) {
+            this.benchmark = benchmark;
+            this.vehicles = vehicles;
+            this.threads = threads;
+            this.scores = scores;
+
+            double sum = 0;
+            for (double s : scores) {
+                sum += s;
+            }
+            this.score = sum / scores.length;
+            double variance = 0;
+            for (double s : scores) {
+                variance += (s - score) * (s - score);
+            }
+            // Demi-largeur de l'intervalle de confiance à 99,9 %, comme JMH
+            this.scoreError = scores.length < 2 ? Double.NaN
+                    : studentQuantile(scores.length - 1) * Math.sqrt(variance / (scores.length - 1) / scores.length);
+        }
+
+        double getScore() {
+            return score;
+        }
+
+        double getScoreError() {
+            return scoreError;
+        }
+
+        String getUnit() {
+            return benchmark.reportsAverageTime() ? "us/op" : "ops/ms";
+        }
+
+        void writeJson(Writer writer) throws IOException {
+            StringBuilder rawData = new StringBuilder();
+            for (int i = 0; i < scores.length; i++) {
+                rawData.append(i == 0 ? "" : ", ").append(number(scores[i]));
+            }
+            writer.write("    {\n"
+                    + "        \"benchmark\" : \"" + benchmark.getName() + "\",\n"
+                    + "        \"mode\" : \"" + (benchmark.reportsAverageTime() ? "avgt" : "thrpt") + "\",\n"
+                    + "        \"threads\" : " + threads + ",\n"
+                    + "        \"forks\" : 1,\n"
+                    + "        \"jdkVersion\" : \"" + System.getProperty("java.version") + "\",\n"
+                    + "        \"vmName\" : \"" + System.getProperty("java.vm.name") + "\",\n"
+                    + "        \"vmVersion\" : \"" + System.getProperty("java.vm.version") + "\",\n"
+                    + "        \"warmupIterations\" : " + warmupIterations + ",\n"
+                    + "        \"warmupTime\" : \"" + iterationMillis + " ms\",\n"
+                    + "        \"warmupBatchSize\" : " + benchmark.getBatchSize() + ",\n"
+                    + "        \"measurementIterations\" : " + measurementIterations + ",\n"
+                    + "        \"measurementTime\" : \"" + iterationMillis + " ms\",\n"
+                    + "        \"measurementBatchSize\" : " + benchmark.getBatchSize() + ",\n"
+                    + "        \"params\" : {\n"
+                    + "            \"vehicles\" : \"" + vehicles + "\"\n"
+                    + "        },\n"
+                    + "        \"primaryMetric\" : {\n"
+                    + "            \"score\" : " + number(score) + ",\n"
+                    + "            \"scoreError\" : " + number(scoreError) + ",\n"
+                    + "            \"scoreConfidence\" : [" + number(score - scoreError) + ", "
+                    + number(score + scoreError) + "],\n"
+                    + "            \"scoreUnit\" : \"" + getUnit() + "\",\n"
+                    + "            \"rawData\" : [[" + rawData + "]]\n"
+                    + "        },\n"
+                    + "        \"secondaryMetrics\" : {}\n"
+                    + "    }");
+        }
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    /**
+     * Quantile 0,9995 de la loi de Student, pour l'intervalle de confiance à 99,9 %.
+     * @param degreesOfFreedom Le nombre de degrés de liberté
+     */
+    static double studentQuantile(int degreesOfFreedom) {
+        double[] table = {636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587};
+        if (degreesOfFreedom <= table.length) {
+            return table[degreesOfFreedom - 1];
+        }
+        return degreesOfFreedom <= 20 ? 3.850 : degreesOfFreedom <= 30 ? 3.646 : 3.291;
+    }
+
+    /**
+     * Lance les mesures sélectionnées et enregistre les résultats.
+     */
+    public static void main(String[] args) throws Exception {
+        int warmup = DEFAULT_WARMUP_ITERATIONS;
+        int iterations = DEFAULT_MEASUREMENT_ITERATIONS;
+        int iterationMillis = DEFAULT_ITERATION_MILLIS;
+        Path output = Paths.get("benchmarks.json");
+        List<Pattern> filters = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "-i":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-r":
+                    iterationMillis = Integer.parseInt(args[++i]);
+                    break;
+                case "-o":
+                    output = Paths.get(args[++i]);
+                    break;
+                default:
+                    if (!args[i].isBlank()) {
+                        filters.add(Pattern.compile(args[i]));
+                    }
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, iterationMillis);
+        for (MicroBenchmark benchmark : allBenchmarks()) {
+            if (filters.isEmpty() || filters.stream().anyMatch(f -> f.matcher(benchmark.getName()).find())) {
+                runner.run(benchmark);
+            }
+        }
+        runner.writeJson(output);
+        runner.console.println("Résultats enregistrés dans " + output.toAbsolutePath());
+        System.exit(0); // Le toolkit JavaFX ne s'arrête pas seul
+    }
+}
@@ -0,0 +1,155 @@
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+
+import java.util.List;
+
+/**
+ * Mesures du coût d'une image complète avec de nombreux véhicules : mise à jour des positions
+ * puis rendu du calque des véhicules (snapshot, qui passe par le CSS, la mise en page et le
+ * dessin comme une pulsation). Le rendu par lots sur Canvas est comparé à un Rectangle par véhicule.
+ * Une image doit prendre moins de 16,7 ms pour tenir 60 images par seconde.
+ */
+public final class CanvasVehicleRendererBenchmarks {
+    static final int[] VEHICLE_COUNTS = {1000, 10000};
+    private static final long FRAME_NANOS = 16_666_667;
+
+    private CanvasVehicleRendererBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new CanvasFrame(), new NodeFrame());
+    }
+
+    /**
+     * Abscisse de départ d'un véhicule, répartie sur le panneau.
+     */
+    static double startX(int i) {
+        return (i * 37) % 480;
+    }
+
+    static double startY(int i) {
+        return (i * 53) % 480;
+    }
+
+    /**
+     * Image avec CanvasVehicleRenderer : tous les véhicules en traversée, dessinés en une passe.
+     */
+    static final class CanvasFrame implements MicroBenchmark {
+        private Pane layer;
+        private CanvasVehicleRenderer renderer;
+        private WritableImage image;
+        private long now;
+
+        @Override
+        public String getName() {
+            return "VehicleFrame.canvas";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return VEHICLE_COUNTS;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return VehicleManagerBenchmarks.SINGLE_THREAD;
+        }
+
+        @Override
+        public boolean reportsAverageTime() {
+            return true;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                renderer = new CanvasVehicleRenderer();
+                for (int i = 0; i < vehicles; i++) {
+                    int id = renderer.add(i & 3, startX(i), startY(i));
+                    renderer.startCrossing(id, 3_600_000);
+                }
+                layer = new Pane(renderer);
+                layer.setPrefSize(500, 500);
+                image = new WritableImage(500, 500);
+                renderer.renderFrame(now);
+                layer.snapshot(null, image);
+                return vehicles;
+            });
+        }
+
+        @Override
+        public long operate(int thread, int batch) throws Exception {
+            return FxToolkit.call(() -> {
+                for (int i = 0; i < batch; i++) {
+                    now += FRAME_NANOS;
+                    renderer.renderFrame(now);
+                    layer.snapshot(null, image);
+                }
+                return renderer.getFrameCount();
+            });
+        }
+    }
+
+    /**
+     * Image avec un Rectangle par véhicule, déplacé comme par une TranslateTransition.
+     */
+    static final class NodeFrame implements MicroBenchmark {
+        private Pane layer;
+        private Rectangle[] rectangles;
+        private WritableImage image;
+        private long frame;
+
+        @Override
+        public String getName() {
+            return "VehicleFrame.nodes";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return VEHICLE_COUNTS;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return VehicleManagerBenchmarks.SINGLE_THREAD;
+        }
+
+        @Override
+        public boolean reportsAverageTime() {
+            return true;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                VehicleManager vehicleManager = new VehicleManager(new IntersectionPanel());
+                layer = new Pane();
+                layer.setPrefSize(500, 500);
+                rectangles = new Rectangle[vehicles];
+                for (int i = 0; i < vehicles; i++) {
+                    rectangles[i] = vehicleManager.createVehicle(i, Directions.nameOf(i & 3));
+                    layer.getChildren().add(rectangles[i]);
+                }
+                image = new WritableImage(500, 500);
+                layer.snapshot(null, image);
+                return vehicles;
+            });
+        }
+
+        @Override
+        public long operate(int thread, int batch) throws Exception {
+            return FxToolkit.call(() -> {
+                for (int n = 0; n < batch; n++) {
+                    frame++;
+                    for (int i = 0; i < rectangles.length; i++) {
+                        rectangles[i].setTranslateX((startX(i) + frame) % 480);
+                        rectangles[i].setTranslateY(startY(i));
+                    }
+                    layer.snapshot(null, image);
+                }
+                return frame;
+            });
+        }
+    }
+}
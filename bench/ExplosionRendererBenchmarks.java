@@ -0,0 +1,95 @@
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+
+import java.util.List;
+
+/**
+ * Mesure du coût d'une image avec de nombreuses explosions simultanées : mise à jour des
+ * particules puis rendu de la couche d'effets (snapshot, qui passe par le dessin comme une
+ * pulsation). À chaque image, de nouvelles explosions remplacent celles qui se terminent,
+ * pour garder un nombre constant d'explosions actives.
+ * Une image doit prendre moins de 16,7 ms pour tenir 60 images par seconde.
+ */
+public final class ExplosionRendererBenchmarks {
+    static final int[] EXPLOSION_COUNTS = {120, 480};
+    private static final long FRAME_NANOS = 16_666_667;
+    private static final int FRAMES_PER_EXPLOSION = (int) (ExplosionRenderer.DURATION_NANOS / FRAME_NANOS);
+
+    private ExplosionRendererBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new ExplosionFrame());
+    }
+
+    /**
+     * Image avec ExplosionRenderer. Le nombre de véhicules de la mesure est le nombre
+     * d'explosions actives.
+     */
+    static final class ExplosionFrame implements MicroBenchmark {
+        private Pane layer;
+        private ExplosionRenderer renderer;
+        private WritableImage image;
+        private int explosionsPerFrame;
+        private int next;
+        private long now;
+
+        @Override
+        public String getName() {
+            return "ExplosionRenderer.frame";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return EXPLOSION_COUNTS;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return VehicleManagerBenchmarks.SINGLE_THREAD;
+        }
+
+        @Override
+        public boolean reportsAverageTime() {
+            return true;
+        }
+
+        @Override
+        public void setup(int explosions, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                renderer = new ExplosionRenderer();
+                renderer.setAnimated(false);
+                layer = new Pane(renderer);
+                layer.setPrefSize(500, 500);
+                image = new WritableImage(500, 500);
+                explosionsPerFrame = Math.max(1, explosions / FRAMES_PER_EXPLOSION);
+                // Remplit l'anneau jusqu'au régime permanent
+                for (int frame = 0; frame < FRAMES_PER_EXPLOSION; frame++) {
+                    frame();
+                }
+                layer.snapshot(null, image);
+                return renderer.getActiveCount();
+            });
+        }
+
+        private void frame() {
+            for (int i = 0; i < explosionsPerFrame; i++) {
+                next++;
+                renderer.explode(CanvasVehicleRendererBenchmarks.startX(next), CanvasVehicleRendererBenchmarks.startY(next));
+            }
+            now += FRAME_NANOS;
+            renderer.renderFrame(now);
+        }
+
+        @Override
+        public long operate(int thread, int batch) throws Exception {
+            return FxToolkit.call(() -> {
+                for (int i = 0; i < batch; i++) {
+                    frame();
+                    layer.snapshot(null, image);
+                }
+                return renderer.getFrameCount() + renderer.getDroppedCount();
+            });
+        }
+    }
+}
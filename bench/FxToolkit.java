@@ -0,0 +1,61 @@
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Accès au thread JavaFX pour les mesures qui manipulent des nœuds de la scène.
+ * Le toolkit est démarré au premier appel ; sans écran, lancer la JVM avec Monocle
+ * (-Dglass.platform=Monocle -Dmonocle.platform=Headless, voir le profil bench du pom.xml).
+ */
+public final class FxToolkit {
+    private static boolean started;
+
+    private FxToolkit() {
+    }
+
+    /**
+     * Démarre le toolkit JavaFX s'il ne l'est pas déjà.
+     */
+    public static synchronized void start() throws InterruptedException {
+        if (started) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        Platform.setImplicitExit(false);
+        latch.await();
+        started = true;
+    }
+
+    /**
+     * Exécute une tâche sur le thread JavaFX et attend sa fin.
+     * @return La valeur retournée par la tâche
+     */
+    public static long call(FxTask task) throws Exception {
+        start();
+        AtomicReference<Object> result = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                result.set(task.call());
+            } catch (Exception e) {
+                result.set(e);
+            } finally {
+                latch.countDown();
+            }
+        });
+        latch.await();
+        if (result.get() instanceof Exception) {
+            throw (Exception) result.get();
+        }
+        return (Long) result.get();
+    }
+
+    /**
+     * Tâche exécutée sur le thread JavaFX.
+     */
+    public interface FxTask {
+        long call() throws Exception;
+    }
+}
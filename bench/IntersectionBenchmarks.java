@@ -0,0 +1,314 @@
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mesures des chemins critiques de l'intersection : lecture du feu, matrice de conflits,
+ * admission sans verrou et réveil des véhicules au passage au vert.
+ */
+public final class IntersectionBenchmarks {
+    static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+    static final int[] SINGLE = {1};
+
+    private IntersectionBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new CanPass(), new DirectionsCanCollide(), new Admission(),
+                new GreenWakeup(false), new GreenWakeup(true));
+    }
+
+    /**
+     * Crée une intersection avec ses quatre feux, sans affichage.
+     */
+    static TrafficLight[] createLights(Intersection intersection) {
+        TrafficLight[] lights = new TrafficLight[Directions.COUNT];
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            lights[direction] = new TrafficLight(null, Directions.nameOf(direction));
+            intersection.addTrafficLight(lights[direction]);
+        }
+        return lights;
+    }
+
+    /**
+     * Intersection.canPass lue par plusieurs threads pendant qu'un autre thread change les feux
+     * toutes les millisecondes, comme un SignalExecutor accéléré. Le nombre de véhicules
+     * n'influence pas cette opération.
+     */
+    static final class CanPass implements MicroBenchmark {
+        private Intersection intersection;
+        private Thread signalThread;
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        @Override
+        public String getName() {
+            return "Intersection.canPass";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) {
+            intersection = new Intersection();
+            TrafficLight[] lights = createLights(intersection);
+            running.set(true);
+            signalThread = new Thread(() -> {
+                boolean northSouth = true;
+                while (running.get()) {
+                    lights[Directions.NORTH_SOUTH].changeState(northSouth ? "GREEN" : "RED");
+                    lights[Directions.EAST_WEST].changeState(northSouth ? "RED" : "GREEN");
+                    northSouth = !northSouth;
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "bench-signal");
+            signalThread.setDaemon(true);
+            signalThread.start();
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            long passed = 0;
+            for (int i = 0; i < batch; i++) {
+                if (intersection.canPass((thread + i) & 3)) {
+                    passed++;
+                }
+            }
+            return passed;
+        }
+
+        @Override
+        public void tearDown() throws InterruptedException {
+            running.set(false);
+            signalThread.join();
+        }
+    }
+
+    /**
+     * Intersection.directionsCanCollide sur toutes les paires de directions, avec leurs noms
+     * comme dans la détection de collision. Le nombre de véhicules n'influence pas cette opération.
+     */
+    static final class DirectionsCanCollide implements MicroBenchmark {
+        private static final String[] NAMES = {"North-South", "South-North", "East-West", "West-East"};
+        private Intersection intersection;
+
+        @Override
+        public String getName() {
+            return "Intersection.directionsCanCollide";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) {
+            intersection = new Intersection();
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            long collisions = 0;
+            for (int i = 0; i < batch; i++) {
+                if (intersection.directionsCanCollide(NAMES[i & 3], NAMES[(i >>> 2) & 3])) {
+                    collisions++;
+                }
+            }
+            return collisions;
+        }
+    }
+
+    /**
+     * Admission d'un véhicule (Intersection.tryEnter) puis sortie (Intersection.exit), les threads
+     * répartis sur les deux directions de l'axe Nord-Sud qui ne sont pas en conflit :
+     * toutes les tentatives réussissent et seul le coût du mot d'occupation partagé est mesuré.
+     */
+    static final class Admission implements MicroBenchmark {
+        private Intersection intersection;
+
+        @Override
+        public String getName() {
+            return "Intersection.tryEnter+exit";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) {
+            intersection = new Intersection();
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            int movement = thread & 1;
+            long admitted = 0;
+            for (int i = 0; i < batch; i++) {
+                if (intersection.tryEnter(movement)) {
+                    admitted++;
+                    intersection.exit(movement);
+                }
+            }
+            return admitted;
+        }
+    }
+
+    /**
+     * Latence entre le passage au vert et l'admission de tous les véhicules qui attendaient
+     * le feu, un thread par véhicule comme en mode THREAD_PER_VEHICLE. Seul l'intervalle entre
+     * le changement d'état du feu et le réveil du dernier véhicule est mesuré.
+     *
+     * Deux variantes, pour comparer avant et après la notification du passage au vert :
+     * les véhicules attendent dans Intersection.awaitGreen, ou interrogent canPass toutes les
+     * CHECK_INTERVAL millisecondes comme l'ancienne boucle de UIVehicle. Pour l'interrogation,
+     * le feu passe au vert à un instant aléatoire du cycle des véhicules, comme dans la simulation.
+     */
+    static final class GreenWakeup implements MicroBenchmark {
+        private static final long AWAIT_TIMEOUT = 10_000;
+        private final boolean polling;
+        private Intersection intersection;
+        private TrafficLight northSouthLight;
+        private Thread[] vehicles;
+        private Phaser rounds;
+        private volatile boolean running;
+
+        /**
+         * @param polling true pour l'ancienne interrogation de canPass, false pour awaitGreen
+         */
+        GreenWakeup(boolean polling) {
+            this.polling = polling;
+        }
+
+        @Override
+        public String getName() {
+            return polling ? "Intersection.canPass.polling.wakeup" : "Intersection.awaitGreen.wakeup";
+        }
+
+        @Override
+        public int getBatchSize() {
+            // Une interrogation attend jusqu'à CHECK_INTERVAL par opération
+            return polling ? 1 : BenchmarkRunner.BATCH_SIZE;
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return new int[] {1, 16, 64, 256};
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return SINGLE;
+        }
+
+        @Override
+        public boolean reportsAverageTime() {
+            return true;
+        }
+
+        @Override
+        public boolean measuresOwnTime() {
+            return true;
+        }
+
+        @Override
+        public void setup(int vehicleCount, int threads) {
+            intersection = new Intersection();
+            northSouthLight = createLights(intersection)[Directions.NORTH_SOUTH];
+            rounds = new Phaser(vehicleCount + 1);
+            running = true;
+            vehicles = new Thread[vehicleCount];
+            for (int i = 0; i < vehicleCount; i++) {
+                String direction = Directions.nameOf(i & 1);
+                vehicles[i] = new Thread(() -> {
+                    try {
+                        while (true) {
+                            rounds.arriveAndAwaitAdvance(); // Début du cycle : le feu est rouge
+                            if (!running) {
+                                return;
+                            }
+                            if (polling) {
+                                while (!intersection.canPass(direction)) {
+                                    Thread.sleep(UIVehicle.CHECK_INTERVAL);
+                                }
+                            } else {
+                                intersection.awaitGreen(direction, AWAIT_TIMEOUT);
+                            }
+                            rounds.arriveAndAwaitAdvance(); // Véhicule admis
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, "bench-vehicle-" + i);
+                vehicles[i].setDaemon(true);
+                vehicles[i].start();
+            }
+        }
+
+        @Override
+        public long operate(int thread, int batch) throws InterruptedException {
+            long measured = 0;
+            for (int i = 0; i < batch; i++) {
+                northSouthLight.changeState("RED");
+                rounds.arriveAndAwaitAdvance();
+                awaitAllBlocked();
+                if (polling) {
+                    // Instant aléatoire dans le cycle d'interrogation, exclu de la mesure
+                    TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextInt(UIVehicle.CHECK_INTERVAL));
+                }
+
+                long start = System.nanoTime();
+                northSouthLight.changeState("GREEN");
+                rounds.arriveAndAwaitAdvance();
+                measured += System.nanoTime() - start;
+            }
+            return measured;
+        }
+
+        /**
+         * Attend que tous les véhicules soient bloqués dans awaitGreen ou dans leur pause entre deux interrogations.
+         */
+        private void awaitAllBlocked() {
+            for (Thread vehicle : vehicles) {
+                while (vehicle.getState() != Thread.State.TIMED_WAITING) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        @Override
+        public void tearDown() throws InterruptedException {
+            running = false;
+            northSouthLight.changeState("RED");
+            rounds.arriveAndAwaitAdvance();
+            for (Thread vehicle : vehicles) {
+                vehicle.join();
+            }
+        }
+    }
+}
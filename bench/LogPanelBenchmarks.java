@@ -0,0 +1,62 @@
+import java.util.List;
+
+/**
+ * Mesures du panneau de logs : coût d'un ajout pour les threads producteurs, pendant que
+ * le thread JavaFX transfère les messages dans la liste affichée.
+ */
+public final class LogPanelBenchmarks {
+
+    private LogPanelBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new AddLog());
+    }
+
+    /**
+     * LogPanel.addLog depuis plusieurs threads, avec des messages préparés à l'avance
+     * pour ne mesurer que l'ajout.
+     */
+    static final class AddLog implements MicroBenchmark {
+        private static final String[] MESSAGES = new String[64];
+
+        static {
+            for (int i = 0; i < MESSAGES.length; i++) {
+                MESSAGES[i] = "Nouveau véhicule créé (ID: " + i + ", Direction: " + Directions.nameOf(i & 3) + ")";
+            }
+        }
+
+        private LogPanel logPanel;
+
+        @Override
+        public String getName() {
+            return "LogPanel.addLog";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return IntersectionBenchmarks.SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return IntersectionBenchmarks.THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                logPanel = new LogPanel();
+                return logPanel.getRetention();
+            });
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            for (int i = 0; i < batch; i++) {
+                logPanel.addLog(MESSAGES[i & (MESSAGES.length - 1)]);
+            }
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Mesure de performance exécutée par BenchmarkRunner.
+ * Une mesure est préparée pour chaque combinaison de nombre de véhicules et de nombre de threads,
+ * puis chaque thread appelle operate en boucle pendant la durée d'une itération.
+ */
+public interface MicroBenchmark {
+
+    /**
+     * Retourne le nom de la mesure, utilisé dans le fichier de résultats et pour la sélection.
+     */
+    String getName();
+
+    /**
+     * Retourne les nombres de véhicules mesurés.
+     */
+    int[] getVehicleCounts();
+
+    /**
+     * Retourne les nombres de threads mesurés.
+     */
+    int[] getThreadCounts();
+
+    /**
+     * Indique si le résultat est un temps moyen par opération plutôt qu'un débit.
+     */
+    default boolean reportsAverageTime() {
+        return false;
+    }
+
+    /**
+     * Retourne le nombre d'opérations par appel à operate. Les mesures dont une opération dure
+     * plusieurs centaines de millisecondes le réduisent pour tenir dans la durée d'une itération.
+     */
+    default int getBatchSize() {
+        return BenchmarkRunner.BATCH_SIZE;
+    }
+
+    /**
+     * Indique si la mesure chronomètre elle-même la partie mesurée de ses opérations, lorsque
+     * chaque opération nécessite une préparation exclue de la mesure (comme @Setup(Level.Invocation)
+     * de JMH). operate retourne alors la durée mesurée du lot en nanosecondes.
+     */
+    default boolean measuresOwnTime() {
+        return false;
+    }
+
+    /**
+     * Prépare l'état de la mesure avant les itérations.
+     * @param vehicles Le nombre de véhicules
+     * @param threads Le nombre de threads qui appelleront operate
+     */
+    void setup(int vehicles, int threads) throws Exception;
+
+    /**
+     * Exécute un lot d'opérations mesurées.
+     * @param thread L'indice du thread appelant, de 0 à threads - 1
+     * @param batch Le nombre d'opérations du lot
+     * @return Une valeur calculée à partir des résultats, consommée pour que le JIT ne supprime pas le travail,
+     *         ou la durée mesurée du lot si measuresOwnTime
+     */
+    long operate(int thread, int batch) throws Exception;
+
+    /**
+     * Libère l'état de la mesure après les itérations.
+     */
+    default void tearDown() throws Exception {
+    }
+}
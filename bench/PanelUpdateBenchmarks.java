@@ -0,0 +1,100 @@
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+
+import java.util.List;
+
+/**
+ * Mesures des mises à jour des panneaux de feux et de statistiques depuis les threads
+ * des véhicules et des contrôleurs, pendant que le thread JavaFX les applique une fois par image.
+ */
+public final class PanelUpdateBenchmarks {
+
+    private PanelUpdateBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new StatsCounts(), new LightStates());
+    }
+
+    /**
+     * Panneaux placés dans une scène, pour que leurs mises à jour soient appliquées à chaque pulsation.
+     */
+    abstract static class ShownPanels implements MicroBenchmark {
+        SmartTrafficStatsPanel statsPanel;
+        TrafficLightsPanel lightsPanel;
+        private Scene scene;
+
+        @Override
+        public int[] getVehicleCounts() {
+            return IntersectionBenchmarks.SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return IntersectionBenchmarks.THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                statsPanel = new SmartTrafficStatsPanel();
+                lightsPanel = new TrafficLightsPanel();
+                scene = new Scene(new VBox(lightsPanel, statsPanel), 400, 400);
+                return 0;
+            });
+        }
+
+        @Override
+        public void tearDown() throws Exception {
+            FxToolkit.call(() -> {
+                // Panneaux retirés de la scène, et leurs AnimationTimer arrêtés
+                ((VBox) scene.getRoot()).getChildren().clear();
+                statsPanel.stop();
+                lightsPanel.stop();
+                return 0;
+            });
+        }
+    }
+
+    /**
+     * Compteurs d'attente et de passage, comme SmartTrafficLight à chaque mouvement de véhicule.
+     */
+    static final class StatsCounts extends ShownPanels {
+        @Override
+        public String getName() {
+            return "SmartTrafficStatsPanel.update";
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            String direction = Directions.nameOf(thread & 3);
+            for (int i = 0; i < batch; i++) {
+                statsPanel.updateWaitingCount(direction, i & 15);
+                statsPanel.updatePassingCount(direction, i & 7);
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Changements d'état des quatre feux, comme un changement de phase du contrôleur.
+     */
+    static final class LightStates extends ShownPanels {
+        private static final String[] STATES = {"GREEN", "YELLOW", "RED", "RED"};
+
+        @Override
+        public String getName() {
+            return "TrafficLightsPanel.updateTrafficLight";
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            for (int i = 0; i < batch; i++) {
+                for (int direction = 0; direction < Directions.COUNT; direction++) {
+                    lightsPanel.updateTrafficLight(Directions.nameOf(direction), STATES[(i + direction) & 3]);
+                }
+            }
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Mesures des compteurs de véhicules des feux intelligents, partagés par tous les véhicules
+ * de l'intersection.
+ */
+public final class SmartTrafficLightBenchmarks {
+    static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    private SmartTrafficLightBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(
+                new Counters("SmartTrafficLight.counters", AsyncLogger.Level.INFO, OutputStream.nullOutputStream()),
+                new Counters("SmartTrafficLight.counters.debugFastSink", AsyncLogger.Level.DEBUG,
+                        OutputStream.nullOutputStream()),
+                new Counters("SmartTrafficLight.counters.debugSlowSink", AsyncLogger.Level.DEBUG,
+                        new SlowOutputStream()));
+    }
+
+    /**
+     * Cycle de vie d'un véhicule dans les compteurs : mise en attente, passage, sortie,
+     * puis lecture de la demande de l'axe comme le contrôleur. Les threads sont répartis
+     * sur les quatre directions. Les messages des compteurs sont écrits par l'AsyncLogger
+     * au niveau DEBUG : désactivés par défaut, ou activés vers une sortie rapide ou lente,
+     * pour vérifier que le débit des compteurs ne dépend pas de la vitesse de la sortie.
+     */
+    static final class Counters implements MicroBenchmark {
+        private final String name;
+        private final AsyncLogger.Level level;
+        private final OutputStream sink;
+        private SmartTrafficLight[] lights;
+        private AsyncLogger.Level previousLevel;
+
+        Counters(String name, AsyncLogger.Level level, OutputStream sink) {
+            this.name = name;
+            this.level = level;
+            this.sink = sink;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return IntersectionBenchmarks.SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) {
+            lights = new SmartTrafficLight[Directions.COUNT];
+            for (int direction = 0; direction < Directions.COUNT; direction++) {
+                lights[direction] = new SmartTrafficLight(Directions.nameOf(direction), null, null);
+            }
+            new Intersection(lights);
+            previousLevel = AsyncLogger.getLevel();
+            AsyncLogger.setOutput(new PrintStream(sink));
+            AsyncLogger.setLevel(level);
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            int direction = thread & 3;
+            String name = Directions.nameOf(direction);
+            SmartTrafficLight light = lights[direction];
+            long demand = 0;
+            for (int i = 0; i < batch; i++) {
+                light.incrementWaitingVehicles(name);
+                light.decrementWaitingVehicles(name);
+                light.incrementPassingVehicles(name);
+                light.decrementPassingVehicles(name);
+                if (light.hasNorthSouthWaitingVehicles()) {
+                    demand++;
+                }
+            }
+            return demand;
+        }
+
+        @Override
+        public void tearDown() {
+            AsyncLogger.setLevel(previousLevel);
+            AsyncLogger.flush();
+            AsyncLogger.setOutput(System.out);
+        }
+    }
+
+    /**
+     * Sortie qui imite un terminal lent : chaque écriture attend une dizaine de microsecondes.
+     */
+    static final class SlowOutputStream extends OutputStream {
+        private static final long WRITE_NANOS = 10_000;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            long end = System.nanoTime() + WRITE_NANOS;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
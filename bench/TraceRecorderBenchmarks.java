@@ -0,0 +1,68 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Mesures de l'enregistrement des traces d'événements, appelé par les véhicules, les feux
+ * et la détection de collision pendant la simulation.
+ */
+public final class TraceRecorderBenchmarks {
+
+    private TraceRecorderBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new RecordEvents());
+    }
+
+    /**
+     * Cycle de vie complet d'un véhicule (arrivée, admission, sortie) suivi d'un changement
+     * de feu, soit quatre enregistrements par opération, dans un fichier temporaire.
+     * Les threads se partagent le même enregistreur, comme les véhicules de la simulation.
+     */
+    static final class RecordEvents implements MicroBenchmark {
+        private Path file;
+        private TraceRecorder recorder;
+
+        @Override
+        public String getName() {
+            return "TraceRecorder.record";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return IntersectionBenchmarks.SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return IntersectionBenchmarks.THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            file = Files.createTempFile("bench-", ".trc");
+            recorder = new TraceRecorder(file);
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            int direction = thread & 3;
+            long sum = 0;
+            for (int i = 0; i < batch; i++) {
+                int vehicleId = recorder.recordArrival(direction);
+                recorder.recordAdmission(direction, vehicleId);
+                recorder.recordDeparture(direction, vehicleId);
+                recorder.recordPhaseChange(direction, i & 3);
+                sum += vehicleId;
+            }
+            return sum;
+        }
+
+        @Override
+        public void tearDown() throws Exception {
+            recorder.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.List;
+
+/**
+ * Mesures de l'enregistrement des statistiques de trafic, appelé à chaque admission
+ * et à chaque sortie de véhicule.
+ */
+public final class TrafficStatisticsBenchmarks {
+
+    private TrafficStatisticsBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new RecordVehicle());
+    }
+
+    /**
+     * Enregistrement du temps d'attente et du temps de traversée d'un véhicule dans les
+     * histogrammes de l'intersection, les threads répartis sur les quatre directions.
+     * Les durées couvrent de quelques millisecondes à une minute, comme dans la simulation.
+     */
+    static final class RecordVehicle implements MicroBenchmark {
+        private TrafficStatistics statistics;
+
+        @Override
+        public String getName() {
+            return "TrafficStatistics.recordWait+recordCrossing";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return IntersectionBenchmarks.SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return IntersectionBenchmarks.THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) {
+            statistics = new TrafficStatistics();
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            int direction = thread & 3;
+            long wait = 1_000_000L * (thread + 1);
+            for (int i = 0; i < batch; i++) {
+                // Durées pseudo-aléatoires sans allocation (générateur congruentiel)
+                wait = (wait * 6364136223846793005L + 1442695040888963407L) >>> 28;
+                statistics.recordWait(direction, wait);
+                statistics.recordCrossing(direction, UIVehicle.CROSSING_DURATION * 1_000_000L + (wait & 0xFFFFF));
+            }
+            return wait;
+        }
+    }
+}
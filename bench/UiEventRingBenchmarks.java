@@ -0,0 +1,56 @@
+import java.util.List;
+
+/**
+ * Mesures de l'anneau d'événements de l'interface : coût d'une publication pour les threads
+ * de la simulation, pendant que le thread JavaFX traite les événements à chaque pulsation.
+ */
+public final class UiEventRingBenchmarks {
+
+    private UiEventRingBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new Publish());
+    }
+
+    /**
+     * UiEventRing.publish depuis plusieurs threads, avec un traitement vide pour ne mesurer
+     * que le transport. Quand le thread JavaFX a un tour de retard, les producteurs attendent
+     * et l'attente est comptée dans le débit.
+     */
+    static final class Publish implements MicroBenchmark {
+        private static final UiEventRing.Handler NO_OP = event -> { };
+
+        private UiEventRing ring;
+
+        @Override
+        public String getName() {
+            return "UiEventRing.publish";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return IntersectionBenchmarks.SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return IntersectionBenchmarks.THREAD_COUNTS;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.start();
+            ring = UiEventRing.shared();
+        }
+
+        @Override
+        public long operate(int thread, int batch) {
+            int direction = thread & 3;
+            for (int i = 0; i < batch; i++) {
+                ring.publish(NO_OP, UiEventRing.MOVE, i, direction, null, null);
+            }
+            return batch;
+        }
+    }
+}
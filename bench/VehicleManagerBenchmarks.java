@@ -0,0 +1,235 @@
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Mesures du gestionnaire de véhicules : pulsation de détection de collision et files d'attente.
+ * Le gestionnaire manipule des nœuds JavaFX et n'est pas partagé entre threads : les opérations
+ * sont exécutées par lots sur le thread JavaFX, comme dans la simulation.
+ */
+public final class VehicleManagerBenchmarks {
+    static final int[] SINGLE_THREAD = {1};
+
+    private VehicleManagerBenchmarks() {
+    }
+
+    static List<MicroBenchmark> all() {
+        return List.of(new CollisionPulse(), new QueueAndRemove(), new VehicleLifecycle());
+    }
+
+    /**
+     * Une pulsation de VehicleManager.checkCollisions sur tous les véhicules enregistrés.
+     * Les véhicules sont placés dans la zone de conflit, sur leur voie, sans se toucher :
+     * chaque vérification passe par la phase large et la phase fine sans déclencher de collision.
+     */
+    static final class CollisionPulse implements MicroBenchmark {
+        private VehicleManager vehicleManager;
+
+        @Override
+        public String getName() {
+            return "VehicleManager.checkCollisions";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return new int[] {16, 64, 256, 1024};
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return SINGLE_THREAD;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                IntersectionPanel panel = new IntersectionPanel();
+                vehicleManager = new VehicleManager(panel, new LogPanel(), true);
+                vehicleManager.setIntersection(new Intersection());
+                for (int i = 0; i < vehicles; i++) {
+                    int direction = i & 3;
+                    Rectangle vehicle = vehicleManager.createVehicle(i, Directions.nameOf(direction));
+                    placeInConflictZone(vehicle, direction, i >>> 2);
+                    panel.addVehicle(vehicle);
+                    vehicleManager.addVehicle(vehicle, Directions.nameOf(direction));
+                }
+                vehicleManager.runCollisionPulse();
+                if (vehicleManager.isCollisionDetected()) {
+                    throw new IllegalStateException("Collision pendant la préparation de la mesure");
+                }
+                return vehicles;
+            });
+        }
+
+        /**
+         * Place un véhicule sur sa voie dans la zone de conflit (220 à 280 sur chaque axe),
+         * hors de portée des véhicules des voies qui croisent la sienne.
+         */
+        private static void placeInConflictZone(Rectangle vehicle, int direction, int rank) {
+            switch (direction) {
+                case Directions.NORTH_SOUTH:
+                    vehicle.setTranslateX(250);
+                    vehicle.setTranslateY(200 + rank % 26);
+                    break;
+                case Directions.SOUTH_NORTH:
+                    vehicle.setTranslateX(220);
+                    vehicle.setTranslateY(255 + rank % 16);
+                    break;
+                case Directions.EAST_WEST:
+                    vehicle.setTranslateX(275 + rank % 6);
+                    vehicle.setTranslateY(250);
+                    break;
+                default:
+                    vehicle.setTranslateX(200 + rank % 29);
+                    vehicle.setTranslateY(220);
+                    break;
+            }
+        }
+
+        @Override
+        public long operate(int thread, int batch) throws Exception {
+            return FxToolkit.call(() -> {
+                for (int i = 0; i < batch; i++) {
+                    vehicleManager.runCollisionPulse();
+                }
+                if (vehicleManager.isCollisionDetected()) {
+                    throw new IllegalStateException("Collision pendant la mesure");
+                }
+                return vehicleManager.getCollisionPulseCount();
+            });
+        }
+
+        @Override
+        public void tearDown() throws Exception {
+            FxToolkit.call(() -> {
+                vehicleManager.stopCollisionDetection();
+                return 0;
+            });
+        }
+    }
+
+    /**
+     * VehicleManager.queueVehicle d'un nouveau véhicule puis VehicleManager.removeVehicle du premier
+     * véhicule de la même file, avec un nombre constant de véhicules en attente répartis
+     * sur les quatre directions.
+     */
+    static final class QueueAndRemove implements MicroBenchmark {
+        private VehicleManager vehicleManager;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final ArrayDeque<Rectangle>[] queues = new ArrayDeque[Directions.COUNT];
+        private final ArrayDeque<Rectangle> spares = new ArrayDeque<>();
+        private int nextDirection;
+
+        @Override
+        public String getName() {
+            return "VehicleManager.queueVehicle+removeVehicle";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return new int[] {16, 256, 4096};
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return SINGLE_THREAD;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                vehicleManager = new VehicleManager(new IntersectionPanel(), new LogPanel(), false);
+                spares.clear();
+                for (int direction = 0; direction < Directions.COUNT; direction++) {
+                    queues[direction] = new ArrayDeque<>();
+                }
+                for (int i = 0; i < vehicles; i++) {
+                    int direction = i & 3;
+                    Rectangle vehicle = vehicleManager.createVehicle(i, Directions.nameOf(direction));
+                    vehicleManager.queueVehicle(vehicle, Directions.nameOf(direction));
+                    queues[direction].add(vehicle);
+                }
+                // Véhicules de réserve : un véhicule retiré n'est réutilisé qu'une fois
+                // son retrait du panneau exécuté, après le lot qui l'a retiré
+                for (int i = 0; i < 2 * BenchmarkRunner.BATCH_SIZE + 1; i++) {
+                    spares.add(vehicleManager.createVehicle(vehicles + i, Directions.nameOf(i & 3)));
+                }
+                return vehicles;
+            });
+        }
+
+        @Override
+        public long operate(int thread, int batch) throws Exception {
+            return FxToolkit.call(() -> {
+                long queued = 0;
+                for (int i = 0; i < batch; i++) {
+                    int direction = nextDirection;
+                    nextDirection = (nextDirection + 1) & 3;
+                    String name = Directions.nameOf(direction);
+
+                    Rectangle vehicle = spares.poll();
+                    vehicleManager.queueVehicle(vehicle, name);
+                    queues[direction].add(vehicle);
+                    Rectangle first = queues[direction].poll();
+                    vehicleManager.removeVehicle(first);
+                    spares.add(first);
+                    queued += queues[direction].size();
+                }
+                // Retraits du panneau publiés dans l'anneau de l'interface, exécutés après le lot
+                UiEventRing.shared().drain();
+                return queued;
+            });
+        }
+    }
+
+    /**
+     * Cycle de vie complet d'un véhicule sans synchronisation : création, mise en file, départ
+     * de la traversée, fin de la traversée et retrait du panneau. Les rectangles, les UIVehicle
+     * et leurs animations sont repris dans les réserves du gestionnaire d'un véhicule à l'autre.
+     */
+    static final class VehicleLifecycle implements MicroBenchmark {
+        private VehicleManager vehicleManager;
+        private int nextId;
+
+        @Override
+        public String getName() {
+            return "VehicleManager.vehicleLifecycle";
+        }
+
+        @Override
+        public int[] getVehicleCounts() {
+            return IntersectionBenchmarks.SINGLE;
+        }
+
+        @Override
+        public int[] getThreadCounts() {
+            return SINGLE_THREAD;
+        }
+
+        @Override
+        public void setup(int vehicles, int threads) throws Exception {
+            FxToolkit.call(() -> {
+                vehicleManager = new VehicleManager(new IntersectionPanel(), new LogPanel(), false);
+                return 0;
+            });
+        }
+
+        @Override
+        public long operate(int thread, int batch) throws Exception {
+            return FxToolkit.call(() -> {
+                long allocated = 0;
+                for (int i = 0; i < batch; i++) {
+                    String direction = Directions.nameOf(i & 3);
+                    Rectangle vehicle = vehicleManager.createVehicle(++nextId, direction);
+                    vehicleManager.queueVehicle(vehicle, direction);
+                    vehicleManager.moveVehicle(vehicle, direction).finishCrossing();
+                }
+                // Retraits du panneau publiés dans l'anneau de l'interface : les rectangles reviennent en réserve
+                UiEventRing.shared().drain();
+                allocated += vehicleManager.getAllocatedVehicleCount();
+                return allocated;
+            });
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Contrôleur actionné par les détecteurs d'approche.
+ * Le vert dure au moins minGreen ; chaque véhicule détecté sur l'axe au vert le prolonge
+ * de gapOut, et le vert se termine dès qu'aucun véhicule n'est détecté pendant gapOut
+ * (fin sur intervalle) ou au plus tard après maxGreen (fin sur maximum). Un axe sans demande
+ * n'est jamais servi : sans véhicule en attente, le contrôleur attend la prochaine détection
+ * au lieu de vérifier la demande à intervalle fixe.
+ */
+public class ActuatedController implements SignalController {
+    static final int DEFAULT_MIN_GREEN = 3000; // Durée minimale du vert en millisecondes
+    static final int DEFAULT_GAP_OUT = 2000; // Intervalle sans détection qui termine le vert
+    static final int DEFAULT_MAX_GREEN = 12000; // Durée maximale du vert lorsque l'autre axe attend
+    static final int CLEARANCE_DURATION = 1000; // Durée du rouge de dégagement entre deux axes
+
+    private final long minGreen;
+    private final long gapOut;
+    private final long maxGreen;
+    private int lastGreenAxis = Directions.AXIS_NORTH_SOUTH;
+
+    /**
+     * Constructeur du contrôleur avec les durées par défaut.
+     */
+    public ActuatedController() {
+        this(DEFAULT_MIN_GREEN, DEFAULT_GAP_OUT, DEFAULT_MAX_GREEN);
+    }
+
+    /**
+     * Constructeur du contrôleur.
+     * @param minGreen La durée minimale du vert en millisecondes
+     * @param gapOut L'intervalle sans détection qui termine le vert, en millisecondes
+     * @param maxGreen La durée maximale du vert en millisecondes
+     */
+    public ActuatedController(long minGreen, long gapOut, long maxGreen) {
+        if (minGreen <= 0 || gapOut <= 0 || maxGreen < minGreen) {
+            throw new IllegalArgumentException("Durées invalides : vert minimum " + minGreen
+                    + ", intervalle " + gapOut + ", vert maximum " + maxGreen);
+        }
+        this.minGreen = minGreen;
+        this.gapOut = gapOut;
+        this.maxGreen = maxGreen;
+    }
+
+    @Override
+    public void decide(DemandSnapshot demand, PhaseDecision decision) {
+        int phase = demand.getPhase();
+        int axis = SignalPhase.axisOf(phase);
+
+        if (SignalPhase.isGreen(phase)) {
+            long greenEnd = greenEnd(demand, axis);
+            if (demand.getNow() < greenEnd) {
+                decision.set(phase, greenEnd - demand.getNow());
+            } else {
+                decision.set(SignalPhase.yellowOf(axis), TrafficLight.YELLOW_DURATION);
+            }
+            return;
+        }
+
+        if (SignalPhase.isYellow(phase)) {
+            lastGreenAxis = axis;
+            decision.set(SignalPhase.ALL_RED, CLEARANCE_DURATION);
+            return;
+        }
+
+        // Tous au rouge : servir l'axe qui a de la demande, l'autre axe en priorité
+        long remaining = CLEARANCE_DURATION - demand.getPhaseElapsed();
+        int otherAxis = 1 - lastGreenAxis;
+        if (demand.getAxisWaiting(otherAxis) == 0 && demand.getAxisWaiting(lastGreenAxis) == 0) {
+            decision.set(SignalPhase.ALL_RED, PhaseDecision.UNTIL_DEMAND);
+        } else if (remaining > 0) {
+            decision.set(SignalPhase.ALL_RED, remaining);
+        } else if (demand.getAxisWaiting(otherAxis) > 0) {
+            decision.set(SignalPhase.greenOf(otherAxis), minGreen);
+        } else {
+            decision.set(SignalPhase.greenOf(lastGreenAxis), minGreen);
+        }
+    }
+
+    /**
+     * Calcule la fin du vert d'un axe : prolongé de gapOut après la dernière détection
+     * ou tant que des véhicules attendent encore, entre minGreen et maxGreen. Sans demande
+     * sur l'autre axe, le vert n'est pas limité par maxGreen.
+     */
+    private long greenEnd(DemandSnapshot demand, int axis) {
+        long phaseStart = demand.getNow() - demand.getPhaseElapsed();
+        long lastDetection = demand.getAxisLastDetection(axis);
+        long end = lastDetection == DemandSnapshot.NO_DETECTION ? phaseStart : Math.max(phaseStart, lastDetection + gapOut);
+        if (demand.getAxisWaiting(axis) > 0) {
+            // Des véhicules de l'axe attendent encore (intersection occupée) : le détecteur reste actionné
+            end = Math.max(end, demand.getNow() + gapOut);
+        }
+        end = Math.max(end, phaseStart + minGreen);
+        if (demand.getAxisWaiting(1 - axis) > 0) {
+            end = Math.min(end, phaseStart + maxGreen);
+        }
+        return end;
+    }
+
+    public long getMinGreen() {
+        return minGreen;
+    }
+
+    public long getGapOut() {
+        return gapOut;
+    }
+
+    public long getMaxGreen() {
+        return maxGreen;
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeByte(lastGreenAxis);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        lastGreenAxis = in.readByte();
+    }
+}
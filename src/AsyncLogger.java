@@ -0,0 +1,228 @@
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal asynchrone à niveaux, pour les chemins critiques des véhicules et des feux.
+ * Un appel ne fait qu'ajouter un événement (niveau, date, thread, message et champs clé=valeur)
+ * dans un tampon sans verrou (LogBuffer) : le formatage et l'écriture sur la sortie, qui peuvent
+ * bloquer, sont faits par un thread d'écriture en arrière-plan. Si l'écriture ne suit pas,
+ * les événements les plus anciens sont perdus et comptés plutôt que de ralentir l'appelant.
+ *
+ * Un niveau désactivé ne coûte qu'une comparaison : les appels dont les arguments sont coûteux
+ * à construire (concaténation, conversion en objet) sont précédés de isEnabled.
+ * Le niveau minimal se règle par la propriété système simulation.log.level (INFO par défaut)
+ * ou par setLevel.
+ */
+public final class AsyncLogger {
+
+    /**
+     * Niveaux des événements, du plus détaillé au plus grave.
+     */
+    public enum Level {
+        TRACE, DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private static final LogBuffer<Event> buffer = new LogBuffer<>(BUFFER_CAPACITY);
+    private static final List<Event> drained = new ArrayList<>(); // Réutilisée par flush
+    // Vrai quand le thread d'écriture est endormi ou sur le point de l'être : le producteur
+    // qui le remet à faux le réveille
+    private static final AtomicBoolean sleeping = new AtomicBoolean();
+    private static volatile int threshold = levelFromProperty().ordinal();
+    private static volatile PrintStream output = System.out;
+    private static volatile Thread writer;
+    private static long reportedDrops;
+
+    private final String name;
+
+    private AsyncLogger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retourne le journal d'un composant.
+     * @param name Le nom du composant, écrit avec chaque événement
+     */
+    public static AsyncLogger getLogger(String name) {
+        return new AsyncLogger(name);
+    }
+
+    /**
+     * Change le niveau minimal des événements écrits, pour tous les journaux.
+     */
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public static Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    /**
+     * Change la sortie des événements (System.out par défaut).
+     */
+    public static void setOutput(PrintStream stream) {
+        output = stream;
+    }
+
+    /**
+     * Indique si les événements d'un niveau sont écrits.
+     */
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public boolean isDebugEnabled() {
+        return threshold <= Level.DEBUG.ordinal();
+    }
+
+    public void debug(String message, Object... fields) {
+        log(Level.DEBUG, message, fields);
+    }
+
+    public void info(String message, Object... fields) {
+        log(Level.INFO, message, fields);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(Level.WARN, message, fields);
+    }
+
+    public void error(String message, Object... fields) {
+        log(Level.ERROR, message, fields);
+    }
+
+    /**
+     * Ajoute un événement au journal, sans attendre son écriture.
+     * @param level Le niveau de l'événement
+     * @param message Le message
+     * @param fields Les champs de l'événement, par paires clé, valeur
+     */
+    public void log(Level level, String message, Object... fields) {
+        if (level.ordinal() < threshold) {
+            return;
+        }
+        ensureWriter();
+        buffer.add(new Event(System.currentTimeMillis(), level, Thread.currentThread().getName(), name, message, fields));
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Démarre le thread d'écriture au premier événement, avec une écriture finale à l'arrêt de la JVM.
+     */
+    private static void ensureWriter() {
+        if (writer != null) {
+            return;
+        }
+        synchronized (AsyncLogger.class) {
+            if (writer != null) {
+                return;
+            }
+            Thread thread = new Thread(AsyncLogger::writeLoop, "async-logger");
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(AsyncLogger::flush, "async-logger-flush"));
+            writer = thread;
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : sans événement en attente, il dort sans délai
+     * jusqu'à ce qu'un producteur le réveille.
+     */
+    private static void writeLoop() {
+        while (true) {
+            if (flush() == 0) {
+                sleeping.set(true);
+                // Un événement ajouté avant que sleeping soit visible n'a réveillé personne
+                if (flush() == 0) {
+                    LockSupport.park();
+                }
+                sleeping.set(false);
+            }
+        }
+    }
+
+    /**
+     * Écrit les événements en attente.
+     * @return Le nombre d'événements écrits
+     */
+    static synchronized int flush() {
+        List<Event> events = drained;
+        buffer.drainTo(events);
+        PrintStream stream = output;
+        long drops = buffer.getDroppedCount();
+        if (drops != reportedDrops) {
+            stream.println(format(new Event(System.currentTimeMillis(), Level.WARN, "async-logger", "AsyncLogger",
+                    "Événements perdus", new Object[] {"count", drops - reportedDrops})));
+            reportedDrops = drops;
+        }
+        for (Event event : events) {
+            stream.println(format(event));
+        }
+        int count = events.size();
+        if (count != 0) {
+            stream.flush();
+            events.clear();
+        }
+        return count;
+    }
+
+    /**
+     * Formate un événement : date, niveau, thread, composant, message et champs clé=valeur.
+     */
+    static String format(Event event) {
+        StringBuilder line = new StringBuilder(96);
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(event.time), line);
+        line.append(' ').append(String.format(Locale.ROOT, "%-5s", event.level))
+                .append(" [").append(event.thread).append("] ")
+                .append(event.logger).append(" - ").append(event.message);
+        Object[] fields = event.fields;
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=').append(fields[i + 1]);
+        }
+        return line.toString();
+    }
+
+    private static Level levelFromProperty() {
+        String value = System.getProperty("simulation.log.level", "INFO");
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    /**
+     * Événement du journal, formaté par le thread d'écriture.
+     */
+    static final class Event {
+        final long time;
+        final Level level;
+        final String thread;
+        final String logger;
+        final String message;
+        final Object[] fields;
+
+        Event(long time, Level level, String thread, String logger, String message, Object[] fields) {
+            this.time = time;
+            this.level = level;
+            this.thread = thread;
+            this.logger = logger;
+            this.message = message;
+            this.fields = fields;
+        }
+    }
+}
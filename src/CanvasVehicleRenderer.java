@@ -0,0 +1,288 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+/**
+ * Rendu par lots des véhicules sur un seul Canvas, à la place d'un Rectangle et d'une
+ * TranslateTransition par véhicule : les positions sont rangées dans des tableaux de primitives
+ * par direction et tous les véhicules sont dessinés en une passe par image, une couleur par lot.
+ * Le graphe de scène ne contient qu'un nœud quel que soit le nombre de véhicules, ce qui évite
+ * la mise en page et le CSS de milliers de nœuds à chaque pulsation.
+ *
+ * Chaque véhicule est désigné par un identifiant retourné par add. Un véhicule est immobile
+ * (dans sa file) ou en traversée : sa position est alors calculée à chaque image à partir de
+ * son départ, comme une TranslateTransition linéaire. Toutes les méthodes doivent être appelées
+ * sur le thread JavaFX.
+ */
+public class CanvasVehicleRenderer extends Canvas {
+    static final double VEHICLE_SIZE = 20; // Comme VehicleManager.createVehicle
+    // Couleurs par direction, comme VehicleManager.createVehicle
+    private static final Color[] COLORS = {Color.BLUE, Color.GREEN, Color.RED, Color.ORANGE};
+    // Déplacement d'une traversée par direction, comme UIVehicle.createCrossing
+    private static final double[] CROSSING_DX = {0, 0, -500, 500};
+    private static final double[] CROSSING_DY = {500, -500, 0, 0};
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Batch[] batches = new Batch[Directions.COUNT];
+    private final AnimationTimer timer;
+
+    // Identifiants : lot et indice de chaque véhicule, identifiants libres à réutiliser
+    private int[] vehicleBatch = new int[INITIAL_CAPACITY];
+    private int[] vehicleIndex = new int[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int idCount;
+    private int vehicleCount;
+
+    // Horloge de l'animation, en nanosecondes, qui avance à la vitesse rate
+    private double rate = 1.0;
+    private long clock;
+    private long lastFrameNanos = -1;
+
+    // Mesures des images
+    private long frameCount;
+    private long lastDrawNanos;
+    private long totalDrawNanos;
+
+    /**
+     * Constructeur du rendu, à la taille du panneau de l'intersection.
+     */
+    public CanvasVehicleRenderer() {
+        super(500, 500);
+        setMouseTransparent(true);
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            batches[direction] = new Batch();
+        }
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                renderFrame(now);
+            }
+        };
+    }
+
+    /**
+     * Démarre le dessin à chaque pulsation.
+     */
+    public void start() {
+        lastFrameNanos = -1;
+        timer.start();
+    }
+
+    /**
+     * Arrête le dessin.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Ajoute un véhicule immobile.
+     * @param direction L'indice de la direction du véhicule, qui choisit sa couleur
+     * @param x L'abscisse du coin supérieur gauche du véhicule
+     * @param y L'ordonnée du coin supérieur gauche du véhicule
+     * @return L'identifiant du véhicule
+     */
+    public int add(int direction, double x, double y) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = idCount++;
+            if (id == vehicleBatch.length) {
+                vehicleBatch = Arrays.copyOf(vehicleBatch, id * 2);
+                vehicleIndex = Arrays.copyOf(vehicleIndex, id * 2);
+            }
+        }
+        Batch batch = batches[direction];
+        int index = batch.add(id, x, y);
+        vehicleBatch[id] = direction;
+        vehicleIndex[id] = index;
+        vehicleCount++;
+        return id;
+    }
+
+    /**
+     * Déplace un véhicule immobile.
+     */
+    public void setPosition(int id, double x, double y) {
+        Batch batch = batches[vehicleBatch[id]];
+        int index = vehicleIndex[id];
+        batch.x[index] = x;
+        batch.y[index] = y;
+        batch.duration[index] = 0;
+    }
+
+    /**
+     * Lance la traversée d'un véhicule depuis sa position courante, jusqu'à la fin de la rue.
+     * Le véhicule reste à sa position d'arrivée jusqu'à son retrait.
+     * @param id L'identifiant du véhicule
+     * @param durationMillis La durée de la traversée à vitesse 1, en millisecondes
+     */
+    public void startCrossing(int id, long durationMillis) {
+        int direction = vehicleBatch[id];
+        Batch batch = batches[direction];
+        int index = vehicleIndex[id];
+        batch.dx[index] = CROSSING_DX[direction];
+        batch.dy[index] = CROSSING_DY[direction];
+        batch.start[index] = clock;
+        batch.duration[index] = Math.max(1, durationMillis * 1_000_000);
+    }
+
+    /**
+     * Retire un véhicule. Son identifiant peut être réattribué par add.
+     */
+    public void remove(int id) {
+        Batch batch = batches[vehicleBatch[id]];
+        int movedId = batch.remove(vehicleIndex[id]);
+        if (movedId >= 0) {
+            vehicleIndex[movedId] = vehicleIndex[id];
+        }
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+        vehicleCount--;
+    }
+
+    /**
+     * Retire tous les véhicules.
+     */
+    public void clear() {
+        for (Batch batch : batches) {
+            batch.count = 0;
+        }
+        idCount = 0;
+        freeCount = 0;
+        vehicleCount = 0;
+        getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+    }
+
+    /**
+     * Change la vitesse de l'animation, y compris pour les traversées en cours.
+     * @param rate Le facteur de vitesse (1 pour le temps réel, 0 pour une pause)
+     */
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public int getVehicleCount() {
+        return vehicleCount;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Retourne la durée du dessin de la dernière image, en nanosecondes.
+     */
+    public long getLastDrawNanos() {
+        return lastDrawNanos;
+    }
+
+    /**
+     * Retourne la durée moyenne du dessin d'une image, en nanosecondes.
+     */
+    public long getAverageDrawNanos() {
+        return frameCount == 0 ? 0 : totalDrawNanos / frameCount;
+    }
+
+    /**
+     * Avance l'horloge de l'animation et dessine tous les véhicules.
+     * Appelée à chaque pulsation par l'AnimationTimer.
+     * @param now La date de la pulsation, en nanosecondes
+     */
+    void renderFrame(long now) {
+        if (lastFrameNanos >= 0) {
+            clock += (long) ((now - lastFrameNanos) * rate);
+        }
+        lastFrameNanos = now;
+
+        long start = System.nanoTime();
+        GraphicsContext gc = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        gc.clearRect(0, 0, width, height);
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            Batch batch = batches[direction];
+            if (batch.count == 0) {
+                continue;
+            }
+            gc.setFill(COLORS[direction]);
+            for (int i = 0; i < batch.count; i++) {
+                double x = batch.x[i];
+                double y = batch.y[i];
+                long duration = batch.duration[i];
+                if (duration != 0) {
+                    double progress = Math.min(1.0, (double) (clock - batch.start[i]) / duration);
+                    x += batch.dx[i] * progress;
+                    y += batch.dy[i] * progress;
+                }
+                // Véhicules hors du panneau (files d'attente) : rien à dessiner
+                if (x > -VEHICLE_SIZE && x < width && y > -VEHICLE_SIZE && y < height) {
+                    gc.fillRect(x, y, VEHICLE_SIZE, VEHICLE_SIZE);
+                }
+            }
+        }
+        lastDrawNanos = System.nanoTime() - start;
+        totalDrawNanos += lastDrawNanos;
+        frameCount++;
+    }
+
+    /**
+     * Véhicules d'une direction, rangés de façon contiguë : un retrait déplace le dernier
+     * véhicule à la place libérée.
+     */
+    private static final class Batch {
+        int count;
+        int[] ids = new int[INITIAL_CAPACITY];
+        double[] x = new double[INITIAL_CAPACITY]; // Position immobile ou de départ de la traversée
+        double[] y = new double[INITIAL_CAPACITY];
+        double[] dx = new double[INITIAL_CAPACITY]; // Déplacement total de la traversée
+        double[] dy = new double[INITIAL_CAPACITY];
+        long[] start = new long[INITIAL_CAPACITY]; // Date de départ de la traversée, horloge de l'animation
+        long[] duration = new long[INITIAL_CAPACITY]; // Durée de la traversée en nanosecondes, 0 si immobile
+
+        int add(int id, double px, double py) {
+            if (count == ids.length) {
+                int capacity = count * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                dx = Arrays.copyOf(dx, capacity);
+                dy = Arrays.copyOf(dy, capacity);
+                start = Arrays.copyOf(start, capacity);
+                duration = Arrays.copyOf(duration, capacity);
+            }
+            int index = count++;
+            ids[index] = id;
+            x[index] = px;
+            y[index] = py;
+            duration[index] = 0;
+            return index;
+        }
+
+        /**
+         * Retire le véhicule d'un indice.
+         * @return L'identifiant du véhicule déplacé à cet indice, ou -1
+         */
+        int remove(int index) {
+            int last = --count;
+            if (index == last) {
+                return -1;
+            }
+            ids[index] = ids[last];
+            x[index] = x[last];
+            y[index] = y[last];
+            dx[index] = dx[last];
+            dy[index] = dy[last];
+            start[index] = start[last];
+            duration[index] = duration[last];
+            return ids[index];
+        }
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grille uniforme pour la phase large de la détection de collision.
+ * Des véhicules ne peuvent se percuter que s'ils viennent d'axes qui se croisent,
+ * et seulement dans la zone de conflit où les deux routes se superposent. La grille
+ * ne couvre que cette zone : un véhicule en dehors n'a aucun candidat et ne coûte
+ * qu'un test de position, quel que soit le nombre de véhicules dans la simulation.
+ */
+public class CollisionGrid {
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final Entry[][] cells;
+    private final int[] cellCounts;
+
+    /**
+     * Constructeur de la grille.
+     * @param minX Abscisse minimale de la zone couverte
+     * @param minY Ordonnée minimale de la zone couverte
+     * @param maxX Abscisse maximale de la zone couverte
+     * @param maxY Ordonnée maximale de la zone couverte
+     * @param cellSize Taille d'une cellule, au moins la taille d'un véhicule plus son déplacement entre deux mises à jour
+     */
+    public CollisionGrid(double minX, double minY, double maxX, double maxY, double cellSize) {
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil((maxX - minX) / cellSize);
+        this.rows = (int) Math.ceil((maxY - minY) / cellSize);
+        this.cells = new Entry[columns * rows][];
+        this.cellCounts = new int[columns * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Entry[4];
+        }
+    }
+
+    /**
+     * Enregistre un véhicule dans la grille, initialement hors de la zone couverte.
+     * @param owner Le véhicule
+     * @param direction L'indice de la direction du véhicule
+     * @return L'entrée du véhicule, à passer à update et remove
+     */
+    public Entry register(Object owner, int direction) {
+        return new Entry(owner, direction);
+    }
+
+    /**
+     * Met à jour la cellule d'un véhicule à partir du centre de son rectangle englobant.
+     * @param entry L'entrée du véhicule
+     * @param centerX Abscisse du centre du véhicule
+     * @param centerY Ordonnée du centre du véhicule
+     * @return true si le véhicule est dans la zone couverte, false sinon
+     */
+    public boolean update(Entry entry, double centerX, double centerY) {
+        int column = (int) Math.floor((centerX - minX) / cellSize);
+        int row = (int) Math.floor((centerY - minY) / cellSize);
+        int cell = column >= 0 && column < columns && row >= 0 && row < rows ? row * columns + column : -1;
+        if (cell != entry.cell) {
+            remove(entry);
+            if (cell >= 0) {
+                insert(entry, cell);
+            }
+        }
+        return cell >= 0;
+    }
+
+    /**
+     * Retire un véhicule de la grille, en O(1).
+     * @param entry L'entrée du véhicule
+     */
+    public void remove(Entry entry) {
+        int cell = entry.cell;
+        if (cell < 0) {
+            return;
+        }
+        Entry[] cellEntries = cells[cell];
+        int last = --cellCounts[cell];
+        Entry moved = cellEntries[last];
+        cellEntries[entry.indexInCell] = moved;
+        moved.indexInCell = entry.indexInCell;
+        cellEntries[last] = null;
+        entry.cell = -1;
+    }
+
+    /**
+     * Collecte les véhicules des mouvements en conflit avec celui du véhicule donné,
+     * dans sa cellule et les cellules voisines.
+     * @param entry L'entrée du véhicule
+     * @param candidates La liste qui reçoit les véhicules candidats à la phase fine
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void collectCandidates(Entry entry, List<T> candidates) {
+        if (entry.cell < 0) {
+            return;
+        }
+        int column = entry.cell % columns;
+        int row = entry.cell / columns;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+            for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                int cell = r * columns + c;
+                Entry[] cellEntries = cells[cell];
+                for (int i = 0; i < cellCounts[cell]; i++) {
+                    // Seuls les mouvements en conflit peuvent se percuter
+                    if (ConflictMatrix.conflicts(entry.direction, cellEntries[i].direction)) {
+                        candidates.add((T) cellEntries[i].owner);
+                    }
+                }
+            }
+        }
+    }
+
+    private void insert(Entry entry, int cell) {
+        int count = cellCounts[cell];
+        if (count == cells[cell].length) {
+            cells[cell] = Arrays.copyOf(cells[cell], count * 2);
+        }
+        cells[cell][count] = entry;
+        entry.cell = cell;
+        entry.indexInCell = count;
+        cellCounts[cell] = count + 1;
+    }
+
+    /**
+     * Entrée d'un véhicule dans la grille.
+     */
+    public static final class Entry {
+        private final Object owner;
+        private final int direction;
+        private int cell = -1;
+        private int indexInCell;
+
+        private Entry(Object owner, int direction) {
+            this.owner = owner;
+            this.direction = direction;
+        }
+
+        public int getDirection() {
+            return direction;
+        }
+    }
+}
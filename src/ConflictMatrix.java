@@ -0,0 +1,91 @@
+/**
+ * Matrice des conflits entre les mouvements de l'intersection, précalculée sous forme de masques.
+ * Un mouvement correspond à une direction (voir Directions) : deux mouvements sont en conflit
+ * lorsque leurs trajectoires se croisent, c'est-à-dire lorsqu'ils sont sur des axes différents.
+ *
+ * Elle fournit aussi les opérations sur un mot d'occupation : le nombre de véhicules engagés
+ * pour chaque mouvement, sur 16 bits, dans un seul long. Un mouvement est admis si aucun
+ * mouvement en conflit n'occupe l'intersection, ce qui se vérifie par un seul masque.
+ */
+public final class ConflictMatrix {
+    public static final int MOVEMENT_COUNT = Directions.COUNT;
+
+    // Nombre de bits du compteur de chaque mouvement dans le mot d'occupation
+    private static final int COUNT_BITS = 16;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    // Pour chaque mouvement : bit i à 1 si le mouvement i est en conflit avec lui
+    private static final int[] CONFLICTS = new int[MOVEMENT_COUNT];
+
+    // Pour chaque mouvement : les compteurs des mouvements en conflit dans le mot d'occupation
+    private static final long[] CONFLICT_OCCUPANCY_MASKS = new long[MOVEMENT_COUNT];
+
+    static {
+        for (int movement = 0; movement < MOVEMENT_COUNT; movement++) {
+            for (int other = 0; other < MOVEMENT_COUNT; other++) {
+                // Les mouvements d'un même axe, dans le même sens ou en sens opposé, ne se croisent pas
+                if (Directions.axisOf(movement) != Directions.axisOf(other)) {
+                    CONFLICTS[movement] |= 1 << other;
+                    CONFLICT_OCCUPANCY_MASKS[movement] |= COUNT_MASK << (other * COUNT_BITS);
+                }
+            }
+        }
+    }
+
+    private ConflictMatrix() {
+    }
+
+    /**
+     * Retourne le masque des mouvements en conflit avec un mouvement donné.
+     * @param movement L'indice du mouvement
+     */
+    public static int conflictsOf(int movement) {
+        return CONFLICTS[movement];
+    }
+
+    /**
+     * Vérifie si deux mouvements sont en conflit.
+     * @param movement Premier mouvement
+     * @param other Deuxième mouvement
+     * @return true si les trajectoires des deux mouvements se croisent, false sinon
+     */
+    public static boolean conflicts(int movement, int other) {
+        return (CONFLICTS[movement] & (1 << other)) != 0;
+    }
+
+    /**
+     * Vérifie si un mouvement peut être admis dans une intersection occupée selon le mot donné.
+     * @param occupancy Le mot d'occupation
+     * @param movement L'indice du mouvement
+     * @return true si aucun mouvement en conflit n'occupe l'intersection, false sinon
+     */
+    public static boolean admits(long occupancy, int movement) {
+        return (occupancy & CONFLICT_OCCUPANCY_MASKS[movement]) == 0 && countOf(occupancy, movement) < COUNT_MASK;
+    }
+
+    /**
+     * Retourne le mot d'occupation après l'entrée d'un véhicule.
+     * À n'appeler que si admits a retourné true pour ce mot.
+     */
+    public static long enter(long occupancy, int movement) {
+        return occupancy + (1L << (movement * COUNT_BITS));
+    }
+
+    /**
+     * Retourne le mot d'occupation après la sortie d'un véhicule.
+     * @throws IllegalStateException Si aucun véhicule de ce mouvement n'occupe l'intersection
+     */
+    public static long exit(long occupancy, int movement) {
+        if (countOf(occupancy, movement) == 0) {
+            throw new IllegalStateException("Aucun véhicule " + Directions.nameOf(movement) + " dans l'intersection");
+        }
+        return occupancy - (1L << (movement * COUNT_BITS));
+    }
+
+    /**
+     * Retourne le nombre de véhicules d'un mouvement engagés dans l'intersection.
+     */
+    public static int countOf(long occupancy, int movement) {
+        return (int) ((occupancy >>> (movement * COUNT_BITS)) & COUNT_MASK);
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Registre de la demande d'une intersection : nombre de véhicules en attente et en passage
+ * pour chaque direction. Partagé par les quatre feux, il donne au contrôleur la demande réelle
+ * de tout l'axe. Les compteurs sont des entiers atomiques sans verrou ni boxing, espacés
+ * d'une ligne de cache pour que les directions ne se gênent pas entre elles.
+ */
+public class DemandRegistry {
+    // Espacement entre deux compteurs : 16 entiers, soit 64 octets
+    private static final int STRIDE = 16;
+
+    private final AtomicIntegerArray waitingVehicles = new AtomicIntegerArray(Directions.COUNT * STRIDE);
+    private final AtomicIntegerArray passingVehicles = new AtomicIntegerArray(Directions.COUNT * STRIDE);
+    
+    // Action de chaque axe exécutée lorsqu'un véhicule se met en attente (détecteur d'approche),
+    // publiée aux threads des véhicules par l'écriture atomique
+    private final AtomicReferenceArray<IntConsumer> demandListeners = new AtomicReferenceArray<>(2);
+
+    /**
+     * Incrémente le nombre de véhicules en attente pour une direction.
+     * @param direction L'indice de la direction
+     * @return Le nouveau nombre de véhicules en attente
+     */
+    public int incrementWaiting(int direction) {
+        int count = waitingVehicles.incrementAndGet(direction * STRIDE);
+        IntConsumer listener = demandListeners.get(Directions.axisOf(direction));
+        if (listener != null) {
+            listener.accept(direction);
+        }
+        return count;
+    }
+
+    /**
+     * Définit l'action exécutée à chaque nouveau véhicule en attente sur un axe.
+     * Elle reçoit la direction du véhicule, est appelée par le thread du véhicule et doit donc être courte.
+     * @param axis L'axe (Directions.AXIS_NORTH_SOUTH ou AXIS_EAST_WEST)
+     * @param listener L'action à exécuter
+     */
+    public void setDemandListener(int axis, IntConsumer listener) {
+        demandListeners.set(axis, listener);
+    }
+
+    /**
+     * Décrémente le nombre de véhicules en attente pour une direction, sans descendre sous zéro.
+     * @param direction L'indice de la direction
+     * @return Le nouveau nombre de véhicules en attente, ou -1 si le compteur était déjà à zéro
+     */
+    public int decrementWaiting(int direction) {
+        return decrementIfPositive(waitingVehicles, direction * STRIDE);
+    }
+
+    /**
+     * Incrémente le nombre de véhicules en passage pour une direction.
+     * @param direction L'indice de la direction
+     * @return Le nouveau nombre de véhicules en passage
+     */
+    public int incrementPassing(int direction) {
+        return passingVehicles.incrementAndGet(direction * STRIDE);
+    }
+
+    /**
+     * Décrémente le nombre de véhicules en passage pour une direction, sans descendre sous zéro.
+     * @param direction L'indice de la direction
+     * @return Le nouveau nombre de véhicules en passage, ou -1 si le compteur était déjà à zéro
+     */
+    public int decrementPassing(int direction) {
+        return decrementIfPositive(passingVehicles, direction * STRIDE);
+    }
+
+    public int getWaiting(int direction) {
+        return waitingVehicles.get(direction * STRIDE);
+    }
+
+    public int getPassing(int direction) {
+        return passingVehicles.get(direction * STRIDE);
+    }
+
+    /**
+     * Retourne le nombre de véhicules en attente sur un axe (les deux directions).
+     * @param axis L'axe (Directions.AXIS_NORTH_SOUTH ou AXIS_EAST_WEST)
+     */
+    public int getAxisWaiting(int axis) {
+        int direction = Directions.mainDirectionOf(axis);
+        return getWaiting(direction) + getWaiting(direction + 1);
+    }
+
+    /**
+     * Retourne le nombre de véhicules en passage sur un axe (les deux directions).
+     * @param axis L'axe (Directions.AXIS_NORTH_SOUTH ou AXIS_EAST_WEST)
+     */
+    public int getAxisPassing(int axis) {
+        int direction = Directions.mainDirectionOf(axis);
+        return getPassing(direction) + getPassing(direction + 1);
+    }
+
+    private static int decrementIfPositive(AtomicIntegerArray counters, int index) {
+        while (true) {
+            int count = counters.get(index);
+            if (count <= 0) {
+                return -1;
+            }
+            if (counters.compareAndSet(index, count, count - 1)) {
+                return count - 1;
+            }
+        }
+    }
+}
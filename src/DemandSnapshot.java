@@ -0,0 +1,120 @@
+/**
+ * Photographie de la demande d'une intersection, transmise au contrôleur de feux :
+ * véhicules en attente et en passage par direction, file de l'intersection suivante
+ * dans chaque direction, dernière détection d'un véhicule sur chaque approche,
+ * et phase courante. L'objet est réutilisé à chaque décision.
+ */
+public class DemandSnapshot {
+    /**
+     * Date de détection d'une approche sur laquelle aucun véhicule n'a encore été détecté.
+     */
+    public static final long NO_DETECTION = Long.MIN_VALUE;
+
+    private final int[] waiting = new int[Directions.COUNT];
+    private final int[] passing = new int[Directions.COUNT];
+    private final int[] downstream = new int[Directions.COUNT];
+    private final long[] lastDetections = {NO_DETECTION, NO_DETECTION, NO_DETECTION, NO_DETECTION};
+    private long now;
+    private int phase = SignalPhase.ALL_RED;
+    private long phaseStart;
+
+    /**
+     * Enregistre la date de la décision et la phase en cours.
+     * @param now La date courante en millisecondes
+     * @param phase La phase en cours
+     * @param phaseStart La date du début de la phase en cours
+     */
+    void setPhase(long now, int phase, long phaseStart) {
+        this.now = now;
+        this.phase = phase;
+        this.phaseStart = phaseStart;
+    }
+
+    /**
+     * Enregistre la demande d'une direction.
+     * @param direction L'indice de la direction
+     * @param waitingVehicles Le nombre de véhicules en attente
+     * @param passingVehicles Le nombre de véhicules en passage
+     * @param downstreamVehicles Le nombre de véhicules en attente à l'intersection suivante dans cette direction
+     */
+    void setDemand(int direction, int waitingVehicles, int passingVehicles, int downstreamVehicles) {
+        waiting[direction] = waitingVehicles;
+        passing[direction] = passingVehicles;
+        downstream[direction] = downstreamVehicles;
+    }
+
+    /**
+     * Enregistre la date de la dernière détection d'un véhicule sur une approche.
+     * @param direction L'indice de la direction
+     * @param time La date de la détection, ou NO_DETECTION
+     */
+    void setLastDetection(int direction, long time) {
+        lastDetections[direction] = time;
+    }
+
+    public long getNow() {
+        return now;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Retourne le temps écoulé depuis le début de la phase en cours, en millisecondes.
+     */
+    public long getPhaseElapsed() {
+        return now - phaseStart;
+    }
+
+    public int getWaiting(int direction) {
+        return waiting[direction];
+    }
+
+    public int getPassing(int direction) {
+        return passing[direction];
+    }
+
+    public int getDownstream(int direction) {
+        return downstream[direction];
+    }
+
+    /**
+     * Retourne la date de la dernière détection d'un véhicule sur une approche, ou NO_DETECTION.
+     */
+    public long getLastDetection(int direction) {
+        return lastDetections[direction];
+    }
+
+    /**
+     * Retourne la date de la dernière détection d'un véhicule sur un axe, ou NO_DETECTION.
+     */
+    public long getAxisLastDetection(int axis) {
+        int direction = Directions.mainDirectionOf(axis);
+        return Math.max(lastDetections[direction], lastDetections[direction + 1]);
+    }
+
+    /**
+     * Retourne le nombre de véhicules en attente sur un axe (les deux directions).
+     */
+    public int getAxisWaiting(int axis) {
+        int direction = Directions.mainDirectionOf(axis);
+        return waiting[direction] + waiting[direction + 1];
+    }
+
+    /**
+     * Retourne le nombre de véhicules en passage sur un axe (les deux directions).
+     */
+    public int getAxisPassing(int axis) {
+        int direction = Directions.mainDirectionOf(axis);
+        return passing[direction] + passing[direction + 1];
+    }
+
+    /**
+     * Retourne le nombre de véhicules en attente aux intersections suivantes d'un axe.
+     */
+    public int getAxisDownstream(int axis) {
+        int direction = Directions.mainDirectionOf(axis);
+        return downstream[direction] + downstream[direction + 1];
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Constantes et conversions pour les quatre directions de l'intersection.
+ * Chaque direction possède un indice entier qui permet des accès en O(1)
+ * dans des tableaux plutôt que des comparaisons de chaînes.
+ */
+public final class Directions {
+    public static final int NORTH_SOUTH = 0;
+    public static final int SOUTH_NORTH = 1;
+    public static final int EAST_WEST = 2;
+    public static final int WEST_EAST = 3;
+    public static final int COUNT = 4;
+
+    // Axes de circulation (les deux directions d'un même axe ne se croisent pas)
+    public static final int AXIS_NORTH_SOUTH = 0;
+    public static final int AXIS_EAST_WEST = 1;
+
+    private static final String[] NAMES = {"North-South", "South-North", "East-West", "West-East"};
+
+    private Directions() {
+    }
+
+    /**
+     * Retourne l'indice d'une direction.
+     * @param direction Le nom de la direction (North-South, South-North, East-West, West-East)
+     * @return L'indice de la direction, ou -1 si elle est inconnue
+     */
+    public static int indexOf(String direction) {
+        switch (direction) {
+            case "North-South":
+                return NORTH_SOUTH;
+            case "South-North":
+                return SOUTH_NORTH;
+            case "East-West":
+                return EAST_WEST;
+            case "West-East":
+                return WEST_EAST;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Retourne le nom d'une direction à partir de son indice.
+     */
+    public static String nameOf(int direction) {
+        return NAMES[direction];
+    }
+
+    /**
+     * Retourne l'axe (Nord-Sud ou Est-Ouest) d'une direction.
+     */
+    public static int axisOf(int direction) {
+        return direction >> 1;
+    }
+
+    /**
+     * Retourne la direction principale d'un axe, celle dont le feu pilote l'axe.
+     */
+    public static int mainDirectionOf(int axis) {
+        return axis << 1;
+    }
+}
@@ -0,0 +1,697 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Moteur de simulation à événements discrets de l'intersection.
+ * Reproduit les générateurs de véhicules à cycle fixe (SimulationController) et intelligent
+ * (SmartVehicleGenerator), les feux pilotés par un SignalController comme dans l'interface
+ * (SignalExecutor) et le comportement des véhicules (UIVehicle), sans JavaFX ni Thread.sleep :
+ * le temps simulé saute directement d'un événement au suivant, ce qui permet
+ * de simuler une heure de trafic en quelques millisecondes.
+ * Toutes les décisions suivent le temps simulé et tout l'aléa vient de la graine :
+ * deux exécutions avec la même graine sont identiques, trace comprise (voir traceClock).
+ * L'état complet peut être enregistré dans un point de contrôle et restauré en quelques
+ * millisecondes, pour reprendre une situation de congestion sans refaire la montée en charge.
+ */
+public class DiscreteEventSimulation {
+
+    /**
+     * Mode de simulation : générateur de véhicules et contrôleur des feux par défaut.
+     */
+    public enum Mode {
+        FIXED, // Générateur de SimulationController, feux à cycle fixe
+        SMART  // Générateur de SmartVehicleGenerator, feux actionnés par les détecteurs
+    }
+
+    // Point de contrôle : en-tête du fichier
+    static final int CHECKPOINT_MAGIC = 0x434B5031; // "CKP1"
+    static final short CHECKPOINT_VERSION = 3;
+
+    private final Mode mode;
+    private final long seed; // Graine de l'exécution, conservée par les points de contrôle
+    private final SimulationRandom random;
+    private final PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+    private int vehicleCounter;
+
+    // État des feux par axe (Nord-Sud, Est-Ouest)
+    private final int[] axisStates = new int[2];
+
+    // Véhicules arrêtés au feu, par direction, relâchés au passage au vert
+    // ou à la sortie du dernier véhicule en conflit
+    private final ArrayDeque<SimulationEvent>[] stoppedVehicles;
+
+    // Mot d'occupation de l'intersection, comme Intersection.tryEnter (voir ConflictMatrix)
+    private long occupancy;
+
+    // Demande par direction, comme le registre de demande de l'intersection
+    private final int[] waitingVehicles = new int[Directions.COUNT];
+    private final int[] passingVehicles = new int[Directions.COUNT];
+
+    // Date de la dernière détection d'un véhicule par direction, comme SignalExecutor
+    private final long[] lastDetections = new long[Directions.COUNT];
+
+    // Contrôleur des feux et phase courante
+    private final SignalController controller;
+    private final DemandSnapshot snapshot = new DemandSnapshot();
+    private final PhaseDecision decision = new PhaseDecision();
+    private int phase = SignalPhase.ALL_RED;
+    private long phaseStart;
+    private SimulationEvent parkedTick; // Décision en attente de la demande, null si aucune
+
+    // Mode fixe : nombre de véhicules présents par direction
+    private final int[] vehiclesInDirection = new int[Directions.COUNT];
+
+    // Statistiques
+    private long processedEvents;
+    private long arrivals;
+    private long admissions;
+    private long departures;
+    private long phaseChanges;
+    private long totalWaitTime;
+    private long maxWaitTime;
+    private final long[] departuresByDirection = new long[Directions.COUNT];
+    private final TrafficStatistics statistics = new TrafficStatistics(); // Durées simulées, en nanosecondes
+    private TraceRecorder traceRecorder;
+    private long traceOrigin; // Date simulée du début de la trace
+
+    /**
+     * Constructeur de la simulation, avec le contrôleur des feux par défaut du mode.
+     * @param mode Le mode de simulation
+     * @param seed La graine du générateur aléatoire
+     */
+    public DiscreteEventSimulation(Mode mode, long seed) {
+        this(mode, (mode == Mode.FIXED ? SignalControllerType.FIXED : SignalControllerType.ACTUATED).create(), seed);
+    }
+
+    /**
+     * Constructeur de la simulation.
+     * @param mode Le mode de simulation, qui choisit le générateur de véhicules
+     * @param controller Le contrôleur des feux
+     * @param seed La graine du générateur aléatoire
+     */
+    public DiscreteEventSimulation(Mode mode, SignalController controller, long seed) {
+        this(mode, controller, seed, new SimulationRandom(seed));
+
+        // Tous les feux commencent au rouge et le contrôleur décide immédiatement
+        schedule(new SimulationEvent(SimulationEvent.CONTROLLER_TICK, -1, 0), 0);
+        if (mode == Mode.FIXED) {
+            schedule(new SimulationEvent(SimulationEvent.ARRIVAL, -1, 0), nextFixedGenerationDelay());
+        } else {
+            // Le générateur intelligent crée sa première vague immédiatement
+            schedule(new SimulationEvent(SimulationEvent.ARRIVAL, -1, 0), 0);
+        }
+    }
+
+    /**
+     * Constructeur commun, sans événement planifié (voir restoreCheckpoint).
+     */
+    private DiscreteEventSimulation(Mode mode, SignalController controller, long seed, SimulationRandom random) {
+        this.mode = mode;
+        this.controller = controller;
+        this.seed = seed;
+        this.random = random;
+        this.stoppedVehicles = newVehicleQueues();
+        axisStates[Directions.AXIS_NORTH_SOUTH] = TrafficLight.RED;
+        axisStates[Directions.AXIS_EAST_WEST] = TrafficLight.RED;
+        Arrays.fill(lastDetections, DemandSnapshot.NO_DETECTION);
+    }
+
+    /**
+     * Exécute tous les événements dont la date est inférieure ou égale à la date donnée.
+     * @param endTime La date simulée de fin en millisecondes
+     */
+    public void runUntil(long endTime) {
+        while (!events.isEmpty() && events.peek().time <= endTime) {
+            SimulationEvent event = events.poll();
+            now = event.time;
+            processedEvents++;
+            process(event);
+        }
+        now = Math.max(now, endTime);
+    }
+
+    private void process(SimulationEvent event) {
+        switch (event.type) {
+            case SimulationEvent.ARRIVAL:
+                onArrival(event);
+                break;
+            case SimulationEvent.ADMISSION:
+                onAdmission(event);
+                break;
+            case SimulationEvent.DEPARTURE:
+                onDeparture(event);
+                break;
+            case SimulationEvent.CONTROLLER_TICK:
+                onControllerTick(event);
+                break;
+        }
+    }
+
+    private void onArrival(SimulationEvent event) {
+        if (mode == Mode.FIXED) {
+            // Une direction aléatoire, dans la limite du nombre de véhicules présents par direction :
+            // comme dans l'interface, un véhicule sorti de l'intersection libère sa place
+            int direction = random.nextInt(Directions.COUNT);
+            if (vehiclesInDirection[direction] < SimulationController.MAX_VEHICLES_PER_DIRECTION) {
+                vehiclesInDirection[direction]++;
+                spawnVehicle(direction);
+            }
+            schedule(event, now + nextFixedGenerationDelay());
+        } else {
+            // Une vague : chaque direction a une chance de recevoir un véhicule,
+            // plus élevée lorsque le feu de la direction est rouge
+            for (int direction = 0; direction < Directions.COUNT; direction++) {
+                double probability = SmartVehicleGenerator.BASE_PROBABILITY;
+                if (axisStates[Directions.axisOf(direction)] == TrafficLight.RED) {
+                    probability *= SmartVehicleGenerator.RED_LIGHT_FACTOR;
+                }
+                if (random.nextDouble() < probability) {
+                    spawnVehicle(direction);
+                }
+            }
+            schedule(event, now + random.nextInt(SmartVehicleGenerator.GENERATION_DELAY_RANGE)
+                    + SmartVehicleGenerator.MIN_GENERATION_DELAY);
+        }
+    }
+
+    private void spawnVehicle(int direction) {
+        arrivals++;
+        waitingVehicles[direction]++;
+        lastDetections[direction] = now;
+        wakeController();
+        int vehicleId = ++vehicleCounter;
+        if (traceRecorder != null) {
+            traceRecorder.recordArrival(direction, vehicleId);
+        }
+        SimulationEvent admission = new SimulationEvent(SimulationEvent.ADMISSION, direction, vehicleId);
+        admission.arrivalTime = now;
+        // Le véhicule vérifie le feu dès son apparition
+        schedule(admission, now);
+    }
+
+    /**
+     * Le véhicule vérifie le feu de son axe ; s'il est vert et qu'aucun mouvement en conflit
+     * n'occupe l'intersection il s'engage, sinon il attend dans la file de sa direction
+     * (Intersection.awaitGreen).
+     */
+    private void onAdmission(SimulationEvent event) {
+        int direction = event.direction;
+        if (axisStates[Directions.axisOf(direction)] != TrafficLight.GREEN
+                || !ConflictMatrix.admits(occupancy, direction)) {
+            stoppedVehicles[direction].add(event);
+            return;
+        }
+        occupancy = ConflictMatrix.enter(occupancy, direction);
+
+        long wait = now - event.arrivalTime;
+        admissions++;
+        totalWaitTime += wait;
+        maxWaitTime = Math.max(maxWaitTime, wait);
+        statistics.recordWait(direction, TimeUnit.MILLISECONDS.toNanos(wait));
+        event.admissionTime = now;
+        if (traceRecorder != null) {
+            traceRecorder.recordAdmission(direction, event.vehicleId);
+        }
+
+        waitingVehicles[direction]--;
+        passingVehicles[direction]++;
+
+        event.type = SimulationEvent.DEPARTURE;
+        schedule(event, now + UIVehicle.CROSSING_DURATION);
+    }
+
+    private void onDeparture(SimulationEvent event) {
+        int direction = event.direction;
+        occupancy = ConflictMatrix.exit(occupancy, direction);
+        if (ConflictMatrix.countOf(occupancy, direction) == 0) {
+            // Les véhicules des mouvements en conflit peuvent désormais s'engager
+            int conflicts = ConflictMatrix.conflictsOf(direction);
+            for (int other = 0; other < Directions.COUNT; other++) {
+                if ((conflicts & (1 << other)) != 0 && ConflictMatrix.admits(occupancy, other)) {
+                    releaseStoppedVehicles(other);
+                }
+            }
+        }
+        departures++;
+        departuresByDirection[direction]++;
+        if (traceRecorder != null) {
+            traceRecorder.recordDeparture(direction, event.vehicleId);
+        }
+        statistics.recordCrossing(direction, TimeUnit.MILLISECONDS.toNanos(now - event.admissionTime));
+        passingVehicles[direction]--;
+        if (mode == Mode.FIXED) {
+            vehiclesInDirection[direction]--;
+        }
+    }
+
+    /**
+     * Décision du contrôleur des feux, comme SignalExecutor : la phase choisie est appliquée,
+     * puis la décision suivante est planifiée ou mise en attente de la demande.
+     */
+    private void onControllerTick(SimulationEvent event) {
+        snapshot.setPhase(now, phase, phaseStart);
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            snapshot.setDemand(direction, waitingVehicles[direction], passingVehicles[direction], 0);
+            snapshot.setLastDetection(direction, lastDetections[direction]);
+        }
+        controller.decide(snapshot, decision);
+        applyPhase(decision.getPhase());
+
+        if (decision.getDuration() == PhaseDecision.UNTIL_DEMAND) {
+            parkedTick = event;
+        } else {
+            schedule(event, now + decision.getDuration());
+        }
+    }
+
+    /**
+     * Réveille le contrôleur en attente de la demande, comme le registre de demande de l'intersection.
+     */
+    private void wakeController() {
+        if (parkedTick != null) {
+            schedule(parkedTick, now);
+            parkedTick = null;
+        }
+    }
+
+    /**
+     * Applique une phase aux deux axes, l'axe qui quitte le vert en premier.
+     */
+    private void applyPhase(int newPhase) {
+        if (newPhase == phase) {
+            return;
+        }
+        phase = newPhase;
+        phaseStart = now;
+        for (int axis = 0; axis < 2; axis++) {
+            int state = SignalPhase.lightStateOf(newPhase, axis);
+            if (state != TrafficLight.GREEN && axisStates[axis] != state) {
+                setAxisState(axis, state);
+            }
+        }
+        for (int axis = 0; axis < 2; axis++) {
+            int state = SignalPhase.lightStateOf(newPhase, axis);
+            if (state == TrafficLight.GREEN && axisStates[axis] != state) {
+                setAxisState(axis, state);
+            }
+        }
+    }
+
+    private void setAxisState(int axis, int state) {
+        axisStates[axis] = state;
+        phaseChanges++;
+        if (traceRecorder != null) {
+            // Un enregistrement par feu, comme Intersection
+            traceRecorder.recordPhaseChange(Directions.mainDirectionOf(axis), state);
+            traceRecorder.recordPhaseChange(Directions.mainDirectionOf(axis) + 1, state);
+        }
+        if (state == TrafficLight.GREEN) {
+            int mainDirection = Directions.mainDirectionOf(axis);
+            releaseStoppedVehicles(mainDirection);
+            releaseStoppedVehicles(mainDirection + 1);
+        }
+    }
+
+    private void releaseStoppedVehicles(int direction) {
+        ArrayDeque<SimulationEvent> queue = stoppedVehicles[direction];
+        while (!queue.isEmpty()) {
+            schedule(queue.poll(), now);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArrayDeque<SimulationEvent>[] newVehicleQueues() {
+        ArrayDeque<SimulationEvent>[] queues = new ArrayDeque[Directions.COUNT];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        return queues;
+    }
+
+    private void schedule(SimulationEvent event, long time) {
+        event.time = time;
+        event.sequence = sequence++;
+        events.add(event);
+    }
+
+    private int nextFixedGenerationDelay() {
+        return random.nextInt(SimulationController.GENERATION_DELAY_RANGE) + SimulationController.MIN_GENERATION_DELAY;
+    }
+
+    /**
+     * Enregistre les événements de la simulation dans une trace, à partir de la date courante.
+     * La trace commence par l'état courant (feux, véhicules en attente et engagés), ce qui permet
+     * de rejouer une simulation restaurée d'un point de contrôle.
+     * La trace doit avoir été créée avec l'horloge traceClock de cette simulation.
+     * @param traceRecorder L'enregistreur, ou null pour arrêter l'enregistrement
+     */
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+        this.traceOrigin = now;
+        if (traceRecorder == null) {
+            return;
+        }
+        for (int axis = 0; axis < 2; axis++) {
+            traceRecorder.recordPhaseChange(Directions.mainDirectionOf(axis), axisStates[axis]);
+            traceRecorder.recordPhaseChange(Directions.mainDirectionOf(axis) + 1, axisStates[axis]);
+        }
+        List<SimulationEvent> vehicles = new ArrayList<>();
+        for (SimulationEvent event : events) {
+            if (event.type == SimulationEvent.ADMISSION || event.type == SimulationEvent.DEPARTURE) {
+                vehicles.add(event);
+            }
+        }
+        for (ArrayDeque<SimulationEvent> queue : stoppedVehicles) {
+            vehicles.addAll(queue);
+        }
+        vehicles.sort(Comparator.comparingInt(SimulationEvent::getVehicleId));
+        for (SimulationEvent vehicle : vehicles) {
+            traceRecorder.recordArrival(vehicle.direction, vehicle.vehicleId);
+            if (vehicle.type == SimulationEvent.DEPARTURE) {
+                traceRecorder.recordAdmission(vehicle.direction, vehicle.vehicleId);
+            }
+        }
+    }
+
+    /**
+     * Retourne l'horloge en temps simulé à passer à TraceRecorder, en microsecondes
+     * depuis le début de la trace (voir setTraceRecorder).
+     */
+    public LongSupplier traceClock() {
+        return () -> TimeUnit.MILLISECONDS.toMicros(now - traceOrigin);
+    }
+
+    /**
+     * Enregistre l'état complet de la simulation dans un point de contrôle : feux et contrôleur,
+     * événements planifiés avec leurs dates (arrivées, traversées, décisions du contrôleur),
+     * véhicules arrêtés par direction, compteurs, statistiques et état du générateur aléatoire.
+     * La simulation restaurée poursuit exactement comme celle-ci. La trace n'est pas enregistrée.
+     * @param file Le fichier du point de contrôle, remplacé s'il existe
+     * @throws IOException Si le fichier ne peut pas être écrit
+     */
+    public void saveCheckpoint(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeShort(CHECKPOINT_VERSION);
+            out.writeByte(mode.ordinal());
+            out.writeByte(SignalControllerType.of(controller).ordinal());
+            out.writeLong(seed);
+            controller.writeState(out);
+            out.writeLong(random.getState());
+
+            out.writeLong(now);
+            out.writeLong(sequence);
+            out.writeInt(vehicleCounter);
+            out.writeByte(axisStates[Directions.AXIS_NORTH_SOUTH]);
+            out.writeByte(axisStates[Directions.AXIS_EAST_WEST]);
+            out.writeLong(occupancy);
+            out.writeByte(phase);
+            out.writeLong(phaseStart);
+            for (int direction = 0; direction < Directions.COUNT; direction++) {
+                out.writeInt(waitingVehicles[direction]);
+                out.writeInt(passingVehicles[direction]);
+                out.writeLong(lastDetections[direction]);
+                out.writeInt(vehiclesInDirection[direction]);
+                out.writeLong(departuresByDirection[direction]);
+            }
+            out.writeLong(processedEvents);
+            out.writeLong(arrivals);
+            out.writeLong(admissions);
+            out.writeLong(departures);
+            out.writeLong(phaseChanges);
+            out.writeLong(totalWaitTime);
+            out.writeLong(maxWaitTime);
+            statistics.writeTo(out);
+
+            // Événements planifiés, véhicules arrêtés et décision en attente de la demande
+            out.writeInt(events.size());
+            for (SimulationEvent event : events) {
+                writeEvent(out, event);
+            }
+            for (ArrayDeque<SimulationEvent> queue : stoppedVehicles) {
+                out.writeInt(queue.size());
+                for (SimulationEvent event : queue) {
+                    writeEvent(out, event);
+                }
+            }
+            out.writeBoolean(parkedTick != null);
+            if (parkedTick != null) {
+                writeEvent(out, parkedTick);
+            }
+        }
+    }
+
+    /**
+     * Restaure une simulation enregistrée par saveCheckpoint. Le contrôleur des feux est recréé
+     * avec les paramètres par défaut de son type, puis son état est rétabli.
+     * @param file Le fichier du point de contrôle
+     * @return La simulation, à la date du point de contrôle
+     * @throws IOException Si le fichier ne peut pas être lu ou n'est pas un point de contrôle
+     */
+    public static DiscreteEventSimulation restoreCheckpoint(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readShort() != CHECKPOINT_VERSION) {
+                throw new IOException("Format de point de contrôle inconnu : " + file);
+            }
+            int modeIndex = in.readUnsignedByte();
+            int controllerIndex = in.readUnsignedByte();
+            if (modeIndex >= Mode.values().length || controllerIndex >= SignalControllerType.values().length) {
+                throw new IOException("Point de contrôle invalide : " + file);
+            }
+            long seed = in.readLong();
+            SignalController controller = SignalControllerType.values()[controllerIndex].create();
+            controller.readState(in);
+            SimulationRandom random = new SimulationRandom(0);
+            random.setState(in.readLong());
+
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(Mode.values()[modeIndex], controller,
+                    seed, random);
+            simulation.readState(in);
+            return simulation;
+        }
+    }
+
+    private void readState(DataInput in) throws IOException {
+        now = in.readLong();
+        sequence = in.readLong();
+        vehicleCounter = in.readInt();
+        axisStates[Directions.AXIS_NORTH_SOUTH] = in.readByte();
+        axisStates[Directions.AXIS_EAST_WEST] = in.readByte();
+        occupancy = in.readLong();
+        phase = in.readByte();
+        phaseStart = in.readLong();
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waitingVehicles[direction] = in.readInt();
+            passingVehicles[direction] = in.readInt();
+            lastDetections[direction] = in.readLong();
+            vehiclesInDirection[direction] = in.readInt();
+            departuresByDirection[direction] = in.readLong();
+        }
+        processedEvents = in.readLong();
+        arrivals = in.readLong();
+        admissions = in.readLong();
+        departures = in.readLong();
+        phaseChanges = in.readLong();
+        totalWaitTime = in.readLong();
+        maxWaitTime = in.readLong();
+        statistics.readFrom(in);
+
+        for (int n = in.readInt(); n > 0; n--) {
+            events.add(readEvent(in));
+        }
+        for (ArrayDeque<SimulationEvent> queue : stoppedVehicles) {
+            for (int n = in.readInt(); n > 0; n--) {
+                queue.add(readEvent(in));
+            }
+        }
+        parkedTick = in.readBoolean() ? readEvent(in) : null;
+    }
+
+    private static void writeEvent(DataOutput out, SimulationEvent event) throws IOException {
+        out.writeLong(event.time);
+        out.writeLong(event.sequence);
+        out.writeByte(event.type);
+        out.writeByte(event.direction);
+        out.writeInt(event.vehicleId);
+        out.writeLong(event.arrivalTime);
+        out.writeLong(event.admissionTime);
+    }
+
+    private static SimulationEvent readEvent(DataInput in) throws IOException {
+        long time = in.readLong();
+        long sequence = in.readLong();
+        SimulationEvent event = new SimulationEvent(in.readByte(), in.readByte(), in.readInt());
+        event.time = time;
+        event.sequence = sequence;
+        event.arrivalTime = in.readLong();
+        event.admissionTime = in.readLong();
+        return event;
+    }
+
+    /**
+     * Retourne la graine de l'exécution, y compris pour une simulation restaurée.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retourne la date simulée courante en millisecondes.
+     */
+    public long getNow() {
+        return now;
+    }
+
+    /**
+     * Retourne la phase courante des feux (voir SignalPhase).
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Retourne l'état (TrafficLight.RED, YELLOW ou GREEN) des feux d'un axe.
+     */
+    public int getAxisState(int axis) {
+        return axisStates[axis];
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getDepartures() {
+        return departures;
+    }
+
+    public long getDepartures(int direction) {
+        return departuresByDirection[direction];
+    }
+
+    public long getPhaseChanges() {
+        return phaseChanges;
+    }
+
+    /**
+     * Retourne le temps d'attente moyen au feu des véhicules admis, en millisecondes.
+     */
+    public double getAverageWaitTime() {
+        return admissions == 0 ? 0 : (double) totalWaitTime / admissions;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    /**
+     * Retourne les statistiques de trafic par direction, en nanosecondes de temps simulé.
+     */
+    public TrafficStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Lance une simulation sans interface graphique.
+     * Usage : java DiscreteEventSimulation [fixed|smart] [durée en secondes] [graine] [fixed|smart|actuated|max-pressure]
+     * [fichier de trace] [--save point de contrôle]
+     * ou : java DiscreteEventSimulation --restore point de contrôle [durée en secondes] [fichier de trace]
+     * [--save point de contrôle]
+     * Avec --restore, le mode, le contrôleur et la graine viennent de l'en-tête du point de contrôle
+     * et la durée est ajoutée à sa date ; avec --save, l'état final est enregistré.
+     */
+    public static void main(String[] args) throws IOException {
+        // Options de point de contrôle, les autres arguments sont positionnels
+        List<String> positional = new ArrayList<>();
+        Path restoreFile = null;
+        Path saveFile = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--restore") && i + 1 < args.length) {
+                restoreFile = Paths.get(args[++i]);
+            } else if (args[i].equals("--save") && i + 1 < args.length) {
+                saveFile = Paths.get(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        args = positional.toArray(new String[0]);
+
+        DiscreteEventSimulation simulation;
+        long duration;
+        String traceFile;
+        if (restoreFile != null) {
+            duration = args.length > 0 ? Long.parseLong(args[0]) * 1000 : 3_600_000;
+            traceFile = args.length > 1 ? args[1] : null;
+            long restoreStart = System.nanoTime();
+            simulation = restoreCheckpoint(restoreFile);
+            System.out.println("Point de contrôle " + restoreFile + " restauré en "
+                    + String.format("%.2f", (System.nanoTime() - restoreStart) / 1_000_000.0) + " ms, date simulée : "
+                    + simulation.getNow() / 1000 + " s");
+        } else {
+            Mode mode = args.length > 0 && args[0].equalsIgnoreCase("fixed") ? Mode.FIXED : Mode.SMART;
+            duration = args.length > 1 ? Long.parseLong(args[1]) * 1000 : 3_600_000;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+            SignalControllerType controllerType = args.length > 3 ? SignalControllerType.fromName(args[3])
+                    : mode == Mode.FIXED ? SignalControllerType.FIXED : SignalControllerType.ACTUATED;
+            traceFile = args.length > 4 ? args[4] : null;
+            simulation = new DiscreteEventSimulation(mode, controllerType.create(), seed);
+        }
+        TraceRecorder traceRecorder = null;
+        if (traceFile != null) {
+            traceRecorder = new TraceRecorder(Paths.get(traceFile), simulation.traceClock(), 0);
+            simulation.setTraceRecorder(traceRecorder);
+        }
+        long start = System.nanoTime();
+        simulation.runUntil(simulation.getNow() + duration);
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        if (traceRecorder != null) {
+            traceRecorder.close();
+        }
+
+        System.out.println("Mode : " + simulation.mode + ", contrôleur : " + SignalControllerType.of(simulation.controller)
+                + ", graine : " + simulation.getSeed() + (restoreFile != null ? ", reprise de " + restoreFile : ""));
+        System.out.println("Durée simulée : " + duration / 1000 + " s en " + String.format("%.1f", elapsedMillis)
+                + " ms (x" + String.format("%.0f", duration / Math.max(elapsedMillis, 0.001)) + ")");
+        System.out.println("Événements traités : " + simulation.getProcessedEvents());
+        System.out.println("Véhicules arrivés : " + simulation.getArrivals() + ", sortis : " + simulation.getDepartures());
+        TrafficStatistics statistics = simulation.getStatistics();
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            LatencyHistogram waits = statistics.getWaitTimes(direction);
+            System.out.println("  " + Directions.nameOf(direction) + " : " + simulation.getDepartures(direction)
+                    + " (" + String.format("%.0f", statistics.getVehiclesPerHour(direction,
+                    TimeUnit.MILLISECONDS.toNanos(simulation.getNow()))) + " véh./h), attente p50 "
+                    + TimeUnit.NANOSECONDS.toMillis(waits.getValueAtPercentile(50)) + " ms, p99 "
+                    + TimeUnit.NANOSECONDS.toMillis(waits.getValueAtPercentile(99)) + " ms");
+        }
+        System.out.println("Attente moyenne : " + String.format("%.0f", simulation.getAverageWaitTime())
+                + " ms, maximum : " + simulation.getMaxWaitTime() + " ms");
+        if (traceRecorder != null) {
+            System.out.println("Trace : " + traceRecorder.getRecordCount() + " enregistrements dans " + traceFile);
+        }
+        if (saveFile != null) {
+            simulation.saveCheckpoint(saveFile);
+            System.out.println("Point de contrôle : " + Files.size(saveFile) + " octets dans " + saveFile);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.util.Callback;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Système de particules des explosions de collision, dessiné sur un seul Canvas de la couche
+ * d'effets, à la place d'un Circle par particule et d'une Timeline de plusieurs centaines de
+ * KeyFrame par explosion. Les particules sont rangées dans des tableaux de primitives alloués
+ * une fois pour toutes : une explosion ne crée aucun objet, et toutes les particules sont
+ * mises à jour et dessinées en une boucle par image.
+ *
+ * Les disques sont tracés directement dans un tampon de pixels (ARGB prémultiplié), copié dans
+ * une image puis dessiné sur le Canvas par un seul drawImage : avec le pipeline logiciel,
+ * un fillOval coûte environ 10 µs, soit plus de 100 ms par image pour 500 explosions.
+ * Seules les lignes touchées par l'image précédente ou l'image en cours sont effacées et copiées.
+ *
+ * Les explosions occupent les cases d'un anneau de MAX_EXPLOSIONS cases, dans leur ordre de
+ * création : comme elles ont toutes la même durée, les explosions actives sont contiguës et
+ * les plus anciennes se terminent en premier. Si l'anneau est plein, l'explosion la plus
+ * ancienne est remplacée et comptée (voir getDroppedCount). L'AnimationTimer ne tourne que
+ * tant qu'une explosion est active. Toutes les méthodes doivent être appelées sur le thread JavaFX.
+ */
+public class ExplosionRenderer extends Canvas {
+    static final int MAX_EXPLOSIONS = 512; // Explosions simultanées
+    static final int PARTICLES_PER_EXPLOSION = 30;
+    static final long DURATION_NANOS = 1_000_000_000L; // Durée de vie des particules
+    private static final long SHOCKWAVE_NANOS = 500_000_000L; // Durée de l'onde de choc
+    private static final long PENDING = -1; // Explosion qui commence à la prochaine image
+    private static final int WIDTH = 500;
+    private static final int HEIGHT = 500;
+    // Couleurs des particules, tirées avec les probabilités 0,4 / 0,3 / 0,2 / 0,1
+    private static final int[] COLORS = {rgb(Color.ORANGE), rgb(Color.RED), rgb(Color.YELLOW), rgb(Color.WHITE)};
+    private static final double[] COLOR_THRESHOLDS = {0.4, 0.7, 0.9};
+    private static final int SHOCKWAVE_COLOR = rgb(Color.WHITE);
+
+    // Explosions, indexées par case de l'anneau
+    private final double[] centerX = new double[MAX_EXPLOSIONS];
+    private final double[] centerY = new double[MAX_EXPLOSIONS];
+    private final long[] start = new long[MAX_EXPLOSIONS]; // Date de la première image, ou PENDING
+
+    // Particules : celles de la case e occupent les indices e * PARTICLES_PER_EXPLOSION et suivants
+    private final double[] x = new double[MAX_EXPLOSIONS * PARTICLES_PER_EXPLOSION]; // Position de départ
+    private final double[] y = new double[MAX_EXPLOSIONS * PARTICLES_PER_EXPLOSION];
+    private final double[] vx = new double[MAX_EXPLOSIONS * PARTICLES_PER_EXPLOSION]; // Vitesse en pixels par seconde
+    private final double[] vy = new double[MAX_EXPLOSIONS * PARTICLES_PER_EXPLOSION];
+    private final double[] radius = new double[MAX_EXPLOSIONS * PARTICLES_PER_EXPLOSION];
+    private final byte[] color = new byte[MAX_EXPLOSIONS * PARTICLES_PER_EXPLOSION];
+
+    // Image de la couche : frame partage le tableau pixels, sans copie
+    private final int[] pixels = new int[WIDTH * HEIGHT];
+    private final PixelBuffer<IntBuffer> pixelBuffer =
+            new PixelBuffer<>(WIDTH, HEIGHT, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance());
+    private final WritableImage frame = new WritableImage(pixelBuffer);
+    // Modifications du tableau pixels, faites dans pixelBuffer.updateBuffer
+    private final Callback<PixelBuffer<IntBuffer>, Rectangle2D> drawTask = buffer -> draw();
+    private final Callback<PixelBuffer<IntBuffer>, Rectangle2D> eraseTask = buffer -> erase();
+    private long frameNanos; // Date de l'image en cours de tracé
+    private int dirtyMinY = HEIGHT; // Lignes touchées par l'image précédente
+    private int dirtyMaxY = -1;
+    private int drawMinY; // Lignes touchées par l'image en cours
+    private int drawMaxY;
+
+    private final SimulationRandom random = new SimulationRandom(System.nanoTime());
+    private final AnimationTimer timer;
+    private boolean running;
+    private boolean animated = true;
+
+    // Séquences des explosions : la plus ancienne active et la prochaine créée
+    private long firstSequence;
+    private long nextSequence;
+    private long droppedCount;
+
+    // Mesures des images
+    private long frameCount;
+    private long lastDrawNanos;
+    private long totalDrawNanos;
+
+    /**
+     * Constructeur du rendu, à la taille du panneau de l'intersection.
+     */
+    public ExplosionRenderer() {
+        super(WIDTH, HEIGHT);
+        setMouseTransparent(true);
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                renderFrame(now);
+            }
+        };
+    }
+
+    /**
+     * Crée une explosion, qui commence à la prochaine image.
+     * @param px L'abscisse du point de collision
+     * @param py L'ordonnée du point de collision
+     */
+    public void explode(double px, double py) {
+        if (nextSequence - firstSequence == MAX_EXPLOSIONS) {
+            firstSequence++;
+            droppedCount++;
+        }
+        int slot = (int) (nextSequence % MAX_EXPLOSIONS);
+        nextSequence++;
+        centerX[slot] = px;
+        centerY[slot] = py;
+        start[slot] = PENDING;
+
+        int first = slot * PARTICLES_PER_EXPLOSION;
+        for (int i = first; i < first + PARTICLES_PER_EXPLOSION; i++) {
+            // Position aléatoire autour du point de collision, vitesse vers l'extérieur
+            x[i] = px + random.nextDouble() * 40 - 20;
+            y[i] = py + random.nextDouble() * 40 - 20;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double speed = 20 + random.nextDouble() * 50;
+            vx[i] = Math.cos(angle) * speed;
+            vy[i] = Math.sin(angle) * speed;
+            radius[i] = random.nextDouble() * 8 + 3; // Taille entre 3 et 11
+            color[i] = colorIndex(random.nextDouble());
+        }
+
+        if (!running && animated) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Active ou non le dessin automatique à chaque pulsation. Sans animation, les images sont
+     * dessinées par des appels explicites à renderFrame.
+     * Visible dans le paquetage pour les mesures de performance.
+     */
+    void setAnimated(boolean animated) {
+        this.animated = animated;
+        if (!animated) {
+            stopTimer();
+        }
+    }
+
+    private static int rgb(Color color) {
+        return (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    private static byte colorIndex(double rand) {
+        byte index = 0;
+        while (index < COLOR_THRESHOLDS.length && rand >= COLOR_THRESHOLDS[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Retire toutes les explosions.
+     */
+    public void clear() {
+        firstSequence = nextSequence;
+        stopTimer();
+        pixelBuffer.updateBuffer(eraseTask);
+        getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+    }
+
+    private void stopTimer() {
+        if (running) {
+            running = false;
+            timer.stop();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'explosions en cours.
+     */
+    public int getActiveCount() {
+        return (int) (nextSequence - firstSequence);
+    }
+
+    /**
+     * Retourne le nombre d'explosions remplacées avant leur fin parce que l'anneau était plein.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Retourne la durée moyenne de la mise à jour et du dessin d'une image, en nanosecondes.
+     */
+    public long getAverageDrawNanos() {
+        return frameCount == 0 ? 0 : totalDrawNanos / frameCount;
+    }
+
+    public long getLastDrawNanos() {
+        return lastDrawNanos;
+    }
+
+    /**
+     * Retire les explosions terminées, puis dessine les particules et les ondes de choc.
+     * Appelée à chaque pulsation par l'AnimationTimer.
+     * @param now La date de la pulsation, en nanosecondes
+     */
+    void renderFrame(long now) {
+        long begin = System.nanoTime();
+        // Les explosions terminées sont toujours les plus anciennes
+        while (firstSequence < nextSequence) {
+            long explosionStart = start[(int) (firstSequence % MAX_EXPLOSIONS)];
+            if (explosionStart == PENDING || now - explosionStart < DURATION_NANOS) {
+                break;
+            }
+            firstSequence++;
+        }
+
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.clearRect(0, 0, getWidth(), getHeight());
+        if (firstSequence == nextSequence) {
+            // Plus rien à dessiner : l'image est effacée et le timer arrêté jusqu'à la prochaine explosion
+            stopTimer();
+            pixelBuffer.updateBuffer(eraseTask);
+            recordFrame(begin);
+            return;
+        }
+
+        for (long sequence = firstSequence; sequence < nextSequence; sequence++) {
+            int slot = (int) (sequence % MAX_EXPLOSIONS);
+            if (start[slot] == PENDING) {
+                start[slot] = now;
+            }
+        }
+        frameNanos = now;
+        pixelBuffer.updateBuffer(drawTask);
+        gc.drawImage(frame, 0, 0);
+        recordFrame(begin);
+    }
+
+    /**
+     * Efface les lignes de l'image précédente puis trace les explosions actives.
+     * @return La zone de l'image modifiée
+     */
+    private Rectangle2D draw() {
+        if (dirtyMaxY >= 0) {
+            Arrays.fill(pixels, dirtyMinY * WIDTH, (dirtyMaxY + 1) * WIDTH, 0);
+        }
+        drawMinY = HEIGHT;
+        drawMaxY = -1;
+
+        // Particules : elles s'éloignent du point de collision en s'estompant
+        for (long sequence = firstSequence; sequence < nextSequence; sequence++) {
+            int slot = (int) (sequence % MAX_EXPLOSIONS);
+            long age = frameNanos - start[slot];
+            double seconds = age / 1e9;
+            int alpha = (int) (255 * (1.0 - (double) age / DURATION_NANOS));
+            int first = slot * PARTICLES_PER_EXPLOSION;
+            for (int i = first; i < first + PARTICLES_PER_EXPLOSION; i++) {
+                fillDisc(x[i] + vx[i] * seconds, y[i] + vy[i] * seconds, radius[i], COLORS[color[i]], alpha);
+            }
+        }
+
+        // Ondes de choc, par-dessus les particules : de 5 à 55 pixels de rayon en s'estompant
+        for (long sequence = firstSequence; sequence < nextSequence; sequence++) {
+            int slot = (int) (sequence % MAX_EXPLOSIONS);
+            long age = frameNanos - start[slot];
+            if (age >= SHOCKWAVE_NANOS) {
+                continue;
+            }
+            double progress = (double) age / SHOCKWAVE_NANOS;
+            fillDisc(centerX[slot], centerY[slot], 5 + progress * 50, SHOCKWAVE_COLOR, (int) (255 * (1.0 - progress)));
+        }
+
+        // Lignes effacées ou tracées
+        int minY = Math.min(dirtyMinY, drawMinY);
+        int maxY = Math.max(dirtyMaxY, drawMaxY);
+        dirtyMinY = drawMinY;
+        dirtyMaxY = drawMaxY;
+        return maxY >= minY ? new Rectangle2D(0, minY, WIDTH, maxY - minY + 1) : Rectangle2D.EMPTY;
+    }
+
+    /**
+     * Efface les lignes de l'image précédente.
+     * @return La zone de l'image modifiée
+     */
+    private Rectangle2D erase() {
+        if (dirtyMaxY < 0) {
+            return Rectangle2D.EMPTY;
+        }
+        Arrays.fill(pixels, dirtyMinY * WIDTH, (dirtyMaxY + 1) * WIDTH, 0);
+        Rectangle2D erased = new Rectangle2D(0, dirtyMinY, WIDTH, dirtyMaxY - dirtyMinY + 1);
+        dirtyMinY = HEIGHT;
+        dirtyMaxY = -1;
+        return erased;
+    }
+
+    /**
+     * Trace un disque plein dans le tampon de pixels, par-dessus son contenu.
+     * @param cx L'abscisse du centre
+     * @param cy L'ordonnée du centre
+     * @param r Le rayon
+     * @param rgb La couleur, sans opacité
+     * @param alpha L'opacité, de 0 à 255
+     */
+    private void fillDisc(double cx, double cy, double r, int rgb, int alpha) {
+        if (alpha <= 0) {
+            return;
+        }
+        int top = Math.max(0, (int) Math.ceil(cy - r - 0.5));
+        int bottom = Math.min(HEIGHT - 1, (int) Math.floor(cy + r - 0.5));
+        if (top > bottom || cx + r < 0 || cx - r >= WIDTH) {
+            return;
+        }
+        // Couleur prémultipliée par l'opacité
+        int red = ((rgb >> 16) & 0xFF) * alpha / 255;
+        int green = ((rgb >> 8) & 0xFF) * alpha / 255;
+        int blue = (rgb & 0xFF) * alpha / 255;
+        int source = alpha << 24 | red << 16 | green << 8 | blue;
+        // Composition « par-dessus » : destination * (256 - alpha) / 256, deux canaux par multiplication
+        int inverse = 256 - alpha;
+
+        double r2 = r * r;
+        for (int py = top; py <= bottom; py++) {
+            double dy = py + 0.5 - cy;
+            double halfWidth = Math.sqrt(Math.max(0, r2 - dy * dy));
+            int left = Math.max(0, (int) Math.ceil(cx - halfWidth - 0.5));
+            int right = Math.min(WIDTH - 1, (int) Math.floor(cx + halfWidth - 0.5));
+            int row = py * WIDTH;
+            for (int index = row + left; index <= row + right; index++) {
+                int destination = pixels[index];
+                int redBlue = ((destination & 0x00FF00FF) * inverse >>> 8) & 0x00FF00FF;
+                int alphaGreen = ((destination >>> 8) & 0x00FF00FF) * inverse & 0xFF00FF00;
+                pixels[index] = source + (redBlue | alphaGreen);
+            }
+        }
+        drawMinY = Math.min(drawMinY, top);
+        drawMaxY = Math.max(drawMaxY, bottom);
+    }
+
+    private void recordFrame(long begin) {
+        lastDrawNanos = System.nanoTime() - begin;
+        totalDrawNanos += lastDrawNanos;
+        frameCount++;
+    }
+}
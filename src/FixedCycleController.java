@@ -0,0 +1,64 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Contrôleur à cycle fixe, comme les feux TrafficLight d'origine : tous au rouge,
+ * vert puis jaune Nord-Sud, vert puis jaune Est-Ouest, et ainsi de suite,
+ * sans tenir compte de la demande.
+ */
+public class FixedCycleController implements SignalController {
+    private long redDuration; // Durée du rouge en cours, allongée du décalage pour le premier cycle
+
+    /**
+     * Constructeur du contrôleur, sans décalage.
+     */
+    public FixedCycleController() {
+        this(0);
+    }
+
+    /**
+     * Constructeur du contrôleur.
+     * @param offset Le décalage du premier cycle en millisecondes, pour coordonner plusieurs intersections
+     */
+    public FixedCycleController(long offset) {
+        this.redDuration = offset + TrafficLight.RED_DURATION;
+    }
+
+    @Override
+    public void decide(DemandSnapshot demand, PhaseDecision decision) {
+        switch (demand.getPhase()) {
+            case SignalPhase.NORTH_SOUTH_GREEN:
+                decision.set(SignalPhase.NORTH_SOUTH_YELLOW, TrafficLight.YELLOW_DURATION);
+                break;
+            case SignalPhase.NORTH_SOUTH_YELLOW:
+                decision.set(SignalPhase.EAST_WEST_GREEN, TrafficLight.GREEN_DURATION);
+                break;
+            case SignalPhase.EAST_WEST_GREEN:
+                decision.set(SignalPhase.EAST_WEST_YELLOW, TrafficLight.YELLOW_DURATION);
+                break;
+            case SignalPhase.EAST_WEST_YELLOW:
+                decision.set(SignalPhase.ALL_RED, TrafficLight.RED_DURATION);
+                break;
+            default:
+                long remaining = redDuration - demand.getPhaseElapsed();
+                if (remaining > 0) {
+                    decision.set(SignalPhase.ALL_RED, remaining);
+                } else {
+                    redDuration = TrafficLight.RED_DURATION;
+                    decision.set(SignalPhase.NORTH_SOUTH_GREEN, TrafficLight.GREEN_DURATION);
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(redDuration);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        redDuration = in.readLong();
+    }
+}
@@ -0,0 +1,84 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Regroupe les mises à jour d'un panneau en une seule application par image.
+ * Les producteurs, sur n'importe quel thread, écrivent les dernières valeurs dans l'état partagé
+ * du panneau puis appellent markDirty ; l'action d'application est exécutée sur le thread JavaFX
+ * par un AnimationTimer, à chaque pulsation tant que le nœud est dans une scène, et seulement
+ * si l'état a changé. Le nœud d'une scène remplacée dans la fenêtre garde cette scène : le
+ * propriétaire du panneau appelle stop quand il ne l'affiche plus. Aucun Platform.runLater n'est posté : le nombre de tâches JavaFX ne dépend
+ * plus du nombre de mises à jour, et les valeurs intermédiaires d'une même image sont ignorées.
+ */
+final class FrameCoalescer {
+    private final Runnable apply;
+    private final AnimationTimer timer;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private long applyCount;
+    private boolean stopped; // Lecture et écriture sur le thread JavaFX
+
+    /**
+     * Constructeur du regroupement.
+     * @param node Le nœud mis à jour : les applications ont lieu tant qu'il est dans une scène, jusqu'à stop
+     * @param apply L'action qui applique l'état partagé au nœud, sur le thread JavaFX
+     */
+    FrameCoalescer(Node node, Runnable apply) {
+        this.apply = apply;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onPulse();
+            }
+        };
+        node.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null && !stopped) {
+                timer.start();
+            } else {
+                timer.stop();
+            }
+        });
+        if (node.getScene() != null) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Signale que l'état partagé a changé. Peut être appelée par n'importe quel thread, après
+     * l'écriture des nouvelles valeurs.
+     */
+    void markDirty() {
+        if (!dirty.get()) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Arrête définitivement les applications, après celle de l'état en attente.
+     * Doit être appelée sur le thread JavaFX.
+     */
+    void stop() {
+        stopped = true;
+        timer.stop();
+        onPulse();
+    }
+
+    /**
+     * Applique l'état partagé à la pulsation, s'il a changé.
+     */
+    private void onPulse() {
+        // Les valeurs écrites à partir d'ici demanderont une nouvelle application
+        if (dirty.getAndSet(false)) {
+            apply.run();
+            applyCount++;
+        }
+    }
+
+    /**
+     * Retourne le nombre d'applications de l'état. Lecture sur le thread JavaFX.
+     */
+    long getApplyCount() {
+        return applyCount;
+    }
+}
@@ -1,29 +1,40 @@
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.Semaphore;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Intersection {
     private List<TrafficLight> trafficLights;
-    private final Semaphore intersectionSemaphore;
-    private final Map<String, String> oppositeDirections;
+    
+    // Mot d'occupation : nombre de véhicules engagés pour chaque mouvement (voir ConflictMatrix).
+    // Les mouvements compatibles sont admis ensemble, les mouvements en conflit sont refusés.
+    private final AtomicLong occupancy = new AtomicLong();
+    
+    // Mot de phase : l'état de chaque feu sur 2 bits, lu sans verrou par les véhicules
+    private static final int PHASE_MASK = 3;
+    private final AtomicInteger phaseWord = new AtomicInteger();
+    
+    // Demande (véhicules en attente et en passage) partagée par tous les feux de l'intersection
+    private final DemandRegistry demandRegistry = new DemandRegistry();
+
+    // Temps d'attente, de traversée et débit par direction
+    private final TrafficStatistics statistics = new TrafficStatistics();
+
+    // Enregistreur des changements d'état des feux, ou null
+    private volatile TraceRecorder traceRecorder;
+    
+    // Files d'attente par direction : un verrou et les actions à déclencher au passage au vert
+    private final Object[] approachLocks = new Object[Directions.COUNT];
+    private final List<ArrayDeque<Runnable>> greenCallbacks = new ArrayList<>();
 
     public Intersection(TrafficLight[] trafficLights) {
         this.trafficLights = new ArrayList<>();
         for (TrafficLight light : trafficLights) {
             this.trafficLights.add(light);
+            attach(light);
         }
-        
-        // Permet à 2 véhicules de traverser l'intersection en même temps si leurs directions ne se croisent pas
-        this.intersectionSemaphore = new Semaphore(2, true);
-        
-        // Initialiser les directions opposées
-        this.oppositeDirections = new HashMap<>();
-        oppositeDirections.put("North-South", "South-North");
-        oppositeDirections.put("South-North", "North-South");
-        oppositeDirections.put("East-West", "West-East");
-        oppositeDirections.put("West-East", "East-West");
+        initWaitQueues();
     }
     
     /**
@@ -32,14 +43,7 @@ public class Intersection {
      */
     public Intersection() {
         this.trafficLights = new ArrayList<>();
-        this.intersectionSemaphore = new Semaphore(2, true);
-        
-        // Initialiser les directions opposées
-        this.oppositeDirections = new HashMap<>();
-        oppositeDirections.put("North-South", "South-North");
-        oppositeDirections.put("South-North", "North-South");
-        oppositeDirections.put("East-West", "West-East");
-        oppositeDirections.put("West-East", "East-West");
+        initWaitQueues();
     }
     
     /**
@@ -48,6 +52,22 @@ public class Intersection {
      */
     public void addTrafficLight(TrafficLight trafficLight) {
         this.trafficLights.add(trafficLight);
+        attach(trafficLight);
+    }
+
+    /**
+     * Associe un feu à l'intersection et publie son état courant dans le mot de phase.
+     */
+    private void attach(TrafficLight light) {
+        light.setIntersection(this);
+        publishLightState(light.getDirectionIndex(), light.getStateCode());
+    }
+
+    private void initWaitQueues() {
+        for (int i = 0; i < Directions.COUNT; i++) {
+            approachLocks[i] = new Object();
+            greenCallbacks.add(new ArrayDeque<>());
+        }
     }
 
     /**
@@ -56,58 +76,234 @@ public class Intersection {
      * @return true si le passage est autorisé, false sinon
      */
     public boolean canPass(String direction) {
-        // Vérifier l'état du feu pour la direction donnée
-        for (TrafficLight light : trafficLights) {
-            // Pour les directions Nord-Sud et Sud-Nord, on vérifie le feu Nord-Sud
-            if (direction.equals("North-South") || direction.equals("South-North")) {
-                if (light.getDirection().equals("North-South")) {
-                    boolean isGreen = light.getLightState().equals("GREEN");
-                    return isGreen;
-                }
+        int approach = Directions.indexOf(direction);
+        return approach >= 0 && canPass(approach);
+    }
+
+    /**
+     * Vérifie si un véhicule peut traverser l'intersection dans une direction donnée.
+     * Lecture sans attente d'un seul mot mémoire, sans parcours des feux ni comparaison de chaînes.
+     * @param approach L'indice de la direction du véhicule (voir Directions)
+     * @return true si le passage est autorisé, false sinon
+     */
+    public boolean canPass(int approach) {
+        // Le passage est contrôlé par le feu principal de l'axe : Nord-Sud pour Nord-Sud et Sud-Nord,
+        // Est-Ouest pour Est-Ouest et Ouest-Est
+        int controllingLight = Directions.mainDirectionOf(Directions.axisOf(approach));
+        return lightStateOf(phaseWord.get(), controllingLight) == TrafficLight.GREEN;
+    }
+
+    /**
+     * Retourne le mot de phase de l'intersection : l'état de chaque feu codé sur 2 bits,
+     * à l'indice de sa direction. Le mot est publié atomiquement à chaque changement d'état.
+     */
+    public int getPhaseWord() {
+        return phaseWord.get();
+    }
+
+    /**
+     * Extrait l'état d'un feu d'un mot de phase.
+     * @param phaseWord Le mot de phase
+     * @param direction L'indice de la direction du feu
+     * @return TrafficLight.RED, YELLOW ou GREEN
+     */
+    public static int lightStateOf(int phaseWord, int direction) {
+        return (phaseWord >>> (direction << 1)) & PHASE_MASK;
+    }
+    
+    /**
+     * Vérifie si un véhicule peut s'engager maintenant : feu vert et aucun mouvement
+     * en conflit dans l'intersection.
+     * @param approach L'indice de la direction du véhicule
+     * @return true si le véhicule serait admis, false sinon
+     */
+    public boolean canAdmit(int approach) {
+        return canPass(approach) && ConflictMatrix.admits(occupancy.get(), approach);
+    }
+
+    /**
+     * Tente d'engager un véhicule dans l'intersection, sans attente ni verrou.
+     * Le véhicule est admis si aucun mouvement en conflit n'occupe l'intersection ;
+     * il doit alors appeler exit à la fin de sa traversée.
+     * @param movement L'indice de la direction du véhicule
+     * @return true si le véhicule est admis, false si un mouvement en conflit occupe l'intersection
+     */
+    public boolean tryEnter(int movement) {
+        while (true) {
+            long current = occupancy.get();
+            if (!ConflictMatrix.admits(current, movement)) {
+                return false;
+            }
+            if (occupancy.compareAndSet(current, ConflictMatrix.enter(current, movement))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libère la place d'un véhicule à la fin de sa traversée et réveille les véhicules
+     * des mouvements en conflit qui peuvent désormais s'engager.
+     * @param movement L'indice de la direction du véhicule
+     */
+    public void exit(int movement) {
+        long current;
+        long updated;
+        do {
+            current = occupancy.get();
+            updated = ConflictMatrix.exit(current, movement);
+        } while (!occupancy.compareAndSet(current, updated));
+        
+        if (ConflictMatrix.countOf(updated, movement) > 0) {
+            return;
+        }
+        int conflicts = ConflictMatrix.conflictsOf(movement);
+        for (int approach = 0; approach < Directions.COUNT; approach++) {
+            if ((conflicts & (1 << approach)) != 0 && ConflictMatrix.admits(updated, approach)) {
+                wakeApproach(approach);
             }
-            // Pour les directions Est-Ouest et Ouest-Est, on vérifie le feu Est-Ouest
-            else if (direction.equals("East-West") || direction.equals("West-East")) {
-                if (light.getDirection().equals("East-West")) {
-                    boolean isGreen = light.getLightState().equals("GREEN");
-                    return isGreen;
+        }
+    }
+
+    /**
+     * Retourne le mot d'occupation de l'intersection (voir ConflictMatrix).
+     */
+    public long getOccupancy() {
+        return occupancy.get();
+    }
+    
+    /**
+     * Attend que la direction donnée puisse s'engager (feu vert et aucun mouvement en conflit
+     * dans l'intersection), sans interroger le feu en boucle : le thread est réveillé dès que
+     * le feu passe au vert ou qu'un véhicule en conflit sort de l'intersection.
+     * @param direction La direction du véhicule
+     * @param timeoutMillis Le temps d'attente maximum en millisecondes
+     * @return true si le véhicule peut s'engager, false si le délai a expiré
+     * @throws InterruptedException Si l'attente est interrompue
+     */
+    public boolean awaitGreen(String direction, long timeoutMillis) throws InterruptedException {
+        int approach = Directions.indexOf(direction);
+        Object lock = approachLocks[approach];
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (!canAdmit(approach)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
                 }
+                lock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Exécute une action dès que la direction donnée peut s'engager (voir canAdmit).
+     * Si c'est déjà le cas, l'action est exécutée immédiatement par l'appelant ; sinon elle est
+     * mise en file et exécutée par le thread qui fait passer le feu au vert ou qui libère l'intersection.
+     * @param direction La direction du véhicule
+     * @param action L'action à exécuter, qui doit être courte
+     */
+    public void whenGreen(String direction, Runnable action) {
+        int approach = Directions.indexOf(direction);
+        synchronized (approachLocks[approach]) {
+            if (!canAdmit(approach)) {
+                greenCallbacks.get(approach).add(action);
+                return;
             }
         }
+        action.run();
+    }
+
+    /**
+     * Appelé par un feu après chaque changement d'état : publie le nouvel état dans le mot
+     * de phase et libère les véhicules des directions contrôlées par ce feu s'il passe au vert.
+     * @param direction L'indice de la direction du feu
+     * @param state Le nouvel état du feu
+     */
+    void onLightStateChanged(int direction, int state) {
+        publishLightState(direction, state);
+        TraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.recordPhaseChange(direction, state);
+        }
         
-        // Par défaut, on ne passe pas
-        return false;
+        // Seuls les feux Nord-Sud et Est-Ouest contrôlent le passage (voir canPass)
+        if (state != TrafficLight.GREEN || direction != Directions.mainDirectionOf(Directions.axisOf(direction))) {
+            return;
+        }
+        wakeApproach(direction);
+        wakeApproach(direction + 1);
+    }
+
+    private void publishLightState(int direction, int state) {
+        int shift = direction << 1;
+        int current;
+        int updated;
+        do {
+            current = phaseWord.get();
+            updated = (current & ~(PHASE_MASK << shift)) | (state << shift);
+        } while (!phaseWord.compareAndSet(current, updated));
+    }
+
+    private void wakeApproach(int approach) {
+        ArrayDeque<Runnable> released;
+        synchronized (approachLocks[approach]) {
+            approachLocks[approach].notifyAll();
+            released = greenCallbacks.get(approach);
+            if (released.isEmpty()) {
+                return;
+            }
+            // Les actions ajoutées pendant leur exécution vont dans une nouvelle file
+            greenCallbacks.set(approach, new ArrayDeque<>());
+        }
+        for (Runnable action : released) {
+            action.run();
+        }
     }
     
     /**
-     * Acquiert le sémaphore de l'intersection pour une direction donnée.
+     * Engage un véhicule dans l'intersection, en attendant qu'aucun mouvement en conflit ne l'occupe.
+     * L'état du feu n'est pas vérifié.
      * @param direction La direction du véhicule
-     * @throws InterruptedException Si l'acquisition est interrompue
+     * @throws InterruptedException Si l'attente est interrompue
      */
     public void enter(String direction) throws InterruptedException {
-        intersectionSemaphore.acquire();
+        int movement = Directions.indexOf(direction);
+        Object lock = approachLocks[movement];
+        synchronized (lock) {
+            while (!tryEnter(movement)) {
+                lock.wait();
+            }
+        }
     }
     
     /**
-     * Libère le sémaphore de l'intersection pour une direction donnée.
+     * Libère la place d'un véhicule dans l'intersection pour une direction donnée.
      * @param direction La direction du véhicule
      */
     public void exit(String direction) {
-        intersectionSemaphore.release();
+        exit(Directions.indexOf(direction));
     }
 
     /**
-     * Tente d'acquérir le sémaphore pour traverser l'intersection.
-     * @throws InterruptedException si le thread est interrompu pendant l'attente
+     * Retourne le registre de demande partagé par les feux de l'intersection.
      */
-    public void acquireIntersection() throws InterruptedException {
-        intersectionSemaphore.acquire();
+    public DemandRegistry getDemandRegistry() {
+        return demandRegistry;
     }
 
     /**
-     * Libère le sémaphore après avoir traversé l'intersection.
+     * Définit l'enregistreur des changements d'état des feux, ou null.
      */
-    public void releaseIntersection() {
-        intersectionSemaphore.release();
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Retourne les statistiques de trafic de l'intersection.
+     */
+    public TrafficStatistics getStatistics() {
+        return statistics;
     }
 
     /**
@@ -125,16 +321,8 @@ public class Intersection {
      * @return true si les directions peuvent entrer en collision, false sinon
      */
     public boolean directionsCanCollide(String dir1, String dir2) {
-        // Les directions opposées ne peuvent pas entrer en collision
-        if (oppositeDirections.containsKey(dir1) && oppositeDirections.get(dir1).equals(dir2)) {
-            return false;
-        }
-        
-        // Les directions sur le même axe ne peuvent pas entrer en collision
-        boolean dir1IsNorthSouth = dir1.equals("North-South") || dir1.equals("South-North");
-        boolean dir2IsNorthSouth = dir2.equals("North-South") || dir2.equals("South-North");
-        
-        // Si les deux directions sont sur le même axe, elles ne peuvent pas entrer en collision
-        return dir1IsNorthSouth != dir2IsNorthSouth;
+        int movement1 = Directions.indexOf(dir1);
+        int movement2 = Directions.indexOf(dir2);
+        return movement1 >= 0 && movement2 >= 0 && ConflictMatrix.conflicts(movement1, movement2);
     }
 }
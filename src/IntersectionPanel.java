@@ -8,6 +8,7 @@ import javafx.scene.effect.DropShadow;
 public class IntersectionPanel extends Pane {
     private Pane vehicleLayer;
     private Pane effectLayer;
+    private ExplosionRenderer explosionRenderer;
 
     public IntersectionPanel() {
         // Définit la taille préférée du panneau
@@ -62,6 +63,10 @@ public class IntersectionPanel extends Pane {
         // Configure les couches pour occuper tout l'espace
         vehicleLayer.setPrefSize(500, 500);
         effectLayer.setPrefSize(500, 500);
+
+        // Les explosions sont dessinées sur un seul Canvas de la couche d'effets
+        explosionRenderer = new ExplosionRenderer();
+        effectLayer.getChildren().add(explosionRenderer);
         
         // Ajoute tous les éléments au panneau dans l'ordre correct
         getChildren().addAll(
@@ -83,6 +88,10 @@ public class IntersectionPanel extends Pane {
         return effectLayer;
     }
 
+    public ExplosionRenderer getExplosionRenderer() {
+        return explosionRenderer;
+    }
+
     private void createCrosswalk(double x, double y, boolean isHorizontal) {
         for (int i = 0; i < 6; i++) {
             Rectangle line = new Rectangle(isHorizontal ? 60 : 5, isHorizontal ? 5 : 60, Color.WHITE);
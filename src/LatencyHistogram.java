@@ -0,0 +1,206 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées sans verrou, à la manière de HdrHistogram.
+ * Les valeurs sont rangées dans des intervalles dont la largeur double à chaque puissance
+ * de deux, chacune découpée en SUB_BUCKET_HALF sous-intervalles : l'erreur relative sur
+ * une valeur ou un percentile reste inférieure à 1/64 (environ 1,6 %) quelle que soit sa grandeur.
+ *
+ * L'enregistrement est un calcul d'indice et quelques additions atomiques, sans allocation :
+ * il peut être appelé par n'importe quel thread, y compris le thread JavaFX. Les lectures
+ * pendant des enregistrements concurrents peuvent omettre les valeurs en cours d'ajout.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 7;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; // Valeurs exactes de 0 à 127
+    static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1; // Sous-intervalles par puissance de deux ensuite
+
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Constructeur de l'histogramme.
+     * @param highestTrackableValue La plus grande valeur enregistrée ; les valeurs supérieures sont ramenées à celle-ci
+     */
+    public LatencyHistogram(long highestTrackableValue) {
+        if (highestTrackableValue < SUB_BUCKET_COUNT) {
+            throw new IllegalArgumentException("Valeur maximale trop petite : " + highestTrackableValue);
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(indexOf(highestTrackableValue) + 1);
+    }
+
+    /**
+     * Retourne l'indice de l'intervalle qui contient une valeur.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Décalage qui ramène la valeur entre SUB_BUCKET_HALF et SUB_BUCKET_COUNT - 1
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) (value >>> shift) - SUB_BUCKET_HALF;
+    }
+
+    /**
+     * Retourne la plus grande valeur rangée dans un intervalle.
+     */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Enregistre une valeur. Les valeurs négatives sont comptées comme nulles.
+     * @param value La valeur, dans l'unité choisie par l'appelant
+     */
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), highestTrackableValue);
+        counts.incrementAndGet(indexOf(clamped));
+        totalCount.increment();
+        totalValue.add(clamped);
+
+        long max = maxValue.get();
+        while (clamped > max && !maxValue.compareAndSet(max, clamped)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Retourne la valeur en dessous de laquelle se trouve le pourcentage donné des valeurs enregistrées.
+     * @param percentile Le pourcentage, de 0 à 100
+     * @return La valeur du percentile, ou 0 si aucune valeur n'a été enregistrée
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Retourne la moyenne des valeurs enregistrées, ou 0 si aucune valeur n'a été enregistrée.
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalValue.sum() / count;
+    }
+
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Écrit le contenu de l'histogramme dans un point de contrôle : seuls les intervalles
+     * non vides sont écrits, par paires (indice, nombre).
+     */
+    void writeTo(DataOutput out) throws IOException {
+        int nonEmpty = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            if (counts.get(i) != 0) {
+                nonEmpty++;
+            }
+        }
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                out.writeShort(i);
+                out.writeLong(count);
+            }
+        }
+        out.writeLong(totalCount.sum());
+        out.writeLong(totalValue.sum());
+        out.writeLong(maxValue.get());
+    }
+
+    /**
+     * Remplace le contenu de l'histogramme par celui écrit par writeTo.
+     * @throws IOException Si un indice ne correspond pas à cet histogramme
+     */
+    void readFrom(DataInput in) throws IOException {
+        reset();
+        int nonEmpty = in.readInt();
+        for (int n = 0; n < nonEmpty; n++) {
+            int index = in.readUnsignedShort();
+            if (index >= counts.length()) {
+                throw new IOException("Intervalle d'histogramme invalide : " + index);
+            }
+            counts.set(index, in.readLong());
+        }
+        totalCount.add(in.readLong());
+        totalValue.add(in.readLong());
+        maxValue.set(in.readLong());
+    }
+
+    /**
+     * Ajoute à cet histogramme toutes les valeurs d'un autre, par exemple pour regrouper
+     * les mesures de plusieurs threads. L'autre histogramme ne doit plus être modifié pendant l'ajout.
+     * @param other L'histogramme à ajouter, de même valeur maximale
+     */
+    public void add(LatencyHistogram other) {
+        if (other.highestTrackableValue != highestTrackableValue) {
+            throw new IllegalArgumentException("Valeurs maximales différentes : " + other.highestTrackableValue
+                    + " au lieu de " + highestTrackableValue);
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalValue.add(other.totalValue.sum());
+
+        long otherMax = other.maxValue.get();
+        long max = maxValue.get();
+        while (otherMax > max && !maxValue.compareAndSet(max, otherMax)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Efface toutes les valeurs. Les enregistrements concurrents peuvent être conservés ou perdus.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+        maxValue.set(0);
+    }
+}
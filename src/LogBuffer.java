@@ -0,0 +1,109 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tampon circulaire de messages sans verrou, à capacité fixe : plusieurs producteurs
+ * (threads des véhicules, générateurs, thread JavaFX) y ajoutent des messages pour un
+ * consommateur unique qui les relit par lots.
+ *
+ * Chaque ajout réserve une case par un incrément atomique puis la publie avec son numéro
+ * de séquence, à la manière d'un verrou séquentiel : le coût d'un ajout est constant et
+ * ne dépend ni du nombre de messages ni du consommateur. Si les producteurs prennent plus
+ * d'un tour d'avance sur le consommateur, les messages les plus anciens non lus sont perdus
+ * et comptés (voir getDroppedCount).
+ * @param <T> Le type des messages (texte du panneau de logs, événement de l'AsyncLogger...)
+ */
+public class LogBuffer<T> {
+    private static final long IN_PROGRESS = -1; // Case en cours d'écriture
+
+    private final int mask;
+    private final AtomicReferenceArray<T> messages;
+    private final AtomicLongArray published; // Séquence du message publié dans chaque case
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    // État du consommateur unique
+    private long readSequence;
+    private long droppedCount;
+
+    /**
+     * Constructeur du tampon.
+     * @param capacity La capacité minimale, arrondie à la puissance de deux supérieure
+     */
+    public LogBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.messages = new AtomicReferenceArray<>(size);
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, IN_PROGRESS);
+        }
+    }
+
+    /**
+     * Ajoute un message. Peut être appelée par n'importe quel thread.
+     */
+    public void add(T message) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = (int) sequence & mask;
+        published.set(index, IN_PROGRESS);
+        messages.set(index, message);
+        published.set(index, sequence);
+    }
+
+    /**
+     * Transfère les messages publiés depuis le dernier appel, dans leur ordre d'ajout.
+     * Doit être appelée par un seul thread à la fois. Un message réservé mais pas encore
+     * publié arrête le transfert : il sera transféré à l'appel suivant avec ceux qui le suivent.
+     * @param target La liste qui reçoit les messages
+     * @return Le nombre de messages transférés
+     */
+    public int drainTo(List<? super T> target) {
+        long end = nextSequence.get();
+        long capacity = mask + 1L;
+        if (end - readSequence > capacity) {
+            // Les producteurs ont fait plus d'un tour : les cases les plus anciennes sont écrasées
+            droppedCount += end - capacity - readSequence;
+            readSequence = end - capacity;
+        }
+        int count = 0;
+        while (readSequence < end) {
+            int index = (int) readSequence & mask;
+            long sequence = published.get(index);
+            if (sequence == IN_PROGRESS || sequence < readSequence) {
+                break;
+            }
+            T message = messages.get(index);
+            if (sequence != readSequence || published.get(index) != readSequence) {
+                // Case réécrite par un producteur plus récent : le message attendu est perdu
+                droppedCount++;
+                readSequence++;
+                continue;
+            }
+            target.add(message);
+            readSequence++;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Retourne le nombre de messages perdus parce que le consommateur avait un tour de retard.
+     * Lecture réservée au consommateur.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Retourne le nombre total de messages ajoutés.
+     */
+    public long getAddedCount() {
+        return nextSequence.get();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
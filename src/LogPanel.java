@@ -1,19 +1,53 @@
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 
-public class LogPanel extends VBox {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-    // Conteneur pour les messages de log
-    private VBox logContainer = new VBox(5);
+/**
+ * Panneau des logs de la simulation.
+ * Les messages sont ajoutés sans verrou dans un tampon circulaire (LogBuffer), depuis n'importe
+ * quel thread, puis transférés par lots sur le thread JavaFX : au plus un transfert est en attente
+ * à la fois dans l'anneau d'événements de l'interface (UiEventRing), quel que soit le nombre de messages. Ils sont affichés dans une ListView virtualisée,
+ * qui ne crée des cellules que pour les lignes visibles, et les plus anciens sont oubliés
+ * au-delà de la rétention. Un champ de recherche filtre les messages conservés.
+ */
+public class LogPanel extends VBox implements UiEventRing.Handler {
+    static final int DEFAULT_RETENTION = 1000; // Nombre de messages conservés par défaut
+    private static final int BUFFER_CAPACITY = 4096; // Messages en attente de transfert
+
+    private final LogBuffer<String> buffer = new LogBuffer<>(BUFFER_CAPACITY);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final List<String> drained = new ArrayList<>(); // Lot transféré, réutilisé
+    private final ObservableList<String> entries = FXCollections.observableArrayList();
+    private final FilteredList<String> filteredEntries = new FilteredList<>(entries);
+    private final ListView<String> listView = new ListView<>(filteredEntries);
+    private int retention;
+    private long reportedDrops;
 
     /**
-     * Constructeur de la classe LogPanel.
-     * Initialise le panneau de logs avec un titre et une zone de défilement.
+     * Constructeur de la classe LogPanel, avec la rétention par défaut.
      */
     public LogPanel() {
+        this(DEFAULT_RETENTION);
+    }
+
+    /**
+     * Constructeur de la classe LogPanel.
+     * Initialise le panneau de logs avec un titre, un champ de recherche et la liste des messages.
+     * @param retention Le nombre de messages conservés
+     */
+    public LogPanel(int retention) {
         super(10); // Espacement vertical entre les éléments
+        this.retention = Math.max(1, retention);
         setPadding(new Insets(10)); // Marge intérieure du panneau
         setPrefWidth(300); // Largeur préférée du panneau
 
@@ -21,29 +55,101 @@ public class LogPanel extends VBox {
         Label logsLabel = new Label("Logs");
         logsLabel.setStyle("-fx-font-weight: bold;"); // Style en gras
 
-        // Applique une police monospace pour les logs (alignement des caractères)
-        logContainer.setStyle("-fx-font-family: monospace;");
+        // Champ de recherche dans les messages conservés
+        TextField searchField = new TextField();
+        searchField.setPromptText("Rechercher");
+        searchField.textProperty().addListener((observable, oldText, newText) -> search(newText));
 
-        // Crée un ScrollPane pour permettre le défilement des logs
-        ScrollPane scrollPane = new ScrollPane(logContainer);
-        scrollPane.setFitToWidth(true); // Ajuste la largeur du contenu
-        scrollPane.setPrefHeight(300); // Hauteur préférée du ScrollPane
-        scrollPane.vvalueProperty().bind(logContainer.heightProperty()); // Défilement automatique vers le bas
+        // Applique une police monospace pour les logs (alignement des caractères)
+        listView.setStyle("-fx-font-family: monospace;");
+        listView.setPrefHeight(300); // Hauteur préférée de la liste
+        listView.setFocusTraversable(false);
 
-        // Ajoute le titre et le ScrollPane au panneau principal
-        getChildren().addAll(logsLabel, scrollPane);
+        // Ajoute le titre, la recherche et la liste au panneau principal
+        getChildren().addAll(logsLabel, searchField, listView);
     }
 
     /**
-     * Ajoute un message de log au conteneur.
-     * Si le nombre de logs dépasse 100, le plus ancien est supprimé.
+     * Ajoute un message de log. Peut être appelée par n'importe quel thread, à coût constant :
+     * le message est affiché au prochain transfert sur le thread JavaFX.
      * @param message Le message de log à ajouter.
      */
     public void addLog(String message) {
-        Label logLabel = new Label(message); // Crée un label pour le message
-        if (logContainer.getChildren().size() > 100) {
-            logContainer.getChildren().remove(0); // Supprime le plus ancien log si nécessaire
+        buffer.add(message);
+        if (!drainScheduled.get() && drainScheduled.compareAndSet(false, true)) {
+            UiEventRing.shared().publish(this, UiEventRing.LOG, 0, 0, null, null);
+        }
+    }
+
+    /**
+     * Transfère les messages en attente sur le thread JavaFX.
+     */
+    @Override
+    public void onEvent(UiEventRing.Event event) {
+        drain();
+    }
+
+    /**
+     * Transfère les messages en attente dans la liste affichée, en un seul ajout,
+     * puis oublie les plus anciens au-delà de la rétention.
+     */
+    private void drain() {
+        // Les messages ajoutés à partir d'ici programmeront un nouveau transfert
+        drainScheduled.set(false);
+        buffer.drainTo(drained);
+        long drops = buffer.getDroppedCount();
+        if (drops != reportedDrops) {
+            drained.add("(" + (drops - reportedDrops) + " messages perdus)");
+            reportedDrops = drops;
+        }
+        if (drained.isEmpty()) {
+            return;
         }
-        logContainer.getChildren().add(logLabel); // Ajoute le nouveau log
+        entries.addAll(drained);
+        drained.clear();
+        trim();
+        // Défilement automatique vers le dernier message
+        if (!filteredEntries.isEmpty()) {
+            listView.scrollTo(filteredEntries.size() - 1);
+        }
+    }
+
+    private void trim() {
+        int excess = entries.size() - retention;
+        if (excess > 0) {
+            entries.remove(0, excess);
+        }
+    }
+
+    /**
+     * Filtre les messages affichés. Doit être appelée sur le thread JavaFX.
+     * @param text Le texte recherché, sans tenir compte de la casse, ou vide pour tout afficher
+     */
+    public void search(String text) {
+        if (text == null || text.isBlank()) {
+            filteredEntries.setPredicate(null);
+        } else {
+            String needle = text.trim().toLowerCase(Locale.ROOT);
+            filteredEntries.setPredicate(message -> message.toLowerCase(Locale.ROOT).contains(needle));
+        }
+    }
+
+    /**
+     * Change le nombre de messages conservés. Doit être appelée sur le thread JavaFX.
+     */
+    public void setRetention(int retention) {
+        this.retention = Math.max(1, retention);
+        trim();
+    }
+
+    public int getRetention() {
+        return retention;
+    }
+
+    /**
+     * Retourne les messages conservés, du plus ancien au plus récent. Lecture sur le thread JavaFX.
+     */
+    public List<String> getEntries() {
+        return FXCollections.unmodifiableObservableList(entries);
     }
 }
@@ -4,13 +4,22 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import javafx.scene.shape.Rectangle;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import java.util.concurrent.Semaphore;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainUI extends Application {
@@ -22,6 +31,20 @@ public class MainUI extends Application {
     private SimulationController simulationController;
     private Thread vehicleGeneratorThread;
     private AtomicBoolean running;
+    private VehicleExecutionMode executionMode = VehicleExecutionMode.THREAD_PER_VEHICLE;
+    private SignalControllerType signalControllerType = SignalControllerType.FIXED;
+    private SignalExecutor signalExecutor;
+    private TrafficLightsPanel trafficLightsPanel;
+    private SmartTrafficStatsPanel smartStatsPanel;
+    private TrafficStatisticsPanel statisticsPanel;
+    private boolean recordTrace = false;
+    private boolean canvasRendering = false; // Rejeu des traces avec le rendu par lots sur Canvas
+    private TraceRecorder traceRecorder;
+    private TraceReplayer traceReplayer;
+    private String seedText = ""; // Graine saisie, vide pour une graine aléatoire à chaque exécution
+    private long runSeed; // Graine de l'exécution en cours
+    private static final AsyncLogger LOG = AsyncLogger.getLogger("MainUI");
+    private static final long DETERMINISTIC_DURATION = 600_000; // Durée simulée d'une exécution déterministe, en ms
 
     @Override
     public void start(Stage primaryStage) {
@@ -36,6 +59,23 @@ public class MainUI extends Application {
     public void showSelectionScreen() {
         isRunning = false;
         running = new AtomicBoolean(false);
+        if (vehicleManager != null) {
+            vehicleManager.stopCollisionDetection();
+            vehicleManager.stopBlinking();
+        }
+        if (signalExecutor != null) {
+            signalExecutor.cancel();
+        }
+        if (trafficLightsPanel != null) {
+            trafficLightsPanel.stop();
+        }
+        if (smartStatsPanel != null) {
+            smartStatsPanel.stop();
+        }
+        if (statisticsPanel != null) {
+            statisticsPanel.stop();
+        }
+        closeTrace();
         
         // Création du layout principal
         VBox root = new VBox(20);
@@ -64,7 +104,7 @@ public class MainUI extends Application {
         smartSyncButton.setOnAction(e -> showSmartSynchronizedUI());
         
         // Descriptions des modes
-        Label syncDesc = new Label("Les feux changent à intervalles réguliers");
+        Label syncDesc = new Label("Les feux suivent le contrôleur choisi (intervalles réguliers par défaut)");
         syncDesc.setStyle("-fx-font-size: 12px; -fx-font-style: italic;");
         
         Label unsyncDesc = new Label("Pas de feux, risque de collision");
@@ -73,8 +113,75 @@ public class MainUI extends Application {
         Label smartDesc = new Label("Les feux s'adaptent à la présence de véhicules");
         smartDesc.setStyle("-fx-font-size: 12px; -fx-font-style: italic;");
         
+        // Choix du mode d'exécution des véhicules
+        Label executionLabel = new Label("Exécution des véhicules :");
+        ComboBox<VehicleExecutionMode> executionModeBox = new ComboBox<>();
+        executionModeBox.getItems().addAll(VehicleExecutionMode.values());
+        executionModeBox.setValue(executionMode);
+        executionModeBox.setOnAction(e -> executionMode = executionModeBox.getValue());
+        HBox executionBox = new HBox(10, executionLabel, executionModeBox);
+        executionBox.setAlignment(Pos.CENTER);
+        
+        // Choix du contrôleur des feux pour la simulation avec synchronisation
+        Label controllerLabel = new Label("Contrôleur des feux :");
+        ComboBox<SignalControllerType> controllerBox = new ComboBox<>();
+        controllerBox.getItems().addAll(SignalControllerType.values());
+        controllerBox.setValue(signalControllerType);
+        controllerBox.setOnAction(e -> signalControllerType = controllerBox.getValue());
+        HBox controllerSelectionBox = new HBox(10, controllerLabel, controllerBox);
+        controllerSelectionBox.setAlignment(Pos.CENTER);
+        
+        // Enregistrement et rejeu des traces d'événements
+        CheckBox recordTraceBox = new CheckBox("Enregistrer une trace des événements");
+        recordTraceBox.setSelected(recordTrace);
+        recordTraceBox.setOnAction(e -> recordTrace = recordTraceBox.isSelected());
+        
+        CheckBox canvasRenderingBox = new CheckBox("Rejouer avec le rendu par lots (Canvas)");
+        canvasRenderingBox.setSelected(canvasRendering);
+        canvasRenderingBox.setOnAction(e -> canvasRendering = canvasRenderingBox.isSelected());
+        
+        Button replayButton = new Button("Rejouer une trace...");
+        replayButton.setPrefWidth(200);
+        replayButton.setOnAction(e -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Rejouer une trace");
+            fileChooser.setInitialDirectory(new File(System.getProperty("user.dir")));
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Traces de simulation", "*.trc"));
+            File file = fileChooser.showOpenDialog(stage);
+            if (file != null) {
+                showReplayUI(file.toPath());
+            }
+        });
+        
+        Button restoreButton = new Button("Reprendre un point de contrôle...");
+        restoreButton.setPrefWidth(200);
+        restoreButton.setOnAction(e -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Reprendre un point de contrôle");
+            fileChooser.setInitialDirectory(new File(System.getProperty("user.dir")));
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Points de contrôle", "*.ckp"));
+            File file = fileChooser.showOpenDialog(stage);
+            if (file != null) {
+                showRestoredUI(file.toPath());
+            }
+        });
+        
+        VBox traceBox = new VBox(5, recordTraceBox, canvasRenderingBox, replayButton, restoreButton);
+        traceBox.setAlignment(Pos.CENTER);
+        
+        // Graine des générateurs aléatoires et exécution déterministe
+        Label seedLabel = new Label("Graine :");
+        TextField seedField = new TextField(seedText);
+        seedField.setPromptText("aléatoire");
+        seedField.setPrefWidth(150);
+        seedField.textProperty().addListener((observable, oldText, newText) -> seedText = newText.trim());
+        Button deterministicButton = new Button("Exécution déterministe");
+        deterministicButton.setOnAction(e -> showDeterministicUI());
+        HBox seedBox = new HBox(10, seedLabel, seedField, deterministicButton);
+        seedBox.setAlignment(Pos.CENTER);
+        
         // Assemblage de l'interface
-        VBox syncBox = new VBox(5, synchronizedButton, syncDesc);
+        VBox syncBox = new VBox(5, synchronizedButton, syncDesc, controllerSelectionBox);
         syncBox.setAlignment(Pos.CENTER);
         
         VBox unsyncBox = new VBox(5, unsynchronizedButton, unsyncDesc);
@@ -86,11 +193,14 @@ public class MainUI extends Application {
         root.getChildren().addAll(
             titleLabel,
             descriptionLabel,
-            new VBox(15, syncBox, unsyncBox, smartBox)
+            new VBox(15, syncBox, unsyncBox, smartBox),
+            executionBox,
+            seedBox,
+            traceBox
         );
         
         // Création de la scène
-        Scene scene = new Scene(root, 400, 400);
+        Scene scene = new Scene(root, 450, 700);
         stage.setTitle("Simulation de Trafic - Menu Principal");
         stage.setScene(scene);
     }
@@ -104,20 +214,21 @@ public class MainUI extends Application {
         intersectionPanel.addDirectionLabels();
         logPanel = new LogPanel();
         vehicleManager = new VehicleManager(intersectionPanel, logPanel, true);
-        simulationController = new SimulationController(this);
+        vehicleManager.setExecutionMode(executionMode);
+        simulationController = new SimulationController(this, nextRunSeed());
 
         // Configuration des feux
         TrafficLightsPanel trafficLightsPanel = new TrafficLightsPanel();
-        
-        // Création d'un sémaphore partagé pour les feux
-        Semaphore semaphore = new Semaphore(1, true);
+        this.trafficLightsPanel = trafficLightsPanel;
         
         // Création des feux de circulation
-        TrafficLight[] trafficLights = simulationController.createTrafficLights(running, semaphore, trafficLightsPanel);
+        TrafficLight[] trafficLights = simulationController.createTrafficLights(trafficLightsPanel);
         
         // Création de l'intersection
         Intersection intersection = new Intersection(trafficLights);
         vehicleManager.setIntersection(intersection);
+        openTrace(intersection);
+        logPanel.addLog("Graine : " + runSeed);
 
         // Création du layout principal
         BorderPane root = new BorderPane();
@@ -143,21 +254,24 @@ public class MainUI extends Application {
         bottomSection.setPadding(new Insets(10));
         bottomSection.getChildren().add(returnButton);
 
+        // Panneau des temps d'attente et du débit, sous les logs
+        statisticsPanel = new TrafficStatisticsPanel(intersection.getStatistics());
+        statisticsPanel.start();
+
         // Assemblage de l'interface
         root.setTop(topSection);
         root.setCenter(intersectionPanel);
         root.setBottom(bottomSection);
-        root.setRight(logPanel);
+        root.setRight(new VBox(10, logPanel, statisticsPanel));
 
         // Création de la scène
-        Scene scene = new Scene(root, 900, 700);
+        Scene scene = new Scene(root, 1000, 750);
         stage.setTitle("Simulation avec synchronisation");
         stage.setScene(scene);
 
-        // Démarrage des feux de circulation
-        for (TrafficLight light : trafficLights) {
-            light.start();
-        }
+        // Démarrage des feux de circulation, pilotés par le contrôleur choisi
+        signalExecutor = new SignalExecutor(intersection, signalControllerType.create(), running);
+        signalExecutor.start();
 
         // Démarrage de la génération de véhicules
         vehicleGeneratorThread = simulationController.startVehicleGenerator(running, intersection, vehicleManager, logPanel);
@@ -181,13 +295,19 @@ public class MainUI extends Application {
         intersectionPanel.addDirectionLabels();
         logPanel = new LogPanel();
         vehicleManager = new VehicleManager(intersectionPanel, logPanel, true);
-        simulationController = new SimulationController(this);
+        vehicleManager.setExecutionMode(executionMode);
+        simulationController = new SimulationController(this, nextRunSeed());
+        Random random = SimulationSeed.random(runSeed, SimulationSeed.UNSYNCHRONIZED_STREAM);
+        
+        openTrace(null);
+        logPanel.addLog("Graine : " + runSeed);
         
         // Stocker une référence à cette instance dans les données utilisateur de la scène
         stage.setUserData(this);
 
         // Configuration des feux tous au vert
         TrafficLightsPanel trafficLightsPanel = new TrafficLightsPanel();
+        this.trafficLightsPanel = trafficLightsPanel;
         trafficLightsPanel.setAllGreen();
 
         // Création du layout principal
@@ -234,15 +354,11 @@ public class MainUI extends Application {
                 try {
                     // Génération de plusieurs véhicules
                     for (int i = 0; i < 2; i++) {
-                        String direction = directions[(int)(Math.random() * directions.length)];
+                        String direction = directions[random.nextInt(directions.length)];
                         int id = ++vehicleCounter;
                         
-                        Platform.runLater(() -> {
-                            Rectangle vehicle = vehicleManager.createVehicle(id, direction);
-                            vehicleManager.queueVehicle(vehicle, direction);
-                            vehicleManager.moveVehicle(vehicle, direction);
-                            logPanel.addLog("Nouveau véhicule créé (ID: " + id + ", Direction: " + direction + ")");
-                        });
+                        UiEventRing.shared().publish(vehicleManager, UiEventRing.SPAWN, id,
+                                Directions.indexOf(direction), null, null);
                     }
                     
                     // Attendre avant de générer les prochains véhicules
@@ -295,6 +411,7 @@ public class MainUI extends Application {
         intersectionPanel.addDirectionLabels();
         logPanel = new LogPanel();
         vehicleManager = new VehicleManager(intersectionPanel, logPanel, true);
+        vehicleManager.setExecutionMode(executionMode);
         
         // Titre de la simulation
         Label titleLabel = new Label("Simulation avec Synchronisation Intelligente");
@@ -324,15 +441,18 @@ public class MainUI extends Application {
         // Créer l'intersection et les feux intelligents
         Intersection intersection = new Intersection();
         vehicleManager.setIntersection(intersection);
+        openTrace(intersection);
+        logPanel.addLog("Graine : " + nextRunSeed());
         
         // Créer les feux de circulation intelligents
         AtomicBoolean running = new AtomicBoolean(true);
         this.running = running;
-        Semaphore semaphore = new Semaphore(1, true);
         TrafficLightsPanel trafficLightsPanel = new TrafficLightsPanel();
+        this.trafficLightsPanel = trafficLightsPanel;
         
         // Créer le panneau de statistiques
         SmartTrafficStatsPanel statsPanel = new SmartTrafficStatsPanel();
+        this.smartStatsPanel = statsPanel;
         
         // Initialiser tous les feux au rouge
         trafficLightsPanel.updateTrafficLight("North-South", "RED");
@@ -341,10 +461,10 @@ public class MainUI extends Application {
         trafficLightsPanel.updateTrafficLight("West-East", "RED");
         
         // Créer les feux intelligents
-        SmartTrafficLight northSouthLight = new SmartTrafficLight("North-South", running, semaphore, trafficLightsPanel, statsPanel);
-        SmartTrafficLight southNorthLight = new SmartTrafficLight("South-North", running, semaphore, trafficLightsPanel, statsPanel);
-        SmartTrafficLight eastWestLight = new SmartTrafficLight("East-West", running, semaphore, trafficLightsPanel, statsPanel);
-        SmartTrafficLight westEastLight = new SmartTrafficLight("West-East", running, semaphore, trafficLightsPanel, statsPanel);
+        SmartTrafficLight northSouthLight = new SmartTrafficLight("North-South", trafficLightsPanel, statsPanel);
+        SmartTrafficLight southNorthLight = new SmartTrafficLight("South-North", trafficLightsPanel, statsPanel);
+        SmartTrafficLight eastWestLight = new SmartTrafficLight("East-West", trafficLightsPanel, statsPanel);
+        SmartTrafficLight westEastLight = new SmartTrafficLight("West-East", trafficLightsPanel, statsPanel);
         
         // Ajouter les feux à l'intersection
         intersection.addTrafficLight(northSouthLight);
@@ -356,20 +476,22 @@ public class MainUI extends Application {
         SmartTrafficLight[] smartLights = {northSouthLight, southNorthLight, eastWestLight, westEastLight};
         
         // Créer et démarrer le générateur de véhicules intelligent
-        SmartVehicleGenerator vehicleGenerator = new SmartVehicleGenerator(intersectionPanel, vehicleManager, intersection, smartLights);
+        SmartVehicleGenerator vehicleGenerator = new SmartVehicleGenerator(intersectionPanel, vehicleManager, intersection, smartLights, runSeed);
         vehicleGeneratorThread = vehicleGenerator;
         vehicleGeneratorThread.start();
         
-        // Démarrer les feux
-        northSouthLight.start();
-        southNorthLight.start();
-        eastWestLight.start();
-        westEastLight.start();
+        // Démarrer les feux, pilotés par le contrôleur actionné par les détecteurs
+        signalExecutor = new SignalExecutor(intersection, SignalControllerType.ACTUATED.create(), running);
+        signalExecutor.start();
+        
+        // Panneau des temps d'attente et du débit
+        statisticsPanel = new TrafficStatisticsPanel(intersection.getStatistics());
+        statisticsPanel.start();
         
         // Créer un panneau pour les informations à droite
         VBox rightPanel = new VBox(10);
         rightPanel.setPadding(new Insets(10));
-        rightPanel.getChildren().addAll(trafficLightsPanel, statsPanel);
+        rightPanel.getChildren().addAll(trafficLightsPanel, statsPanel, statisticsPanel);
         
         // Assemblage de l'interface
         root.setTop(topSection);
@@ -378,7 +500,7 @@ public class MainUI extends Application {
         root.setRight(rightPanel);
         
         // Création de la scène
-        Scene scene = new Scene(root, 900, 700);
+        Scene scene = new Scene(root, 1000, 750);
         stage.setTitle("Simulation avec synchronisation intelligente");
         stage.setScene(scene);
         stage.show();
@@ -396,6 +518,186 @@ public class MainUI extends Application {
         });
     }
 
+    /**
+     * Rejoue une trace enregistrée dans l'intersection, à vitesse réglable.
+     * @param file Le fichier de trace
+     */
+    private void showReplayUI(Path file) {
+        TraceReader reader;
+        try {
+            reader = new TraceReader(file);
+        } catch (IOException e) {
+            LOG.warn("Impossible d'ouvrir la trace", "fichier", file, "cause", e.getMessage());
+            return;
+        }
+        
+        // Initialisation des composants
+        intersectionPanel = new IntersectionPanel();
+        intersectionPanel.addDirectionLabels();
+        logPanel = new LogPanel();
+        TrafficLightsPanel trafficLightsPanel = new TrafficLightsPanel();
+        this.trafficLightsPanel = trafficLightsPanel;
+        CanvasVehicleRenderer renderer = canvasRendering ? new CanvasVehicleRenderer() : null;
+        traceReplayer = new TraceReplayer(reader, intersectionPanel, trafficLightsPanel, renderer);
+        traceReplayer.setOnFinished(() -> {
+            logPanel.addLog("Fin de la trace (" + traceReplayer.getTraceTimeMillis() / 1000 + " s)");
+            if (renderer != null) {
+                logPanel.addLog(String.format("Rendu par lots : %d images, %.2f ms par image en moyenne",
+                        renderer.getFrameCount(), renderer.getAverageDrawNanos() / 1e6));
+            }
+        });
+
+        // Création du layout principal
+        BorderPane root = new BorderPane();
+        root.setPadding(new Insets(20));
+
+        // Section du haut avec les feux
+        VBox topSection = new VBox(10, trafficLightsPanel);
+        topSection.setAlignment(Pos.CENTER);
+
+        // Choix de la vitesse du rejeu, 0 pour une pause
+        Label speedLabel = new Label("Vitesse :");
+        ComboBox<Double> speedBox = new ComboBox<>();
+        speedBox.getItems().addAll(0.0, 0.5, 1.0, 2.0, 5.0, 10.0, 50.0, 100.0);
+        speedBox.setValue(traceReplayer.getSpeed());
+        speedBox.setOnAction(e -> traceReplayer.setSpeed(speedBox.getValue()));
+
+        // Bouton de retour
+        Button returnButton = new Button("Retour au menu principal");
+        returnButton.setOnAction(e -> showSelectionScreen());
+        
+        HBox bottomSection = new HBox(20);
+        bottomSection.setAlignment(Pos.CENTER);
+        bottomSection.setPadding(new Insets(10));
+        bottomSection.getChildren().addAll(speedLabel, speedBox, returnButton);
+
+        // Assemblage de l'interface
+        root.setTop(topSection);
+        root.setCenter(intersectionPanel);
+        root.setBottom(bottomSection);
+        root.setRight(logPanel);
+
+        // Création de la scène
+        Scene scene = new Scene(root, 900, 700);
+        stage.setTitle("Rejeu de " + file.getFileName());
+        stage.setScene(scene);
+
+        logPanel.addLog("Rejeu de la trace " + file.getFileName());
+        traceReplayer.start();
+    }
+
+    /**
+     * Simule l'intersection en temps simulé avec la graine choisie (générateur intelligent,
+     * feux actionnés), puis rejoue la trace obtenue. La même graine donne toujours la même trace.
+     */
+    private void showDeterministicUI() {
+        long seed = nextRunSeed();
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(DiscreteEventSimulation.Mode.SMART, seed);
+        runDeterministic(simulation, "graine-" + seed, "Exécution déterministe, graine : " + seed);
+    }
+
+    /**
+     * Restaure une simulation d'un point de contrôle et la poursuit, sans refaire la montée en charge.
+     * @param file Le fichier du point de contrôle
+     */
+    private void showRestoredUI(Path file) {
+        long start = System.nanoTime();
+        DiscreteEventSimulation simulation;
+        try {
+            simulation = DiscreteEventSimulation.restoreCheckpoint(file);
+        } catch (IOException e) {
+            LOG.warn("Impossible de restaurer le point de contrôle", "fichier", file, "cause", e.getMessage());
+            return;
+        }
+        long restoreMillis = (System.nanoTime() - start) / 1_000_000;
+        String name = file.getFileName().toString().replaceFirst("\\.ckp$", "");
+        runDeterministic(simulation, name + "-" + (simulation.getNow() + DETERMINISTIC_DURATION) / 60_000 + "min",
+                "Reprise de " + file.getFileName() + " (graine " + simulation.getSeed() + ", restauré en "
+                + restoreMillis + " ms) à " + simulation.getNow() / 60_000 + " min");
+    }
+
+    /**
+     * Poursuit une simulation à événements discrets pendant DETERMINISTIC_DURATION en enregistrant
+     * sa trace, enregistre un point de contrôle de l'état final, puis rejoue la trace.
+     * @param simulation La simulation, nouvelle ou restaurée
+     * @param name Le nom des fichiers de trace (trace-name.trc) et de point de contrôle (name.ckp)
+     * @param description La description de l'exécution, affichée dans les logs
+     */
+    private void runDeterministic(DiscreteEventSimulation simulation, String name, String description) {
+        Path traceFile = Paths.get("trace-" + name + ".trc");
+        Path checkpointFile = Paths.get(name + ".ckp");
+        long arrivals = simulation.getArrivals();
+        try {
+            try (TraceRecorder recorder = new TraceRecorder(traceFile, simulation.traceClock(), 0)) {
+                simulation.setTraceRecorder(recorder);
+                simulation.runUntil(simulation.getNow() + DETERMINISTIC_DURATION);
+                simulation.setTraceRecorder(null);
+            }
+            simulation.saveCheckpoint(checkpointFile);
+        } catch (IOException e) {
+            LOG.warn("Impossible d'écrire la trace ou le point de contrôle", "cause", e.getMessage());
+            return;
+        }
+        showReplayUI(traceFile);
+        logPanel.addLog(description + ", " + (simulation.getArrivals() - arrivals) + " véhicules en "
+                + DETERMINISTIC_DURATION / 60_000 + " min");
+        logPanel.addLog("Point de contrôle de l'état final : " + checkpointFile);
+    }
+
+    /**
+     * Choisit la graine de l'exécution : la graine saisie, ou une graine aléatoire.
+     * @return La graine de l'exécution, aussi conservée dans runSeed
+     */
+    private long nextRunSeed() {
+        try {
+            runSeed = seedText.isEmpty() ? SimulationSeed.newSeed() : Long.parseLong(seedText);
+        } catch (NumberFormatException e) {
+            // Graine non numérique : dérivée du texte saisi
+            runSeed = SimulationSeed.derive(seedText.hashCode(), 0);
+        }
+        return runSeed;
+    }
+
+    /**
+     * Ouvre une trace des événements de la simulation si l'enregistrement est demandé.
+     * @param intersection L'intersection dont les changements de feux sont enregistrés, ou null
+     */
+    private void openTrace(Intersection intersection) {
+        if (!recordTrace) {
+            return;
+        }
+        String name = "trace-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".trc";
+        try {
+            traceRecorder = new TraceRecorder(Paths.get(name));
+        } catch (IOException e) {
+            logPanel.addLog("Impossible de créer la trace " + name + " : " + e.getMessage());
+            return;
+        }
+        vehicleManager.setTraceRecorder(traceRecorder);
+        if (intersection != null) {
+            intersection.setTraceRecorder(traceRecorder);
+        }
+        logPanel.addLog("Enregistrement de la trace dans " + name);
+    }
+
+    /**
+     * Termine l'enregistrement ou le rejeu d'une trace en cours.
+     */
+    private void closeTrace() {
+        if (traceRecorder != null) {
+            try {
+                traceRecorder.close();
+            } catch (IOException e) {
+                LOG.warn("Erreur à la fermeture de la trace", "cause", e.getMessage());
+            }
+            traceRecorder = null;
+        }
+        if (traceReplayer != null) {
+            traceReplayer.stop();
+            traceReplayer = null;
+        }
+    }
+
     /**
      * Arrête la simulation en cours.
      */
@@ -411,6 +713,23 @@ public class MainUI extends Application {
         isRunning = false;
         
         // Nettoyer les ressources
+        if (vehicleManager != null) {
+            vehicleManager.stopCollisionDetection();
+            vehicleManager.stopBlinking();
+        }
+        if (signalExecutor != null) {
+            signalExecutor.cancel();
+        }
+        if (trafficLightsPanel != null) {
+            trafficLightsPanel.stop();
+        }
+        if (smartStatsPanel != null) {
+            smartStatsPanel.stop();
+        }
+        if (statisticsPanel != null) {
+            statisticsPanel.stop();
+        }
+        closeTrace();
         if (intersectionPanel != null) {
             intersectionPanel.getVehicleLayer().getChildren().clear();
         }
@@ -429,9 +748,28 @@ public class MainUI extends Application {
         if (running != null) {
             running.set(false);
         }
+        if (vehicleManager != null) {
+            vehicleManager.stopCollisionDetection();
+            vehicleManager.stopBlinking();
+        }
+        if (signalExecutor != null) {
+            signalExecutor.cancel();
+        }
+        if (trafficLightsPanel != null) {
+            trafficLightsPanel.stop();
+        }
+        if (smartStatsPanel != null) {
+            smartStatsPanel.stop();
+        }
+        if (statisticsPanel != null) {
+            statisticsPanel.stop();
+        }
+        closeTrace();
         if (vehicleGeneratorThread != null) {
             vehicleGeneratorThread.interrupt();
         }
+        // Plus aucune pulsation après la fermeture : les producteurs ne doivent pas attendre une case libre
+        UiEventRing.shared().stop();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,77 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Contrôleur à pression maximale : le vert va à l'axe dont la pression est la plus forte.
+ * La pression d'un axe est la différence entre les véhicules en attente sur l'axe et ceux
+ * qui attendent déjà aux intersections suivantes : un axe dont la sortie est saturée cède
+ * le vert. Le vert dure au moins MIN_GREEN, puis la pression est réévaluée toutes les
+ * DECISION_INTERVAL millisecondes.
+ */
+public class MaxPressureController implements SignalController {
+    static final int MIN_GREEN = 4000; // Durée minimale du vert en millisecondes
+    static final int DECISION_INTERVAL = 1000; // Intervalle de réévaluation de la pression
+    static final int CLEARANCE_DURATION = 1000; // Durée du rouge de dégagement entre deux axes
+
+    private int lastGreenAxis = Directions.AXIS_NORTH_SOUTH;
+
+    @Override
+    public void decide(DemandSnapshot demand, PhaseDecision decision) {
+        int phase = demand.getPhase();
+        int axis = SignalPhase.axisOf(phase);
+
+        if (SignalPhase.isGreen(phase)) {
+            long remaining = MIN_GREEN - demand.getPhaseElapsed();
+            int otherAxis = 1 - axis;
+            if (remaining > 0) {
+                decision.set(phase, remaining);
+            } else if (demand.getAxisWaiting(otherAxis) > 0 && pressure(demand, otherAxis) > pressure(demand, axis)) {
+                decision.set(SignalPhase.yellowOf(axis), TrafficLight.YELLOW_DURATION);
+            } else {
+                decision.set(phase, DECISION_INTERVAL);
+            }
+            return;
+        }
+
+        if (SignalPhase.isYellow(phase)) {
+            lastGreenAxis = axis;
+            decision.set(SignalPhase.ALL_RED, CLEARANCE_DURATION);
+            return;
+        }
+
+        // Tous au rouge : donner le vert à l'axe de plus forte pression parmi ceux qui ont de la demande
+        long remaining = CLEARANCE_DURATION - demand.getPhaseElapsed();
+        if (remaining > 0) {
+            decision.set(SignalPhase.ALL_RED, remaining);
+            return;
+        }
+        int otherAxis = 1 - lastGreenAxis;
+        boolean otherWaiting = demand.getAxisWaiting(otherAxis) > 0;
+        boolean lastWaiting = demand.getAxisWaiting(lastGreenAxis) > 0;
+        if (!otherWaiting && !lastWaiting) {
+            decision.set(SignalPhase.ALL_RED, PhaseDecision.UNTIL_DEMAND);
+        } else if (otherWaiting && (!lastWaiting || pressure(demand, otherAxis) >= pressure(demand, lastGreenAxis))) {
+            decision.set(SignalPhase.greenOf(otherAxis), MIN_GREEN);
+        } else {
+            decision.set(SignalPhase.greenOf(lastGreenAxis), MIN_GREEN);
+        }
+    }
+
+    /**
+     * Retourne la pression d'un axe : véhicules en attente moins véhicules en attente en aval.
+     */
+    static int pressure(DemandSnapshot demand, int axis) {
+        return demand.getAxisWaiting(axis) - demand.getAxisDownstream(axis);
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeByte(lastGreenAxis);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        lastGreenAxis = in.readByte();
+    }
+}
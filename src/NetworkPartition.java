@@ -0,0 +1,391 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partition du réseau routier : un bloc de rangées d'intersections avec sa propre file
+ * d'événements. Chaque partition avance seule pendant une fenêtre de temps ; un véhicule
+ * qui quitte la partition est déposé dans la boîte de réception de la partition voisine
+ * et n'y arrive qu'après le temps de parcours d'un tronçon, donc au plus tôt à la fenêtre
+ * suivante. Aucun verrou n'est nécessaire pendant une fenêtre.
+ */
+public class NetworkPartition {
+    private final NetworkSimulation simulation;
+    private final RoadNetwork network;
+    private final int index;
+    private final int firstRow;
+    private final int lastRow;
+    private final int firstIntersection;
+    private final Random random;
+    private final PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+    private int vehicleCounter;
+
+    // État de chaque intersection de la partition, indexé par intersection locale
+    private final int[] axisStates; // intersection * 2 + axe
+    private final long[] occupancy; // Mot d'occupation (voir ConflictMatrix)
+    private final ArrayDeque<SimulationEvent>[] stoppedVehicles; // intersection * 4 + direction
+
+    // Contrôleur des feux de chaque intersection et phase courante
+    private final SignalController[] controllers;
+    private final int[] phases;
+    private final long[] phaseStarts;
+    private final SimulationEvent[] parkedTicks; // Décisions en attente de la demande
+    private final long[] lastDetections; // Dernière détection d'un véhicule, intersection * 4 + direction
+    private final DemandSnapshot snapshot = new DemandSnapshot();
+    private final PhaseDecision decision = new PhaseDecision();
+
+    // Longueur des files de chaque intersection publiée en fin de fenêtre, une par parité de fenêtre :
+    // pendant la fenêtre n, les contrôleurs des autres partitions lisent celle de la fenêtre n - 1
+    private final int[][] publishedQueues = new int[2][];
+
+    // Boîtes de réception des véhicules venant des autres partitions, une par parité de fenêtre :
+    // les véhicules déposés pendant la fenêtre n sont livrés au début de la fenêtre n + 1
+    private final List<ConcurrentLinkedQueue<SimulationEvent>> inboxes = new ArrayList<>();
+    private final List<SimulationEvent> deliveries = new ArrayList<>();
+
+    // Statistiques
+    private long processedEvents;
+    private long vehiclesEntered;
+    private long vehiclesLeft;
+    private long handoffsSent;
+    private long admissions;
+    private long totalWaitTime;
+    // Temps d'attente et de traversée des intersections de la partition, regroupés par NetworkSimulation
+    private final TrafficStatistics statistics = new TrafficStatistics();
+
+    /**
+     * Constructeur de la partition.
+     * @param simulation La simulation, pour trouver la partition d'une intersection
+     * @param index L'indice de la partition
+     * @param firstRow La première rangée de la partition
+     * @param lastRow La dernière rangée de la partition (incluse)
+     * @param seed La graine du générateur aléatoire de la partition
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public NetworkPartition(NetworkSimulation simulation, int index, int firstRow, int lastRow, long seed) {
+        this.simulation = simulation;
+        this.network = simulation.getNetwork();
+        this.index = index;
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+        this.firstIntersection = network.indexOf(firstRow, 0);
+        this.random = new Random(seed);
+
+        int intersections = (lastRow - firstRow + 1) * network.getColumns();
+        this.axisStates = new int[intersections * 2];
+        this.occupancy = new long[intersections];
+        this.stoppedVehicles = new ArrayDeque[intersections * Directions.COUNT];
+        for (int i = 0; i < stoppedVehicles.length; i++) {
+            stoppedVehicles[i] = new ArrayDeque<>();
+        }
+        inboxes.add(new ConcurrentLinkedQueue<>());
+        inboxes.add(new ConcurrentLinkedQueue<>());
+        publishedQueues[0] = new int[intersections * Directions.COUNT];
+        publishedQueues[1] = new int[intersections * Directions.COUNT];
+
+        this.controllers = new SignalController[intersections];
+        this.phases = new int[intersections];
+        this.phaseStarts = new long[intersections];
+        this.parkedTicks = new SimulationEvent[intersections];
+        this.lastDetections = new long[intersections * Directions.COUNT];
+        Arrays.fill(lastDetections, DemandSnapshot.NO_DETECTION);
+        for (int local = 0; local < intersections; local++) {
+            controllers[local] = simulation.createController(firstIntersection + local);
+            SimulationEvent tick = new SimulationEvent(SimulationEvent.CONTROLLER_TICK, -1, 0);
+            tick.intersection = firstIntersection + local;
+            schedule(tick, 0);
+        }
+        scheduleEntries();
+    }
+
+    /**
+     * Planifie les arrivées aux entrées du réseau situées dans la partition :
+     * les deux extrémités de chaque rangée, et le haut ou le bas de chaque colonne
+     * pour la première et la dernière rangée du réseau.
+     */
+    private void scheduleEntries() {
+        int columns = network.getColumns();
+        for (int row = firstRow; row <= lastRow; row++) {
+            scheduleEntry(network.indexOf(row, columns - 1), Directions.EAST_WEST);
+            scheduleEntry(network.indexOf(row, 0), Directions.WEST_EAST);
+        }
+        for (int column = 0; column < columns; column++) {
+            if (firstRow == 0) {
+                scheduleEntry(network.indexOf(0, column), Directions.NORTH_SOUTH);
+            }
+            if (lastRow == network.getRows() - 1) {
+                scheduleEntry(network.indexOf(network.getRows() - 1, column), Directions.SOUTH_NORTH);
+            }
+        }
+    }
+
+    private void scheduleEntry(int intersection, int direction) {
+        SimulationEvent arrival = new SimulationEvent(SimulationEvent.ARRIVAL, direction, 0);
+        arrival.intersection = intersection;
+        schedule(arrival, nextEntryDelay());
+    }
+
+    /**
+     * Livre les véhicules reçus pendant la fenêtre précédente, puis exécute les événements
+     * de la partition dont la date est strictement inférieure à la fin de la fenêtre.
+     * @param window Le numéro de la fenêtre
+     * @param windowEnd La date simulée de fin de la fenêtre
+     */
+    void runWindow(long window, long windowEnd) {
+        deliverHandoffs(inboxes.get((int) ((window + 1) & 1)));
+        while (!events.isEmpty() && events.peek().time < windowEnd) {
+            SimulationEvent event = events.poll();
+            now = event.time;
+            processedEvents++;
+            process(event, window);
+        }
+        now = windowEnd;
+        publishQueues(publishedQueues[(int) (window & 1)]);
+    }
+
+    private void publishQueues(int[] queues) {
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = stoppedVehicles[i].size();
+        }
+    }
+
+    /**
+     * Retourne le nombre de véhicules en attente à une intersection de la partition
+     * dans une direction, tel que publié à la fin de la fenêtre précédant la fenêtre donnée.
+     */
+    int getPublishedQueue(int intersection, int direction, long window) {
+        return publishedQueues[(int) ((window + 1) & 1)][(intersection - firstIntersection) * Directions.COUNT + direction];
+    }
+
+    /**
+     * Dépose un véhicule venant d'une autre partition pendant la fenêtre donnée.
+     */
+    void receive(SimulationEvent event, long window) {
+        inboxes.get((int) (window & 1)).add(event);
+    }
+
+    private void deliverHandoffs(ConcurrentLinkedQueue<SimulationEvent> inbox) {
+        SimulationEvent event;
+        while ((event = inbox.poll()) != null) {
+            deliveries.add(event);
+        }
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        // L'ordre de dépôt dépend des threads : trier rend la simulation indépendante de leur nombre
+        deliveries.sort((a, b) -> a.time != b.time ? Long.compare(a.time, b.time)
+                : Integer.compare(a.vehicleId, b.vehicleId));
+        for (SimulationEvent delivery : deliveries) {
+            schedule(delivery, delivery.time);
+        }
+        deliveries.clear();
+    }
+
+    private void process(SimulationEvent event, long window) {
+        switch (event.type) {
+            case SimulationEvent.CONTROLLER_TICK:
+                onControllerTick(event, window);
+                break;
+            case SimulationEvent.ARRIVAL:
+                onArrival(event);
+                break;
+            case SimulationEvent.ADMISSION:
+                onAdmission(event);
+                break;
+            case SimulationEvent.DEPARTURE:
+                onDeparture(event, window);
+                break;
+        }
+    }
+
+    /**
+     * Décision du contrôleur d'une intersection. La demande en aval est celle de l'intersection
+     * suivante dans chaque direction, publiée à la fin de la fenêtre précédente pour que le
+     * résultat ne dépende pas de l'avancement des autres partitions.
+     */
+    private void onControllerTick(SimulationEvent event, long window) {
+        int local = event.intersection - firstIntersection;
+        snapshot.setPhase(now, phases[local], phaseStarts[local]);
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            int next = network.nextIntersection(event.intersection, direction);
+            int downstream = next < 0 ? 0 : simulation.partitionOf(next).getPublishedQueue(next, direction, window);
+            snapshot.setDemand(direction, stoppedVehicles[local * Directions.COUNT + direction].size(),
+                    ConflictMatrix.countOf(occupancy[local], direction), downstream);
+            snapshot.setLastDetection(direction, lastDetections[local * Directions.COUNT + direction]);
+        }
+        controllers[local].decide(snapshot, decision);
+        applyPhase(local, decision.getPhase());
+
+        if (decision.getDuration() == PhaseDecision.UNTIL_DEMAND) {
+            parkedTicks[local] = event;
+        } else {
+            schedule(event, now + decision.getDuration());
+        }
+    }
+
+    /**
+     * Applique une phase à une intersection et relâche les véhicules de l'axe qui passe au vert.
+     */
+    private void applyPhase(int local, int phase) {
+        if (phase == phases[local]) {
+            return;
+        }
+        phases[local] = phase;
+        phaseStarts[local] = now;
+        for (int axis = 0; axis < 2; axis++) {
+            int state = SignalPhase.lightStateOf(phase, axis);
+            int previous = axisStates[local * 2 + axis];
+            axisStates[local * 2 + axis] = state;
+            if (state == TrafficLight.GREEN && previous != TrafficLight.GREEN) {
+                int mainDirection = Directions.mainDirectionOf(axis);
+                releaseStoppedVehicles(local, mainDirection);
+                releaseStoppedVehicles(local, mainDirection + 1);
+            }
+        }
+    }
+
+    /**
+     * Un véhicule entre dans le réseau par une entrée de la partition.
+     */
+    private void onArrival(SimulationEvent event) {
+        vehiclesEntered++;
+        // Identifiant unique dans tout le réseau, sans coordination entre partitions
+        int vehicleId = ++vehicleCounter * simulation.getPartitionCount() + index;
+        SimulationEvent vehicle = new SimulationEvent(SimulationEvent.ADMISSION, event.direction, vehicleId);
+        vehicle.intersection = event.intersection;
+        vehicle.arrivalTime = now;
+        schedule(vehicle, now);
+        schedule(event, now + nextEntryDelay());
+    }
+
+    /**
+     * Le véhicule arrive à une intersection : il s'engage si le feu de son axe est vert
+     * et qu'aucun mouvement en conflit n'occupe l'intersection, sinon il attend.
+     */
+    private void onAdmission(SimulationEvent event) {
+        int local = event.intersection - firstIntersection;
+        int direction = event.direction;
+        if (now == event.arrivalTime) {
+            // Arrivée du véhicule sur l'approche, et non relâchement d'un véhicule arrêté
+            lastDetections[local * Directions.COUNT + direction] = now;
+        }
+        if (axisStates[local * 2 + Directions.axisOf(direction)] != TrafficLight.GREEN
+                || !ConflictMatrix.admits(occupancy[local], direction)) {
+            stoppedVehicles[local * Directions.COUNT + direction].add(event);
+
+            // Réveiller le contrôleur de l'intersection s'il attend la demande
+            SimulationEvent parkedTick = parkedTicks[local];
+            if (parkedTick != null) {
+                parkedTicks[local] = null;
+                schedule(parkedTick, now);
+            }
+            return;
+        }
+        occupancy[local] = ConflictMatrix.enter(occupancy[local], direction);
+        admissions++;
+        totalWaitTime += now - event.arrivalTime;
+        statistics.recordWait(direction, TimeUnit.MILLISECONDS.toNanos(now - event.arrivalTime));
+        event.admissionTime = now;
+
+        event.type = SimulationEvent.DEPARTURE;
+        schedule(event, now + RoadNetwork.CROSSING_TIME);
+    }
+
+    /**
+     * Le véhicule sort de l'intersection et prend le tronçon vers l'intersection suivante,
+     * qui peut appartenir à une autre partition.
+     */
+    private void onDeparture(SimulationEvent event, long window) {
+        int local = event.intersection - firstIntersection;
+        int direction = event.direction;
+        occupancy[local] = ConflictMatrix.exit(occupancy[local], direction);
+        statistics.recordCrossing(direction, TimeUnit.MILLISECONDS.toNanos(now - event.admissionTime));
+        if (ConflictMatrix.countOf(occupancy[local], direction) == 0) {
+            // Les véhicules des mouvements en conflit peuvent désormais s'engager
+            int conflicts = ConflictMatrix.conflictsOf(direction);
+            for (int other = 0; other < Directions.COUNT; other++) {
+                if ((conflicts & (1 << other)) != 0 && ConflictMatrix.admits(occupancy[local], other)) {
+                    releaseStoppedVehicles(local, other);
+                }
+            }
+        }
+
+        int next = network.nextIntersection(event.intersection, direction);
+        if (next < 0) {
+            vehiclesLeft++;
+            return;
+        }
+        event.type = SimulationEvent.ADMISSION;
+        event.intersection = next;
+        event.time = now + RoadNetwork.LINK_TRAVEL_TIME;
+        event.arrivalTime = event.time;
+
+        NetworkPartition target = simulation.partitionOf(next);
+        if (target == this) {
+            schedule(event, event.time);
+        } else {
+            handoffsSent++;
+            target.receive(event, window);
+        }
+    }
+
+    private void releaseStoppedVehicles(int local, int direction) {
+        ArrayDeque<SimulationEvent> queue = stoppedVehicles[local * Directions.COUNT + direction];
+        while (!queue.isEmpty()) {
+            schedule(queue.poll(), now);
+        }
+    }
+
+    private void schedule(SimulationEvent event, long time) {
+        event.time = time;
+        event.sequence = sequence++;
+        events.add(event);
+    }
+
+    private int nextEntryDelay() {
+        return random.nextInt(NetworkSimulation.ENTRY_DELAY_RANGE) + NetworkSimulation.MIN_ENTRY_DELAY;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int getLastRow() {
+        return lastRow;
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    public long getVehiclesEntered() {
+        return vehiclesEntered;
+    }
+
+    public long getVehiclesLeft() {
+        return vehiclesLeft;
+    }
+
+    public long getHandoffsSent() {
+        return handoffsSent;
+    }
+
+    public long getAdmissions() {
+        return admissions;
+    }
+
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    public TrafficStatistics getStatistics() {
+        return statistics;
+    }
+}
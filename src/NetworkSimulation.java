@@ -0,0 +1,262 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Simulation à événements discrets d'un réseau de rows × columns intersections,
+ * exécutée en parallèle par partitions de rangées sur un ForkJoinPool.
+ *
+ * La synchronisation est conservatrice, par fenêtres : un véhicule met au moins
+ * LINK_TRAVEL_TIME pour aller d'une intersection à sa voisine, donc aucun événement
+ * d'une fenêtre de cette durée ne peut en affecter un autre dans une autre partition
+ * pendant la même fenêtre. Toutes les partitions avancent en parallèle jusqu'à la fin
+ * de la fenêtre, puis échangent les véhicules qui changent de partition.
+ * Le résultat ne dépend pas du nombre de threads.
+ */
+public class NetworkSimulation {
+    static final int MIN_ENTRY_DELAY = 2000; // Délai minimum entre deux véhicules à une entrée du réseau
+    static final int ENTRY_DELAY_RANGE = 4000; // Plage aléatoire ajoutée au délai minimum
+
+    // Durée d'une fenêtre : le temps de parcours minimum entre deux partitions
+    static final long WINDOW_DURATION = RoadNetwork.LINK_TRAVEL_TIME;
+
+    private final RoadNetwork network;
+    private final IntFunction<SignalController> controllerFactory;
+    private final NetworkPartition[] partitions;
+    private final int[] partitionOfRow;
+    private final ForkJoinPool pool;
+    private long window;
+    private long now;
+
+    /**
+     * Constructeur de la simulation, avec le même type de contrôleur pour toutes les intersections.
+     * Les contrôleurs à cycle fixe sont décalés pour former une onde verte (voir RoadNetwork.signalOffset).
+     * @param network Le réseau routier
+     * @param controllerType Le type de contrôleur des feux
+     * @param partitionCount Le nombre de partitions, limité au nombre de rangées
+     * @param parallelism Le nombre de threads du pool
+     * @param seed La graine dont sont dérivés les générateurs aléatoires des partitions
+     */
+    public NetworkSimulation(RoadNetwork network, SignalControllerType controllerType, int partitionCount,
+                             int parallelism, long seed) {
+        this(network, intersection -> controllerType == SignalControllerType.FIXED
+                ? new FixedCycleController(network.signalOffset(intersection)) : controllerType.create(),
+                partitionCount, parallelism, seed);
+    }
+
+    /**
+     * Constructeur de la simulation.
+     * @param network Le réseau routier
+     * @param controllerFactory Crée le contrôleur des feux de chaque intersection, à partir de son indice
+     * @param partitionCount Le nombre de partitions, limité au nombre de rangées
+     * @param parallelism Le nombre de threads du pool
+     * @param seed La graine dont sont dérivés les générateurs aléatoires des partitions
+     */
+    public NetworkSimulation(RoadNetwork network, IntFunction<SignalController> controllerFactory,
+                             int partitionCount, int parallelism, long seed) {
+        this.network = network;
+        this.controllerFactory = controllerFactory;
+        int count = Math.max(1, Math.min(partitionCount, network.getRows()));
+        this.partitions = new NetworkPartition[count];
+        this.partitionOfRow = new int[network.getRows()];
+        this.pool = new ForkJoinPool(parallelism);
+
+        // Rangées réparties au plus équitablement entre les partitions
+        int firstRow = 0;
+        for (int i = 0; i < count; i++) {
+            int lastRow = firstRow + (network.getRows() - firstRow) / (count - i) - 1;
+            for (int row = firstRow; row <= lastRow; row++) {
+                partitionOfRow[row] = i;
+            }
+            firstRow = lastRow + 1;
+        }
+        for (int i = 0; i < count; i++) {
+            int first = -1;
+            int last = -1;
+            for (int row = 0; row < partitionOfRow.length; row++) {
+                if (partitionOfRow[row] == i) {
+                    first = first < 0 ? row : first;
+                    last = row;
+                }
+            }
+            partitions[i] = new NetworkPartition(this, i, first, last, SimulationSeed.derive(seed, i));
+        }
+    }
+
+    /**
+     * Exécute tous les événements dont la date est strictement inférieure à la date donnée,
+     * fenêtre par fenêtre.
+     * @param endTime La date simulée de fin en millisecondes
+     */
+    public void runUntil(long endTime) {
+        while (now < endTime) {
+            long windowEnd = Math.min(now + WINDOW_DURATION, endTime);
+            pool.invoke(new WindowTask(0, partitions.length, window, windowEnd));
+            window++;
+            now = windowEnd;
+        }
+    }
+
+    /**
+     * Arrête le pool de threads de la simulation.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Fait avancer un intervalle de partitions jusqu'à la fin de la fenêtre,
+     * en le coupant en deux tant qu'il contient plus d'une partition.
+     */
+    private class WindowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final long window;
+        private final long windowEnd;
+
+        WindowTask(int from, int to, long window, long windowEnd) {
+            this.from = from;
+            this.to = to;
+            this.window = window;
+            this.windowEnd = windowEnd;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                partitions[from].runWindow(window, windowEnd);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new WindowTask(from, middle, window, windowEnd), new WindowTask(middle, to, window, windowEnd));
+        }
+    }
+
+    public RoadNetwork getNetwork() {
+        return network;
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Crée le contrôleur des feux d'une intersection.
+     */
+    SignalController createController(int intersection) {
+        return controllerFactory.apply(intersection);
+    }
+
+    /**
+     * Retourne la partition qui simule une intersection.
+     */
+    public NetworkPartition partitionOf(int intersection) {
+        return partitions[partitionOfRow[network.rowOf(intersection)]];
+    }
+
+    public long getNow() {
+        return now;
+    }
+
+    /**
+     * Retourne les statistiques de trafic de tout le réseau par direction, en nanosecondes de temps simulé.
+     * Chaque partition enregistre dans ses propres statistiques ; elles sont regroupées à chaque appel,
+     * qui doit donc avoir lieu entre deux exécutions de runUntil.
+     */
+    public TrafficStatistics getStatistics() {
+        TrafficStatistics statistics = new TrafficStatistics();
+        for (NetworkPartition partition : partitions) {
+            statistics.add(partition.getStatistics());
+        }
+        return statistics;
+    }
+
+    public long getProcessedEvents() {
+        long total = 0;
+        for (NetworkPartition partition : partitions) {
+            total += partition.getProcessedEvents();
+        }
+        return total;
+    }
+
+    public long getVehiclesEntered() {
+        long total = 0;
+        for (NetworkPartition partition : partitions) {
+            total += partition.getVehiclesEntered();
+        }
+        return total;
+    }
+
+    public long getVehiclesLeft() {
+        long total = 0;
+        for (NetworkPartition partition : partitions) {
+            total += partition.getVehiclesLeft();
+        }
+        return total;
+    }
+
+    public long getHandoffs() {
+        long total = 0;
+        for (NetworkPartition partition : partitions) {
+            total += partition.getHandoffsSent();
+        }
+        return total;
+    }
+
+    /**
+     * Retourne le temps d'attente moyen d'un véhicule à une intersection, en millisecondes.
+     */
+    public double getAverageWaitTime() {
+        long admissions = 0;
+        long waitTime = 0;
+        for (NetworkPartition partition : partitions) {
+            admissions += partition.getAdmissions();
+            waitTime += partition.getTotalWaitTime();
+        }
+        return admissions == 0 ? 0 : (double) waitTime / admissions;
+    }
+
+    /**
+     * Lance une simulation de réseau sans interface graphique.
+     * Usage : java NetworkSimulation [rangées] [colonnes] [durée en secondes] [graine] [threads]
+     *         [fixed|smart|actuated|max-pressure]
+     */
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long duration = args.length > 2 ? Long.parseLong(args[2]) * 1000 : 3_600_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        SignalControllerType controllerType = args.length > 5 ? SignalControllerType.fromName(args[5])
+                : SignalControllerType.FIXED;
+
+        NetworkSimulation simulation = new NetworkSimulation(new RoadNetwork(rows, columns), controllerType, rows,
+                threads, seed);
+        long start = System.nanoTime();
+        simulation.runUntil(duration);
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        simulation.shutdown();
+
+        System.out.println("Réseau : " + rows + "x" + columns + ", partitions : " + simulation.getPartitionCount()
+                + ", threads : " + threads + ", contrôleur : " + controllerType + ", graine : " + seed);
+        System.out.println("Durée simulée : " + duration / 1000 + " s en " + String.format("%.1f", elapsedMillis)
+                + " ms (x" + String.format("%.0f", duration / Math.max(elapsedMillis, 0.001)) + ")");
+        System.out.println("Événements traités : " + simulation.getProcessedEvents() + " ("
+                + String.format("%.0f", simulation.getProcessedEvents() / Math.max(elapsedMillis, 0.001) * 1000)
+                + " par seconde)");
+        System.out.println("Véhicules entrés : " + simulation.getVehiclesEntered() + ", sortis : "
+                + simulation.getVehiclesLeft() + ", changements de partition : " + simulation.getHandoffs());
+        System.out.println("Attente moyenne par intersection : "
+                + String.format("%.0f", simulation.getAverageWaitTime()) + " ms");
+        TrafficStatistics statistics = simulation.getStatistics();
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            LatencyHistogram waits = statistics.getWaitTimes(direction);
+            System.out.println("  " + Directions.nameOf(direction) + " : attente p50 "
+                    + TimeUnit.NANOSECONDS.toMillis(waits.getValueAtPercentile(50)) + " ms, p99 "
+                    + TimeUnit.NANOSECONDS.toMillis(waits.getValueAtPercentile(99)) + " ms");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Décision d'un contrôleur de feux : la phase à appliquer et le délai avant la décision suivante.
+ * L'objet est fourni par l'appelant et réutilisé à chaque décision.
+ */
+public class PhaseDecision {
+    /**
+     * Délai particulier : pas de nouvelle décision avant l'arrivée d'un véhicule en attente.
+     */
+    public static final long UNTIL_DEMAND = -1;
+
+    private int phase = SignalPhase.ALL_RED;
+    private long duration;
+
+    /**
+     * Enregistre la décision.
+     * @param phase La phase à appliquer (voir SignalPhase)
+     * @param duration Le délai en millisecondes avant la décision suivante, ou UNTIL_DEMAND
+     */
+    public void set(int phase, long duration) {
+        this.phase = phase;
+        this.duration = duration;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Réseau routier en grille : rows × columns intersections reliées par des tronçons.
+ * Chaque intersection reprend le modèle de l'intersection unique (quatre directions,
+ * deux axes) ; un véhicule la traverse tout droit puis rejoint l'intersection voisine
+ * dans sa direction, ou quitte le réseau au bord de la grille.
+ */
+public class RoadNetwork {
+    static final int LINK_TRAVEL_TIME = 10000; // Durée du trajet entre deux intersections voisines en millisecondes
+    static final int CROSSING_TIME = 2000; // Durée de la traversée d'une intersection en millisecondes
+
+    // Cycle fixe d'une intersection, comme TrafficLight : vert et jaune Nord-Sud, vert et jaune Est-Ouest, rouge
+    static final int CYCLE_DURATION = 2 * (TrafficLight.GREEN_DURATION + TrafficLight.YELLOW_DURATION)
+            + TrafficLight.RED_DURATION;
+
+    private final int rows;
+    private final int columns;
+
+    /**
+     * Constructeur du réseau.
+     * @param rows Le nombre de rangées d'intersections
+     * @param columns Le nombre de colonnes d'intersections
+     */
+    public RoadNetwork(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Taille de réseau invalide : " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getIntersectionCount() {
+        return rows * columns;
+    }
+
+    /**
+     * Retourne l'indice d'une intersection à partir de sa rangée et de sa colonne.
+     */
+    public int indexOf(int row, int column) {
+        return row * columns + column;
+    }
+
+    public int rowOf(int intersection) {
+        return intersection / columns;
+    }
+
+    public int columnOf(int intersection) {
+        return intersection % columns;
+    }
+
+    /**
+     * Retourne l'intersection atteinte en quittant une intersection dans une direction.
+     * Nord-Sud descend d'une rangée, Sud-Nord monte, Est-Ouest va vers la colonne précédente
+     * et Ouest-Est vers la suivante.
+     * @param intersection L'indice de l'intersection quittée
+     * @param direction L'indice de la direction du véhicule
+     * @return L'indice de l'intersection voisine, ou -1 si le véhicule quitte le réseau
+     */
+    public int nextIntersection(int intersection, int direction) {
+        int row = rowOf(intersection);
+        int column = columnOf(intersection);
+        switch (direction) {
+            case Directions.NORTH_SOUTH:
+                row++;
+                break;
+            case Directions.SOUTH_NORTH:
+                row--;
+                break;
+            case Directions.EAST_WEST:
+                column--;
+                break;
+            default:
+                column++;
+                break;
+        }
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return -1;
+        }
+        return indexOf(row, column);
+    }
+
+    /**
+     * Retourne le décalage du cycle des feux d'une intersection.
+     * Les décalages suivent le temps de parcours d'une colonne à la suivante,
+     * ce qui forme une onde verte dans le sens Ouest-Est.
+     */
+    public long signalOffset(int intersection) {
+        return (long) columnOf(intersection) * (LINK_TRAVEL_TIME + CROSSING_TIME) % CYCLE_DURATION;
+    }
+}
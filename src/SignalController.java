@@ -0,0 +1,34 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Stratégie de commande des feux d'une intersection.
+ * À chaque point de décision, le contrôleur reçoit la demande et la phase courante,
+ * puis choisit la phase à appliquer et le délai avant la décision suivante.
+ * Un contrôleur ne connaît ni l'interface graphique ni les threads : le même contrôleur
+ * pilote les feux de l'interface (SignalExecutor), la simulation à événements discrets
+ * et le réseau. Il peut avoir un état propre et ne sert qu'à une seule intersection.
+ */
+public interface SignalController {
+
+    /**
+     * Décide de la phase à appliquer.
+     * @param demand La demande de l'intersection et sa phase courante
+     * @param decision La décision à remplir (voir PhaseDecision.set)
+     */
+    void decide(DemandSnapshot demand, PhaseDecision decision);
+
+    /**
+     * Écrit l'état propre du contrôleur dans un point de contrôle de la simulation.
+     * Les contrôleurs sans état n'ont rien à écrire.
+     */
+    default void writeState(DataOutput out) throws IOException {
+    }
+
+    /**
+     * Rétablit l'état écrit par writeState.
+     */
+    default void readState(DataInput in) throws IOException {
+    }
+}
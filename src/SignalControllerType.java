@@ -0,0 +1,58 @@
+/**
+ * Types de contrôleurs de feux proposés pour une intersection.
+ */
+public enum SignalControllerType {
+    FIXED("Cycle fixe"),
+    SMART("Intelligent"),
+    ACTUATED("Actionné"),
+    MAX_PRESSURE("Pression maximale");
+
+    private final String label;
+
+    SignalControllerType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Crée un nouveau contrôleur de ce type, pour une seule intersection.
+     */
+    public SignalController create() {
+        switch (this) {
+            case SMART:
+                return new SmartSignalController();
+            case ACTUATED:
+                return new ActuatedController();
+            case MAX_PRESSURE:
+                return new MaxPressureController();
+            default:
+                return new FixedCycleController();
+        }
+    }
+
+    /**
+     * Retourne le type d'un contrôleur.
+     */
+    public static SignalControllerType of(SignalController controller) {
+        if (controller instanceof SmartSignalController) {
+            return SMART;
+        } else if (controller instanceof ActuatedController) {
+            return ACTUATED;
+        } else if (controller instanceof MaxPressureController) {
+            return MAX_PRESSURE;
+        }
+        return FIXED;
+    }
+
+    /**
+     * Retourne le type correspondant à un nom en ligne de commande (fixed, smart, actuated, max-pressure).
+     * @throws IllegalArgumentException Si le nom est inconnu
+     */
+    public static SignalControllerType fromName(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
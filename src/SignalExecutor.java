@@ -0,0 +1,155 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Exécute les décisions d'un contrôleur de feux sur les feux d'une intersection.
+ * Les décisions sont planifiées sur la roue temporelle partagée, à partir de l'échéance
+ * de la décision précédente pour ne pas dériver. Lorsque le contrôleur attend la demande,
+ * l'exécuteur se met au repos sans minuteur et est réveillé par le registre de demande,
+ * qui lui signale aussi la date de chaque détection de véhicule sur une approche.
+ */
+public class SignalExecutor {
+    private final Intersection intersection;
+    private final SignalController controller;
+    private final AtomicBoolean running;
+    private TimerWheel timerWheel = TimerWheel.shared();
+    private final DemandSnapshot snapshot = new DemandSnapshot();
+    private final PhaseDecision decision = new PhaseDecision();
+    private final AtomicBoolean parked = new AtomicBoolean(); // Au repos, sans minuteur planifié
+    private final AtomicLongArray lastDetections = new AtomicLongArray(Directions.COUNT);
+    private volatile TimerWheel.Timeout pendingDecision;
+    private long decisionDeadline; // Échéance de la décision en cours, base de la suivante
+    private int phase = SignalPhase.ALL_RED;
+    private long phaseStart;
+
+    /**
+     * Constructeur de l'exécuteur.
+     * @param intersection L'intersection dont les feux sont pilotés
+     * @param controller Le contrôleur qui décide des phases
+     * @param running Indicateur d'exécution de la simulation
+     */
+    public SignalExecutor(Intersection intersection, SignalController controller, AtomicBoolean running) {
+        this.intersection = intersection;
+        this.controller = controller;
+        this.running = running;
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            lastDetections.set(direction, DemandSnapshot.NO_DETECTION);
+        }
+    }
+
+    /**
+     * Associe l'exécuteur à une roue temporelle autre que la roue partagée.
+     */
+    public void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
+    /**
+     * Démarre le pilotage des feux : tous les feux sont au rouge et la première décision est immédiate.
+     */
+    public void start() {
+        DemandRegistry registry = intersection.getDemandRegistry();
+        registry.setDemandListener(Directions.AXIS_NORTH_SOUTH, this::onDemand);
+        registry.setDemandListener(Directions.AXIS_EAST_WEST, this::onDemand);
+
+        long now = timerWheel.currentTime();
+        phaseStart = now;
+        scheduleAt(now);
+    }
+
+    /**
+     * Annule la prochaine décision planifiée.
+     */
+    public void cancel() {
+        TimerWheel.Timeout timeout = pendingDecision;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Demande une décision au contrôleur, applique la phase choisie et planifie la décision suivante.
+     */
+    private void step() {
+        long now = decisionDeadline;
+        DemandRegistry registry = intersection.getDemandRegistry();
+        snapshot.setPhase(now, phase, phaseStart);
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            snapshot.setDemand(direction, registry.getWaiting(direction), registry.getPassing(direction), 0);
+            snapshot.setLastDetection(direction, lastDetections.get(direction));
+        }
+        controller.decide(snapshot, decision);
+        applyPhase(decision.getPhase(), now);
+
+        long duration = decision.getDuration();
+        if (duration != PhaseDecision.UNTIL_DEMAND) {
+            scheduleAt(now + duration);
+            return;
+        }
+        // La demande est relue après la mise au repos pour ne pas manquer un réveil
+        parked.set(true);
+        if (hasWaitingVehicles(registry) && parked.compareAndSet(true, false)) {
+            scheduleAt(timerWheel.currentTime());
+        }
+    }
+
+    /**
+     * Appelé par le registre de demande lorsqu'un véhicule se met en attente.
+     * Enregistre la date de la détection et réveille l'exécuteur s'il est au repos.
+     * @param direction L'indice de la direction du véhicule détecté
+     */
+    private void onDemand(int direction) {
+        lastDetections.set(direction, timerWheel.currentTime());
+        if (parked.compareAndSet(true, false)) {
+            scheduleAt(timerWheel.currentTime());
+        }
+    }
+
+    private static boolean hasWaitingVehicles(DemandRegistry registry) {
+        return registry.getAxisWaiting(Directions.AXIS_NORTH_SOUTH) > 0
+                || registry.getAxisWaiting(Directions.AXIS_EAST_WEST) > 0;
+    }
+
+    /**
+     * Applique une phase aux feux de l'intersection. Les feux qui quittent le vert changent
+     * avant ceux qui y passent, pour que deux axes ne soient jamais verts en même temps.
+     */
+    private void applyPhase(int newPhase, long now) {
+        if (newPhase == phase) {
+            return;
+        }
+        phase = newPhase;
+        phaseStart = now;
+
+        List<TrafficLight> lights = intersection.getTrafficLights();
+        for (TrafficLight light : lights) {
+            int state = SignalPhase.lightStateOf(newPhase, Directions.axisOf(light.getDirectionIndex()));
+            if (state != TrafficLight.GREEN && light.getStateCode() != state) {
+                light.changeState(TrafficLight.stateName(state));
+            }
+        }
+        for (TrafficLight light : lights) {
+            int state = SignalPhase.lightStateOf(newPhase, Directions.axisOf(light.getDirectionIndex()));
+            if (state == TrafficLight.GREEN && light.getStateCode() != state) {
+                light.changeState(TrafficLight.stateName(state));
+            }
+        }
+    }
+
+    private void scheduleAt(long deadline) {
+        decisionDeadline = deadline;
+        pendingDecision = timerWheel.schedule(() -> {
+            if (running.get()) {
+                step();
+            }
+        }, deadline);
+    }
+
+    /**
+     * Retourne la phase courante de l'intersection (voir SignalPhase).
+     */
+    public int getPhase() {
+        return phase;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Phases des feux d'une intersection. Une phase donne l'état des feux des deux axes :
+ * tous au rouge, ou un axe au vert ou au jaune pendant que l'autre est au rouge.
+ */
+public final class SignalPhase {
+    public static final int ALL_RED = 0;
+    public static final int NORTH_SOUTH_GREEN = 1;
+    public static final int NORTH_SOUTH_YELLOW = 2;
+    public static final int EAST_WEST_GREEN = 3;
+    public static final int EAST_WEST_YELLOW = 4;
+
+    private static final String[] NAMES = {"ALL_RED", "NORTH_SOUTH_GREEN", "NORTH_SOUTH_YELLOW",
+            "EAST_WEST_GREEN", "EAST_WEST_YELLOW"};
+
+    private SignalPhase() {
+    }
+
+    /**
+     * Retourne la phase verte d'un axe.
+     * @param axis L'axe (Directions.AXIS_NORTH_SOUTH ou AXIS_EAST_WEST)
+     */
+    public static int greenOf(int axis) {
+        return 1 + (axis << 1);
+    }
+
+    /**
+     * Retourne la phase jaune d'un axe.
+     * @param axis L'axe (Directions.AXIS_NORTH_SOUTH ou AXIS_EAST_WEST)
+     */
+    public static int yellowOf(int axis) {
+        return 2 + (axis << 1);
+    }
+
+    /**
+     * Retourne l'axe servi par une phase.
+     * @return L'axe au vert ou au jaune, ou -1 pour ALL_RED
+     */
+    public static int axisOf(int phase) {
+        return phase == ALL_RED ? -1 : (phase - 1) >> 1;
+    }
+
+    public static boolean isGreen(int phase) {
+        return phase != ALL_RED && (phase & 1) == 1;
+    }
+
+    public static boolean isYellow(int phase) {
+        return phase != ALL_RED && (phase & 1) == 0;
+    }
+
+    /**
+     * Retourne l'état des feux d'un axe dans une phase.
+     * @param phase La phase
+     * @param axis L'axe
+     * @return TrafficLight.RED, YELLOW ou GREEN
+     */
+    public static int lightStateOf(int phase, int axis) {
+        if (axisOf(phase) != axis) {
+            return TrafficLight.RED;
+        }
+        return isGreen(phase) ? TrafficLight.GREEN : TrafficLight.YELLOW;
+    }
+
+    public static String nameOf(int phase) {
+        return NAMES[phase];
+    }
+}
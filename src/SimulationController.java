@@ -1,34 +1,45 @@
-import javafx.application.Platform;
 import javafx.scene.shape.Rectangle;
 import java.util.Random;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
-public class SimulationController {
+public class SimulationController implements UiEventRing.Handler {
 
     private static final String[] DIRECTIONS = {"North-South", "South-North", "East-West", "West-East"};
-    private static final Random random = new Random();
+    private final Random random;
+    static final int MIN_GENERATION_DELAY = 500; // Délai minimum entre deux véhicules en millisecondes
+    static final int GENERATION_DELAY_RANGE = 1500; // Plage aléatoire ajoutée au délai minimum
+    static final int MAX_VEHICLES_PER_DIRECTION = 5; // Limite par défaut du nombre de véhicules par direction
     private int vehicleCounter = 0;
-    private int maxVehiclesPerDirection = 5; // Limite le nombre de véhicules par direction
-    private int[] vehiclesInDirection = new int[4]; // Compte les véhicules dans chaque direction
+    private int maxVehiclesPerDirection = MAX_VEHICLES_PER_DIRECTION; // Limite le nombre de véhicules par direction
+    // Véhicules présents dans chaque direction : incrémenté par le générateur,
+    // décrémenté sur le thread JavaFX lorsque le véhicule est retiré (fin de traversée ou clic)
+    private final AtomicIntegerArray vehiclesInDirection = new AtomicIntegerArray(4);
 
     public SimulationController(MainUI mainUI) {
-        // Le mainUI n'est plus utilisé, nous pouvons supprimer le champ
+        this(mainUI, SimulationSeed.newSeed());
+    }
+
+    /**
+     * Constructeur avec la graine de l'exécution, pour reproduire la suite des véhicules générés.
+     * @param mainUI L'interface principale (inutilisée)
+     * @param seed La graine de l'exécution
+     */
+    public SimulationController(MainUI mainUI, long seed) {
+        this.random = SimulationSeed.random(seed, SimulationSeed.VEHICLE_GENERATOR_STREAM);
     }
 
     /**
      * Crée et initialise les feux de circulation avec leur représentation graphique.
-     * @param running Un AtomicBoolean pour contrôler l'exécution des feux.
-     * @param semaphore Un Semaphore pour gérer la synchronisation des feux.
      * @param panel Le panneau graphique des feux de circulation.
      * @return Un tableau de feux de circulation initialisés.
      */
-    public TrafficLight[] createTrafficLights(AtomicBoolean running, Semaphore semaphore, TrafficLightsPanel panel) {
+    public TrafficLight[] createTrafficLights(TrafficLightsPanel panel) {
         TrafficLight[] lights = new TrafficLight[4];
-        lights[0] = new TrafficLight(running, semaphore, panel, "North-South");
-        lights[1] = new TrafficLight(running, semaphore, panel, "South-North");
-        lights[2] = new TrafficLight(running, semaphore, panel, "East-West");
-        lights[3] = new TrafficLight(running, semaphore, panel, "West-East");
+        lights[0] = new TrafficLight(panel, "North-South");
+        lights[1] = new TrafficLight(panel, "South-North");
+        lights[2] = new TrafficLight(panel, "East-West");
+        lights[3] = new TrafficLight(panel, "West-East");
         
         return lights;
     }
@@ -42,11 +53,12 @@ public class SimulationController {
      * @return Le thread du générateur de véhicules.
      */
     public Thread startVehicleGenerator(AtomicBoolean running, Intersection intersection, VehicleManager vehicleManager, LogPanel logPanel) {
+        vehicleManager.setRemovalListener(vehiclesInDirection::decrementAndGet);
         Thread generator = new Thread(() -> {
             while (running.get()) {
                 try {
                     // Attente aléatoire entre la création de véhicules
-                    Thread.sleep(random.nextInt(1500) + 500);
+                    Thread.sleep(random.nextInt(GENERATION_DELAY_RANGE) + MIN_GENERATION_DELAY);
 
                     if (running.get()) {
                         // Sélection aléatoire d'une direction avec contrôle du nombre de véhicules
@@ -54,22 +66,11 @@ public class SimulationController {
                         String direction = DIRECTIONS[dirIndex];
                         
                         // Vérifier si nous n'avons pas trop de véhicules dans cette direction
-                        if (vehiclesInDirection[dirIndex] < maxVehiclesPerDirection) {
-                            vehiclesInDirection[dirIndex]++;
+                        if (vehiclesInDirection.get(dirIndex) < maxVehiclesPerDirection) {
+                            vehiclesInDirection.incrementAndGet(dirIndex);
                             int id = ++vehicleCounter;
 
-                            Platform.runLater(() -> {
-                                Rectangle vehicle = vehicleManager.createVehicle(id, direction);
-                                vehicleManager.queueVehicle(vehicle, direction);
-                                vehicleManager.moveVehicle(vehicle, direction);
-                                logPanel.addLog("Nouveau véhicule créé (ID: " + id + ", Direction: " + direction + ")");
-                                
-                                // Réduire le compteur quand le véhicule est retiré
-                                vehicle.setOnMouseClicked(e -> {
-                                    vehicleManager.removeVehicle(vehicle);
-                                    vehiclesInDirection[dirIndex]--;
-                                });
-                            });
+                            UiEventRing.shared().publish(this, UiEventRing.SPAWN, id, dirIndex, vehicleManager, logPanel);
                         }
                     }
                 } catch (InterruptedException e) {
@@ -83,12 +84,31 @@ public class SimulationController {
         return generator;
     }
     
+    /**
+     * Crée sur le thread JavaFX un véhicule publié par le générateur.
+     */
+    @Override
+    public void onEvent(UiEventRing.Event event) {
+        VehicleManager vehicleManager = (VehicleManager) event.getSubject();
+        LogPanel logPanel = (LogPanel) event.getDetail();
+        int id = event.getId();
+        int dirIndex = event.getDirection();
+        String direction = DIRECTIONS[dirIndex];
+        Rectangle vehicle = vehicleManager.createVehicle(id, direction);
+        vehicleManager.queueVehicle(vehicle, direction);
+        vehicleManager.moveVehicle(vehicle, direction);
+        logPanel.addLog("Nouveau véhicule créé (ID: " + id + ", Direction: " + direction + ")");
+        
+        // Le compteur de la direction est réduit par le gestionnaire quand le véhicule est retiré
+        vehicle.setOnMouseClicked(e -> vehicleManager.removeVehicle(vehicle));
+    }
+    
     /**
      * Réinitialise les compteurs de véhicules.
      */
     public void resetVehicleCounts() {
-        for (int i = 0; i < vehiclesInDirection.length; i++) {
-            vehiclesInDirection[i] = 0;
+        for (int i = 0; i < vehiclesInDirection.length(); i++) {
+            vehiclesInDirection.set(i, 0);
         }
     }
 }
@@ -0,0 +1,55 @@
+/**
+ * Événement horodaté de la simulation à événements discrets.
+ * Les événements sont ordonnés par date puis par ordre de planification,
+ * ce qui rend l'exécution déterministe lorsque deux événements ont la même date.
+ */
+public class SimulationEvent implements Comparable<SimulationEvent> {
+    // Types d'événements
+    public static final int ARRIVAL = 1; // Arrivée d'un ou plusieurs véhicules (génération)
+    public static final int ADMISSION = 2; // Tentative d'admission d'un véhicule dans l'intersection
+    public static final int DEPARTURE = 3; // Sortie d'un véhicule après sa traversée
+    public static final int CONTROLLER_TICK = 4; // Décision du contrôleur des feux (voir SignalController)
+
+    long time; // Date simulée en millisecondes
+    long sequence; // Ordre de planification, pour départager les dates égales
+    int type;
+    int direction; // Direction du véhicule concerné, -1 si aucune
+    int vehicleId;
+    long arrivalTime; // Date d'arrivée du véhicule concerné
+    long admissionTime; // Date d'entrée du véhicule dans l'intersection
+    int intersection; // Indice de l'intersection concernée, dans un réseau (voir RoadNetwork)
+
+    SimulationEvent(int type, int direction, int vehicleId) {
+        this.type = type;
+        this.direction = direction;
+        this.vehicleId = vehicleId;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    public int getIntersection() {
+        return intersection;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        if (time != other.time) {
+            return Long.compare(time, other.time);
+        }
+        return Long.compare(sequence, other.sequence);
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.Random;
+
+/**
+ * Générateur aléatoire dont l'état peut être lu et rétabli, pour les points de contrôle
+ * de la simulation. Reprend exactement l'algorithme de java.util.Random (congruentiel sur 48 bits) :
+ * une même graine donne la même suite qu'un Random, ce qui préserve les exécutions existantes.
+ * Comme Random, une instance ne doit pas être partagée entre threads sans synchronisation externe.
+ */
+public class SimulationRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state; // Initialisé par setSeed, appelé par le constructeur de Random
+
+    public SimulationRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+        super.setSeed(seed);
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * Retourne l'état interne du générateur.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Rétablit un état lu par getState : le générateur reprend la suite à partir de ce point.
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
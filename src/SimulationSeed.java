@@ -0,0 +1,46 @@
+import java.util.Random;
+
+/**
+ * Dérivation des générateurs aléatoires d'une exécution à partir d'une graine unique.
+ * Chaque source d'aléa (générateur de véhicules, partition du réseau...) reçoit son propre flux,
+ * identifié par un numéro : deux exécutions avec la même graine tirent les mêmes valeurs,
+ * quel que soit l'ordre dans lequel les sources sont créées ou consultées.
+ */
+public final class SimulationSeed {
+    // Flux des sources d'aléa de l'interface
+    static final int VEHICLE_GENERATOR_STREAM = 1; // SimulationController et SmartVehicleGenerator
+    static final int UNSYNCHRONIZED_STREAM = 2; // Générateur de la simulation sans synchronisation
+
+    private SimulationSeed() {
+    }
+
+    /**
+     * Retourne une nouvelle graine aléatoire, pour une exécution sans graine imposée.
+     */
+    public static long newSeed() {
+        return derive(System.nanoTime(), 0);
+    }
+
+    /**
+     * Dérive la graine d'un flux. Le mélange (finaliseur de SplitMix64) décorrèle les flux
+     * de graines voisines, contrairement à une simple combinaison linéaire.
+     * @param seed La graine de l'exécution
+     * @param stream Le numéro du flux
+     * @return La graine du flux
+     */
+    public static long derive(long seed, int stream) {
+        long z = seed + (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Crée le générateur aléatoire d'un flux.
+     * @param seed La graine de l'exécution
+     * @param stream Le numéro du flux
+     */
+    public static Random random(long seed, int stream) {
+        return new Random(derive(seed, stream));
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Contrôleur intelligent, comme les feux SmartTrafficLight d'origine : un axe ne passe au vert
+ * que s'il a des véhicules en attente, et y reste tant que des véhicules attendent ou traversent,
+ * dans la limite de MAX_PASSING_CHECKS vérifications. Après le rouge, l'autre axe est servi
+ * en priorité ; le même axe ne repasse au vert qu'après CHECK_INTERVAL.
+ */
+public class SmartSignalController implements SignalController {
+    static final int CHECK_INTERVAL = 1000; // Délai avant qu'un axe repasse au vert après son rouge
+    static final int PASSING_CHECK_INTERVAL = 100; // Intervalle de vérification pendant le vert
+    static final int MAX_PASSING_CHECKS = 80; // Nombre maximum de vérifications (8 secondes de vert)
+    static final int SMART_YELLOW_DURATION = 2000; // Durée du feu jaune en millisecondes
+
+    // Dernier axe servi : au démarrage, l'axe Est-Ouest est vérifié en premier
+    private int lastGreenAxis = Directions.AXIS_NORTH_SOUTH;
+    private int passingChecks; // Vérifications effectuées depuis le passage au vert
+
+    @Override
+    public void decide(DemandSnapshot demand, PhaseDecision decision) {
+        int phase = demand.getPhase();
+        int axis = SignalPhase.axisOf(phase);
+
+        if (SignalPhase.isGreen(phase)) {
+            // Rester au vert tant que des véhicules attendent ou traversent sur l'axe
+            passingChecks++;
+            boolean vehiclesStillPassing = demand.getAxisWaiting(axis) > 0 || demand.getAxisPassing(axis) > 0;
+            if (vehiclesStillPassing && passingChecks < MAX_PASSING_CHECKS) {
+                decision.set(phase, PASSING_CHECK_INTERVAL);
+            } else {
+                decision.set(SignalPhase.yellowOf(axis), SMART_YELLOW_DURATION);
+            }
+            return;
+        }
+
+        if (SignalPhase.isYellow(phase)) {
+            lastGreenAxis = axis;
+            decision.set(SignalPhase.ALL_RED, PASSING_CHECK_INTERVAL);
+            return;
+        }
+
+        // Tous au rouge : servir l'autre axe s'il a de la demande, sinon le même après CHECK_INTERVAL
+        int otherAxis = 1 - lastGreenAxis;
+        if (demand.getAxisWaiting(otherAxis) > 0) {
+            turnGreen(otherAxis, decision);
+        } else if (demand.getAxisWaiting(lastGreenAxis) > 0) {
+            long remaining = CHECK_INTERVAL - demand.getPhaseElapsed();
+            if (remaining > 0) {
+                decision.set(SignalPhase.ALL_RED, remaining);
+            } else {
+                turnGreen(lastGreenAxis, decision);
+            }
+        } else {
+            // Aucune demande : au repos jusqu'à l'arrivée d'un véhicule
+            decision.set(SignalPhase.ALL_RED, PhaseDecision.UNTIL_DEMAND);
+        }
+    }
+
+    private void turnGreen(int axis, PhaseDecision decision) {
+        passingChecks = 0;
+        decision.set(SignalPhase.greenOf(axis), PASSING_CHECK_INTERVAL);
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeByte(lastGreenAxis);
+        out.writeInt(passingChecks);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        lastGreenAxis = in.readByte();
+        passingChecks = in.readInt();
+    }
+}
@@ -1,4 +1,3 @@
-import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
@@ -7,9 +6,13 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
 /**
  * Panneau d'affichage des statistiques pour les feux intelligents.
  * Affiche le nombre de véhicules en attente et en passage pour chaque direction.
+ * Les compteurs sont écrits dans un état partagé et appliqués aux labels une fois par image
+ * (voir FrameCoalescer), quel que soit le nombre de véhicules.
  */
 public class SmartTrafficStatsPanel extends VBox {
     private Label titleLabel;
@@ -27,6 +30,15 @@ public class SmartTrafficStatsPanel extends VBox {
     private Label eastWestPassingLabel;
     private Label westEastPassingLabel;
     
+    // Derniers compteurs reçus et compteurs affichés, par indice de direction
+    private final AtomicIntegerArray waitingCounts = new AtomicIntegerArray(Directions.COUNT);
+    private final AtomicIntegerArray passingCounts = new AtomicIntegerArray(Directions.COUNT);
+    private final int[] displayedWaiting = new int[Directions.COUNT];
+    private final int[] displayedPassing = new int[Directions.COUNT];
+    private final Label[] waitingLabels;
+    private final Label[] passingLabels;
+    private final FrameCoalescer updates;
+    
     /**
      * Constructeur du panneau de statistiques.
      */
@@ -97,95 +109,74 @@ public class SmartTrafficStatsPanel extends VBox {
         
         // Ajouter les composants au panneau
         getChildren().addAll(titleLabel, statsGrid);
+        
+        // Labels par indice de direction, pour appliquer les compteurs
+        waitingLabels = new Label[] {northSouthWaitingLabel, southNorthWaitingLabel, eastWestWaitingLabel, westEastWaitingLabel};
+        passingLabels = new Label[] {northSouthPassingLabel, southNorthPassingLabel, eastWestPassingLabel, westEastPassingLabel};
+        updates = new FrameCoalescer(this, this::applyCounts);
     }
     
     /**
      * Met à jour le nombre de véhicules en attente pour une direction donnée.
+     * Peut être appelée par n'importe quel thread : le label est mis à jour à l'image suivante.
      * 
      * @param direction La direction
      * @param count Le nombre de véhicules en attente
      */
     public void updateWaitingCount(String direction, int count) {
-        Platform.runLater(() -> {
-            switch (direction) {
-                case "North-South":
-                    northSouthWaitingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        northSouthWaitingLabel.setTextFill(Color.RED);
-                    } else {
-                        northSouthWaitingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-                case "South-North":
-                    southNorthWaitingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        southNorthWaitingLabel.setTextFill(Color.RED);
-                    } else {
-                        southNorthWaitingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-                case "East-West":
-                    eastWestWaitingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        eastWestWaitingLabel.setTextFill(Color.RED);
-                    } else {
-                        eastWestWaitingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-                case "West-East":
-                    westEastWaitingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        westEastWaitingLabel.setTextFill(Color.RED);
-                    } else {
-                        westEastWaitingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-            }
-        });
+        int index = Directions.indexOf(direction);
+        if (index >= 0) {
+            waitingCounts.set(index, count);
+            updates.markDirty();
+        }
     }
     
     /**
      * Met à jour le nombre de véhicules en passage pour une direction donnée.
+     * Peut être appelée par n'importe quel thread : le label est mis à jour à l'image suivante.
      * 
      * @param direction La direction
      * @param count Le nombre de véhicules en passage
      */
     public void updatePassingCount(String direction, int count) {
-        Platform.runLater(() -> {
-            switch (direction) {
-                case "North-South":
-                    northSouthPassingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        northSouthPassingLabel.setTextFill(Color.GREEN);
-                    } else {
-                        northSouthPassingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-                case "South-North":
-                    southNorthPassingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        southNorthPassingLabel.setTextFill(Color.GREEN);
-                    } else {
-                        southNorthPassingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-                case "East-West":
-                    eastWestPassingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        eastWestPassingLabel.setTextFill(Color.GREEN);
-                    } else {
-                        eastWestPassingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-                case "West-East":
-                    westEastPassingLabel.setText(String.valueOf(count));
-                    if (count > 0) {
-                        westEastPassingLabel.setTextFill(Color.GREEN);
-                    } else {
-                        westEastPassingLabel.setTextFill(Color.BLACK);
-                    }
-                    break;
-            }
-        });
+        int index = Directions.indexOf(direction);
+        if (index >= 0) {
+            passingCounts.set(index, count);
+            updates.markDirty();
+        }
+    }
+    
+    /**
+     * Applique les derniers compteurs aux labels qui ont changé, une fois par image.
+     */
+    private void applyCounts() {
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            refresh(waitingLabels[direction], waitingCounts.get(direction), displayedWaiting, direction, Color.RED);
+            refresh(passingLabels[direction], passingCounts.get(direction), displayedPassing, direction, Color.GREEN);
+        }
+    }
+    
+    private static void refresh(Label label, int count, int[] displayed, int direction, Color activeColor) {
+        if (displayed[direction] == count) {
+            return;
+        }
+        displayed[direction] = count;
+        label.setText(String.valueOf(count));
+        label.setTextFill(count > 0 ? activeColor : Color.BLACK);
+    }
+    
+    /**
+     * Arrête la mise à jour des labels quand le panneau n'est plus affiché.
+     * Doit être appelée sur le thread JavaFX.
+     */
+    public void stop() {
+        updates.stop();
+    }
+    
+    /**
+     * Retourne le nombre d'applications des compteurs aux labels. Lecture sur le thread JavaFX.
+     */
+    long getApplyCount() {
+        return updates.getApplyCount();
     }
 }
@@ -1,4 +1,3 @@
-import javafx.application.Platform;
 import javafx.scene.shape.Rectangle;
 import java.util.Random;
 
@@ -6,12 +5,19 @@ import java.util.Random;
  * Classe qui génère des véhicules pour la simulation avec synchronisation intelligente.
  * Les véhicules sont générés en fonction de la présence de feux de circulation et de leur état.
  */
-public class SmartVehicleGenerator extends Thread {
+public class SmartVehicleGenerator extends Thread implements UiEventRing.Handler {
+    private static final AsyncLogger LOG = AsyncLogger.getLogger("SmartVehicleGenerator");
+    static final double BASE_PROBABILITY = 0.3; // Probabilité de base de génération par direction
+    static final double RED_LIGHT_FACTOR = 1.5; // Facteur appliqué à la probabilité quand le feu est rouge
+    static final int MIN_GENERATION_DELAY = 1000; // Délai minimum entre deux vagues en millisecondes
+    static final int GENERATION_DELAY_RANGE = 2000; // Plage aléatoire ajoutée au délai minimum
+
     private VehicleManager vehicleManager;
     private Intersection intersection;
     private SmartTrafficLight[] smartLights;
     private Random random;
     private LogPanel logPanel;
+    private int vehicleCounter = 0;
     
     /**
      * Constructeur pour le générateur de véhicules intelligent.
@@ -23,10 +29,24 @@ public class SmartVehicleGenerator extends Thread {
      */
     public SmartVehicleGenerator(IntersectionPanel intersectionPanel, VehicleManager vehicleManager, 
                                 Intersection intersection, SmartTrafficLight[] smartLights) {
+        this(intersectionPanel, vehicleManager, intersection, smartLights, SimulationSeed.newSeed());
+    }
+    
+    /**
+     * Constructeur avec la graine de l'exécution, pour reproduire la suite des véhicules générés.
+     * 
+     * @param intersectionPanel Le panneau d'intersection
+     * @param vehicleManager Le gestionnaire de véhicules
+     * @param intersection L'intersection avec les feux
+     * @param smartLights Les feux de circulation intelligents
+     * @param seed La graine de l'exécution
+     */
+    public SmartVehicleGenerator(IntersectionPanel intersectionPanel, VehicleManager vehicleManager, 
+                                Intersection intersection, SmartTrafficLight[] smartLights, long seed) {
         this.vehicleManager = vehicleManager;
         this.intersection = intersection;
         this.smartLights = smartLights;
-        this.random = new Random();
+        this.random = SimulationSeed.random(seed, SimulationSeed.VEHICLE_GENERATOR_STREAM);
         this.logPanel = vehicleManager.getLogPanel();
     }
     
@@ -54,30 +74,39 @@ public class SmartVehicleGenerator extends Thread {
                     // Probabilité variable de génération de véhicules
                     if (random.nextDouble() < getGenerationProbability(direction)) {
                         // Créer un véhicule avec un ID unique
-                        int id = (int)(Math.random() * 10000);
-                        Rectangle vehicle = vehicleManager.createVehicle(id, direction);
+                        int id = ++vehicleCounter;
                         
                         // Déterminer quel feu intelligent est associé à cette direction
                         SmartTrafficLight trafficLight = getTrafficLightForDirection(direction);
                         
-                        // Ajouter le véhicule à l'intersection avec le feu intelligent
-                        Platform.runLater(() -> {
-                            UIVehicle uiVehicle = new UIVehicle(vehicle, direction, intersection, vehicleManager, trafficLight);
-                            vehicleManager.queueVehicle(vehicle, direction);
-                            uiVehicle.move();
-                            if (logPanel != null) {
-                                logPanel.addLog("Nouveau véhicule créé (ID: " + id + ", Direction: " + direction + ")");
-                            }
-                        });
+                        // Créer et ajouter le véhicule à l'intersection avec le feu intelligent, sur le thread JavaFX
+                        UiEventRing.shared().publish(this, UiEventRing.SPAWN, id, Directions.indexOf(direction),
+                                null, trafficLight);
                     }
                 }
                 
                 // Attendre un délai aléatoire entre 1 et 3 secondes avant de générer le prochain véhicule
-                Thread.sleep(random.nextInt(2000) + 1000);
+                Thread.sleep(random.nextInt(GENERATION_DELAY_RANGE) + MIN_GENERATION_DELAY);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.out.println("Générateur de véhicules intelligent interrompu");
+            LOG.info("Générateur de véhicules intelligent interrompu");
+        }
+    }
+    
+    /**
+     * Ajoute à l'intersection, sur le thread JavaFX, un véhicule publié par le générateur.
+     */
+    @Override
+    public void onEvent(UiEventRing.Event event) {
+        SmartTrafficLight trafficLight = (SmartTrafficLight) event.getDetail();
+        String direction = Directions.nameOf(event.getDirection());
+        Rectangle vehicle = vehicleManager.createVehicle(event.getId(), direction);
+        UIVehicle uiVehicle = vehicleManager.obtainUIVehicle(vehicle, direction, intersection, trafficLight);
+        vehicleManager.queueVehicle(vehicle, direction);
+        uiVehicle.move();
+        if (logPanel != null) {
+            logPanel.addLog("Nouveau véhicule créé (ID: " + event.getId() + ", Direction: " + direction + ")");
         }
     }
     
@@ -90,12 +119,12 @@ public class SmartVehicleGenerator extends Thread {
      */
     private double getGenerationProbability(String direction) {
         // Probabilité de base
-        double baseProbability = 0.3;
+        double baseProbability = BASE_PROBABILITY;
         
         // Augmenter la probabilité si le feu est rouge (pour créer une file d'attente)
         SmartTrafficLight light = getTrafficLightForDirection(direction);
-        if (light != null && light.getState().equals("RED")) {
-            return baseProbability * 1.5; // 50% de plus de véhicules quand le feu est rouge
+        if (light != null && light.getStateCode() == TrafficLight.RED) {
+            return baseProbability * RED_LIGHT_FACTOR; // 50% de plus de véhicules quand le feu est rouge
         }
         
         return baseProbability;
@@ -0,0 +1,303 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Roue temporelle hachée partagée par tous les feux de circulation.
+ * Un seul thread fait avancer la roue d'une case à chaque tic ; la planification
+ * et l'annulation d'un minuteur se font en O(1). Les échéances sont absolues,
+ * ce qui permet aux feux d'enchaîner leurs cycles sans dérive.
+ *
+ * Le thread ne se réveille pas à chaque tic : il dort jusqu'au tic de la prochaine case occupée,
+ * et sans limite de temps lorsque la roue est vide, jusqu'à ce que schedule le réveille.
+ * Des feux au repos ne consomment donc pas de temps processeur.
+ */
+public class TimerWheel {
+    private static final TimerWheel SHARED = new TimerWheel(10, 512);
+    private static final AsyncLogger LOG = AsyncLogger.getLogger("TimerWheel");
+
+    private final long tickMillis;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos;
+    private final ConcurrentLinkedQueue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean started;
+    private final AtomicBoolean sleeping = new AtomicBoolean(); // Thread de la roue endormi, à réveiller par schedule
+    private long tick; // Nombre de tics traités, modifié uniquement par le thread de la roue
+
+    /**
+     * Constructeur de la roue temporelle.
+     * @param tickMillis La durée d'un tic en millisecondes (résolution des minuteurs)
+     * @param wheelSize Le nombre de cases de la roue, arrondi à une puissance de deux
+     */
+    public TimerWheel(long tickMillis, int wheelSize) {
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, "timer-wheel");
+        this.worker.setDaemon(true); // Pour que le thread se termine quand l'application se ferme
+    }
+
+    /**
+     * Retourne la roue partagée par tous les feux de l'application.
+     */
+    public static TimerWheel shared() {
+        return SHARED;
+    }
+
+    /**
+     * Retourne le thread de la roue. Visible dans le paquetage pour les tests.
+     */
+    Thread getWorker() {
+        return worker;
+    }
+
+    /**
+     * Retourne le temps écoulé depuis la création de la roue, en millisecondes.
+     * C'est la base de temps des échéances passées à schedule.
+     */
+    public long currentTime() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Planifie une tâche à une échéance absolue.
+     * La tâche est exécutée par le thread de la roue et doit donc être courte.
+     * @param task La tâche à exécuter
+     * @param deadline L'échéance, dans la base de temps de currentTime()
+     * @return Le minuteur, qui peut être annulé
+     */
+    public Timeout schedule(Runnable task, long deadline) {
+        ensureStarted();
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingTimeouts.add(timeout);
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(worker);
+        }
+        return timeout;
+    }
+
+    /**
+     * Planifie une tâche après un délai.
+     * @param task La tâche à exécuter
+     * @param delayMillis Le délai en millisecondes
+     * @return Le minuteur, qui peut être annulé
+     */
+    public Timeout scheduleAfter(Runnable task, long delayMillis) {
+        return schedule(task, currentTime() + delayMillis);
+    }
+
+    private void ensureStarted() {
+        if (!started) {
+            synchronized (this) {
+                if (!started) {
+                    worker.start();
+                    started = true;
+                }
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            // Échéance absolue du tic suivant : le retard d'un tic ne se cumule pas
+            long tickDeadline = (tick + 1) * tickMillis;
+            if (tickDeadline > currentTime()) {
+                // En avance sur le temps : ranger les nouveaux minuteurs, puis dormir jusqu'au tic
+                // de la prochaine case occupée (les cases vides sautées n'ont rien à traiter)
+                removeCancelledTimeouts();
+                transferPendingTimeouts();
+                long nextTick = nextOccupiedTick();
+                if (nextTick < 0) {
+                    sleep(Long.MAX_VALUE);
+                    // Roue vide : les tics écoulés pendant le sommeil n'ont rien à traiter
+                    tick = Math.max(tick, currentTime() / tickMillis);
+                } else {
+                    sleep((nextTick + 1) * tickMillis);
+                }
+                continue;
+            }
+
+            removeCancelledTimeouts();
+            transferPendingTimeouts();
+            wheel[(int) (tick & mask)].expire(tickDeadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Endort le thread de la roue jusqu'à une date, ou jusqu'au prochain appel à schedule.
+     * @param wakeTime La date du réveil dans la base de temps de currentTime(), ou Long.MAX_VALUE
+     */
+    private void sleep(long wakeTime) {
+        sleeping.set(true);
+        // Un minuteur ajouté avant que le drapeau soit visible n'aurait pas réveillé le thread
+        if (pendingTimeouts.isEmpty()) {
+            if (wakeTime == Long.MAX_VALUE) {
+                LockSupport.park(this);
+            } else {
+                long sleepMillis = wakeTime - currentTime();
+                if (sleepMillis > 0) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(sleepMillis));
+                }
+            }
+        }
+        sleeping.set(false);
+    }
+
+    /**
+     * Retourne le premier tic, à partir du tic courant et sur un tour de roue, dont la case
+     * contient un minuteur, ou -1 si la roue est vide.
+     */
+    private long nextOccupiedTick() {
+        for (long t = tick; t < tick + wheel.length; t++) {
+            if (wheel[(int) (t & mask)].head != null) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.state == Timeout.CANCELLED) {
+                continue;
+            }
+            // Un minuteur déjà échu est placé dans la case courante
+            long targetTick = Math.max(timeout.deadline / tickMillis, tick);
+            timeout.remainingRounds = (targetTick - tick) / wheel.length;
+            wheel[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Minuteur planifié sur la roue.
+     */
+    public static final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final TimerWheel timerWheel;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = WAITING;
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimerWheel timerWheel, Runnable task, long deadline) {
+            this.timerWheel = timerWheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Annule le minuteur s'il n'a pas encore expiré.
+         * Le minuteur est retiré de sa case au tic suivant, en O(1).
+         */
+        public void cancel() {
+            synchronized (this) {
+                if (state != WAITING) {
+                    return;
+                }
+                state = CANCELLED;
+            }
+            timerWheel.cancelledTimeouts.add(this);
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * Retourne l'échéance du minuteur.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        private void expire() {
+            synchronized (this) {
+                if (state != WAITING) {
+                    return;
+                }
+                state = EXPIRED;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Une tâche en erreur ne doit pas arrêter la roue
+                LOG.error("Tâche en erreur", "exception", e);
+            }
+        }
+    }
+
+    /**
+     * Case de la roue : liste doublement chaînée de minuteurs.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long tickDeadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline < tickDeadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecteur séquentiel d'une trace écrite par TraceRecorder.
+ * Le lecteur est un curseur : next passe à l'enregistrement suivant et les accesseurs
+ * en retournent les champs, sans allocation par enregistrement.
+ */
+public class TraceReader implements Closeable {
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long startEpochMillis;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private boolean finished;
+
+    // Champs de l'enregistrement courant
+    private int type;
+    private int direction;
+    private int state;
+    private long time; // Microsecondes depuis le début de la trace
+    private int vehicleId;
+    private long x;
+    private long y;
+
+    /**
+     * Ouvre une trace.
+     * @param file Le fichier de trace
+     * @throws IOException Si le fichier ne peut pas être lu ou n'est pas une trace
+     */
+    public TraceReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        if (fileSize < TraceRecorder.HEADER_SIZE) {
+            channel.close();
+            throw new IOException("Fichier de trace trop court : " + file);
+        }
+        mapRegion(0);
+        if (region.getInt() != TraceRecorder.MAGIC || region.getShort() != TraceRecorder.VERSION) {
+            channel.close();
+            throw new IOException("Format de trace inconnu : " + file);
+        }
+        region.getShort();
+        this.startEpochMillis = region.getLong();
+    }
+
+    /**
+     * Passe à l'enregistrement suivant.
+     * @return false à la fin de la trace
+     */
+    public boolean next() {
+        if (finished) {
+            return false;
+        }
+        if (region.remaining() < TraceRecorder.MAX_RECORD_SIZE && regionStart + region.limit() < fileSize) {
+            try {
+                mapRegion(regionStart + region.position());
+            } catch (IOException e) {
+                finished = true;
+                return false;
+            }
+        }
+        if (!region.hasRemaining()) {
+            finished = true;
+            return false;
+        }
+        int head = region.get() & 0xFF;
+        if (head == 0) {
+            finished = true;
+            return false;
+        }
+        type = head >>> 4;
+        direction = (head >>> 2) & 3;
+        state = head & 3;
+        time += getVarint();
+
+        switch (type) {
+            case TraceRecorder.ARRIVAL:
+            case TraceRecorder.ADMISSION:
+            case TraceRecorder.DEPARTURE:
+                vehicleId = (int) getVarint();
+                break;
+            case TraceRecorder.COLLISION:
+                x = unzigzag(getVarint());
+                y = unzigzag(getVarint());
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    private long getVarint() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = region.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void mapRegion(long position) throws IOException {
+        long size = Math.min(TraceRecorder.REGION_SIZE, fileSize - position);
+        region = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        region.order(ByteOrder.BIG_ENDIAN);
+        regionStart = position;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    /**
+     * Retourne le nouvel état du feu (PHASE_CHANGE) ou la direction de l'autre véhicule (COLLISION).
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Retourne la date de l'enregistrement courant, en microsecondes depuis le début de la trace.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    public long getX() {
+        return x;
+    }
+
+    public long getY() {
+        return y;
+    }
+
+    /**
+     * Retourne la date de début de la trace, en millisecondes depuis l'époque.
+     */
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Enregistreur d'événements de simulation dans un fichier binaire projeté en mémoire,
+ * en ajout seul, relu par TraceReader et rejoué par TraceReplayer.
+ *
+ * Format : un en-tête de HEADER_SIZE octets (MAGIC, VERSION, date de début en millisecondes
+ * depuis l'époque), puis une suite d'enregistrements :
+ * - un octet d'en-tête : type sur 4 bits, direction sur 2 bits, état sur 2 bits ;
+ * - l'écart en microsecondes avec l'enregistrement précédent, en varint ;
+ * - ARRIVAL, ADMISSION, DEPARTURE : l'identifiant du véhicule dans la trace, en varint ;
+ * - PHASE_CHANGE : rien (direction du feu et nouvel état dans l'octet d'en-tête) ;
+ * - COLLISION : les coordonnées du choc en varints zigzag (direction de l'autre véhicule dans l'état).
+ * Un octet nul marque la fin des données.
+ *
+ * Les dates viennent de l'horloge réelle, ou d'une horloge simulée fournie par l'appelant
+ * (DiscreteEventSimulation) : la trace d'une exécution avec une graine donnée est alors
+ * identique octet pour octet d'une exécution à l'autre.
+ *
+ * L'écriture n'alloue rien, sauf une nouvelle projection tous les REGION_SIZE octets.
+ * Les méthodes sont synchronisées : les événements viennent des threads des véhicules,
+ * du thread JavaFX et de la roue temporelle, et les écarts de temps supposent un ordre unique.
+ */
+public class TraceRecorder implements Closeable {
+    static final int MAGIC = 0x54524331; // "TRC1"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int REGION_SIZE = 8 << 20; // Taille de chaque projection du fichier
+    static final int MAX_RECORD_SIZE = 32; // Taille maximale d'un enregistrement
+
+    // Types d'enregistrements
+    public static final int ARRIVAL = 1; // Arrivée d'un véhicule dans la file de sa direction
+    public static final int ADMISSION = 2; // Entrée d'un véhicule dans l'intersection
+    public static final int DEPARTURE = 3; // Sortie d'un véhicule de la simulation
+    public static final int PHASE_CHANGE = 4; // Changement d'état d'un feu
+    public static final int COLLISION = 5; // Collision entre deux véhicules
+    private static final AsyncLogger LOG = AsyncLogger.getLogger("TraceRecorder");
+
+    private final FileChannel channel;
+    private final LongSupplier clock; // Date courante en microsecondes depuis le début de la trace
+    private MappedByteBuffer region;
+    private long regionStart; // Position de la projection courante dans le fichier
+    private long lastMicros;
+    private int vehicleCounter;
+    private long recordCount;
+    private boolean closed;
+
+    /**
+     * Crée le fichier de trace, en remplaçant un fichier existant.
+     * @param file Le fichier de trace
+     * @throws IOException Si le fichier ne peut pas être créé
+     */
+    public TraceRecorder(Path file) throws IOException {
+        this(file, realTimeClock(), System.currentTimeMillis());
+    }
+
+    /**
+     * Crée le fichier de trace avec une horloge fournie, en remplaçant un fichier existant.
+     * @param file Le fichier de trace
+     * @param clock L'horloge, en microsecondes depuis le début de la trace, jamais décroissante
+     * @param startEpochMillis La date de début inscrite dans l'en-tête (0 pour un temps simulé)
+     * @throws IOException Si le fichier ne peut pas être créé
+     */
+    public TraceRecorder(Path file, LongSupplier clock, long startEpochMillis) throws IOException {
+        this.clock = clock;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapRegion(0);
+        region.putInt(MAGIC);
+        region.putShort(VERSION);
+        region.putShort((short) 0);
+        region.putLong(startEpochMillis);
+    }
+
+    private static LongSupplier realTimeClock() {
+        long startNanos = System.nanoTime();
+        return () -> TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Enregistre l'arrivée d'un véhicule et lui attribue un identifiant unique dans la trace.
+     * @param direction L'indice de la direction du véhicule
+     * @return L'identifiant du véhicule, à passer aux enregistrements suivants le concernant
+     */
+    public synchronized int recordArrival(int direction) {
+        int vehicleId = ++vehicleCounter;
+        if (beginRecord(ARRIVAL, direction, 0)) {
+            putVarint(vehicleId);
+        }
+        return vehicleId;
+    }
+
+    /**
+     * Enregistre l'arrivée d'un véhicule numéroté par l'appelant (simulation à événements discrets).
+     * @param direction L'indice de la direction du véhicule
+     * @param vehicleId L'identifiant du véhicule
+     */
+    public synchronized void recordArrival(int direction, int vehicleId) {
+        if (beginRecord(ARRIVAL, direction, 0)) {
+            putVarint(vehicleId);
+        }
+    }
+
+    /**
+     * Enregistre l'entrée d'un véhicule dans l'intersection.
+     */
+    public synchronized void recordAdmission(int direction, int vehicleId) {
+        if (beginRecord(ADMISSION, direction, 0)) {
+            putVarint(vehicleId);
+        }
+    }
+
+    /**
+     * Enregistre la sortie d'un véhicule de la simulation.
+     */
+    public synchronized void recordDeparture(int direction, int vehicleId) {
+        if (beginRecord(DEPARTURE, direction, 0)) {
+            putVarint(vehicleId);
+        }
+    }
+
+    /**
+     * Enregistre le changement d'état d'un feu.
+     * @param direction L'indice de la direction du feu
+     * @param state Le nouvel état (TrafficLight.RED, YELLOW ou GREEN)
+     */
+    public synchronized void recordPhaseChange(int direction, int state) {
+        beginRecord(PHASE_CHANGE, direction, state);
+    }
+
+    /**
+     * Enregistre une collision entre deux véhicules.
+     * @param direction L'indice de la direction du premier véhicule
+     * @param otherDirection L'indice de la direction du second véhicule
+     * @param x L'abscisse du choc dans le panneau de l'intersection
+     * @param y L'ordonnée du choc dans le panneau de l'intersection
+     */
+    public synchronized void recordCollision(int direction, int otherDirection, double x, double y) {
+        if (beginRecord(COLLISION, direction, otherDirection)) {
+            putVarint(zigzag(Math.round(x)));
+            putVarint(zigzag(Math.round(y)));
+        }
+    }
+
+    /**
+     * Écrit l'octet d'en-tête et l'écart de temps d'un enregistrement.
+     * @return false si l'enregistreur est fermé
+     */
+    private boolean beginRecord(int type, int direction, int state) {
+        if (closed) {
+            return false;
+        }
+        if (region.remaining() < MAX_RECORD_SIZE) {
+            try {
+                mapRegion(regionStart + region.position());
+            } catch (IOException e) {
+                // Trace incomplète plutôt qu'une simulation interrompue
+                LOG.error("Trace interrompue", "cause", e.getMessage());
+                closed = true;
+                return false;
+            }
+        }
+        // Temps lu sous le verrou : les écarts sont toujours positifs ou nuls
+        long micros = clock.getAsLong();
+        region.put((byte) (type << 4 | direction << 2 | state));
+        putVarint(micros - lastMicros);
+        lastMicros = micros;
+        recordCount++;
+        return true;
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            region.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        region.put((byte) value);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void mapRegion(long position) throws IOException {
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, REGION_SIZE);
+        region.order(ByteOrder.BIG_ENDIAN);
+        regionStart = position;
+    }
+
+    /**
+     * Retourne le nombre d'enregistrements écrits.
+     */
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Retourne la taille des données écrites, en octets.
+     */
+    public synchronized long getSize() {
+        return regionStart + region.position();
+    }
+
+    /**
+     * Termine la trace : marque la fin des données, les écrit sur le disque et
+     * raccourcit le fichier à leur taille lorsque le système le permet.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed && !channel.isOpen()) {
+            return;
+        }
+        closed = true;
+        long size = regionStart + region.position();
+        if (region.hasRemaining()) {
+            region.put((byte) 0);
+        }
+        region.force();
+        try {
+            channel.truncate(size + 1);
+        } catch (IOException e) {
+            // Fichier encore projeté (Windows) : la fin reste marquée par l'octet nul
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,248 @@
+import javafx.animation.AnimationTimer;
+import javafx.animation.TranslateTransition;
+import javafx.scene.shape.Rectangle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejoue une trace enregistrée par TraceRecorder dans un panneau d'intersection, à une vitesse
+ * réglable pendant le rejeu : les véhicules sont créés, mis en file, animés et retirés comme
+ * dans la simulation, les feux changent d'état et les collisions explosent aux dates de la trace.
+ * Les véhicules sont des Rectangle animés par des TranslateTransition, ou sont dessinés par lots
+ * sur un CanvasVehicleRenderer pour les traces qui montrent des milliers de véhicules à la fois.
+ * Toutes les méthodes doivent être appelées sur le thread JavaFX.
+ */
+public class TraceReplayer {
+    private final TraceReader reader;
+    private final VehicleManager vehicleManager; // Crée, place et retire les véhicules du panneau
+    private final TrafficLightsPanel trafficLightsPanel;
+    private final Map<Integer, Rectangle> vehicles = new HashMap<>();
+    private final Map<Integer, TranslateTransition> crossings = new HashMap<>();
+    private final CanvasVehicleRenderer renderer; // null : un Rectangle par véhicule
+    private final Map<Integer, Integer> rendererIds = new HashMap<>(); // Identifiant dans la trace -> dans le rendu
+    private final List<List<Integer>> queues = new ArrayList<>(); // Files par direction, pour le rendu
+    private final AnimationTimer timer;
+    private double speed = 1.0;
+    private long traceTime; // Date atteinte dans la trace, en microsecondes
+    private long lastFrameNanos = -1;
+    private boolean pendingRecord; // Enregistrement lu mais pas encore atteint
+    private boolean finished;
+    private Runnable onFinished;
+
+    /**
+     * Constructeur du rejeu.
+     * @param reader La trace à rejouer
+     * @param intersectionPanel Le panneau d'intersection où rejouer la trace
+     * @param trafficLightsPanel Le panneau des feux, ou null
+     */
+    public TraceReplayer(TraceReader reader, IntersectionPanel intersectionPanel, TrafficLightsPanel trafficLightsPanel) {
+        this(reader, intersectionPanel, trafficLightsPanel, null);
+    }
+
+    /**
+     * Constructeur du rejeu avec un rendu par lots.
+     * @param reader La trace à rejouer
+     * @param intersectionPanel Le panneau d'intersection où rejouer la trace
+     * @param trafficLightsPanel Le panneau des feux, ou null
+     * @param renderer Le rendu des véhicules, ajouté au panneau, ou null pour un Rectangle par véhicule
+     */
+    public TraceReplayer(TraceReader reader, IntersectionPanel intersectionPanel, TrafficLightsPanel trafficLightsPanel,
+                         CanvasVehicleRenderer renderer) {
+        this.reader = reader;
+        this.vehicleManager = new VehicleManager(intersectionPanel);
+        this.trafficLightsPanel = trafficLightsPanel;
+        this.renderer = renderer;
+        if (renderer != null) {
+            intersectionPanel.addVehicle(renderer);
+            for (int direction = 0; direction < Directions.COUNT; direction++) {
+                queues.add(new ArrayList<>());
+            }
+        }
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onFrame(now);
+            }
+        };
+    }
+
+    /**
+     * Démarre ou reprend le rejeu.
+     */
+    public void start() {
+        lastFrameNanos = -1;
+        timer.start();
+        if (renderer != null) {
+            renderer.start();
+        }
+    }
+
+    /**
+     * Arrête le rejeu et ferme la trace.
+     */
+    public void stop() {
+        timer.stop();
+        if (renderer != null) {
+            renderer.stop();
+        }
+        for (TranslateTransition crossing : crossings.values()) {
+            crossing.stop();
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // Trace en lecture seule : rien à perdre
+        }
+    }
+
+    /**
+     * Change la vitesse du rejeu, y compris pour les traversées en cours.
+     * @param speed Le facteur de vitesse (1 pour le temps réel, 0 pour une pause)
+     */
+    public void setSpeed(double speed) {
+        this.speed = speed;
+        if (renderer != null) {
+            renderer.setRate(speed);
+        }
+        for (TranslateTransition crossing : crossings.values()) {
+            crossing.setRate(speed);
+        }
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Définit l'action exécutée à la fin de la trace.
+     */
+    public void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    /**
+     * Retourne la date atteinte dans la trace, en millisecondes.
+     */
+    public long getTraceTimeMillis() {
+        return traceTime / 1000;
+    }
+
+    /**
+     * Avance la trace du temps écoulé depuis l'image précédente multiplié par la vitesse,
+     * et applique tous les enregistrements atteints.
+     */
+    private void onFrame(long now) {
+        if (lastFrameNanos >= 0) {
+            traceTime += (long) ((now - lastFrameNanos) / 1000 * speed);
+        }
+        lastFrameNanos = now;
+
+        while (!finished) {
+            if (!pendingRecord) {
+                if (!reader.next()) {
+                    finished = true;
+                    timer.stop();
+                    if (onFinished != null) {
+                        onFinished.run();
+                    }
+                    return;
+                }
+                pendingRecord = true;
+            }
+            if (reader.getTime() > traceTime) {
+                return;
+            }
+            apply();
+            pendingRecord = false;
+        }
+    }
+
+    private void apply() {
+        if (renderer != null && applyToRenderer()) {
+            return;
+        }
+        String direction = Directions.nameOf(reader.getDirection());
+        int vehicleId = reader.getVehicleId();
+        switch (reader.getType()) {
+            case TraceRecorder.ARRIVAL: {
+                Rectangle vehicle = vehicleManager.createVehicle(vehicleId, direction);
+                vehicleManager.queueVehicle(vehicle, direction);
+                vehicles.put(vehicleId, vehicle);
+                break;
+            }
+            case TraceRecorder.ADMISSION: {
+                Rectangle vehicle = vehicles.get(vehicleId);
+                if (vehicle != null) {
+                    TranslateTransition crossing = UIVehicle.createCrossing(vehicle, direction);
+                    crossing.setRate(speed);
+                    crossings.put(vehicleId, crossing);
+                    vehicle.setOpacity(0.8);
+                    crossing.play();
+                }
+                break;
+            }
+            case TraceRecorder.DEPARTURE: {
+                Rectangle vehicle = vehicles.remove(vehicleId);
+                TranslateTransition crossing = crossings.remove(vehicleId);
+                if (crossing != null) {
+                    crossing.stop();
+                }
+                if (vehicle != null) {
+                    vehicleManager.removeVehicle(vehicle);
+                }
+                break;
+            }
+            case TraceRecorder.PHASE_CHANGE:
+                if (trafficLightsPanel != null) {
+                    trafficLightsPanel.updateTrafficLight(direction, TrafficLight.stateName(reader.getState()));
+                }
+                break;
+            case TraceRecorder.COLLISION:
+                vehicleManager.createExplosionEffect(reader.getX(), reader.getY());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Applique un enregistrement de véhicule au rendu par lots, placé comme VehicleManager.queueVehicle
+     * et animé comme UIVehicle.createCrossing.
+     * @return false si l'enregistrement ne concerne pas les véhicules
+     */
+    private boolean applyToRenderer() {
+        int direction = reader.getDirection();
+        Integer vehicleId = reader.getVehicleId();
+        switch (reader.getType()) {
+            case TraceRecorder.ARRIVAL: {
+                List<Integer> queue = queues.get(direction);
+                queue.add(vehicleId);
+                int position = queue.size() - 1;
+                rendererIds.put(vehicleId, renderer.add(direction,
+                        VehicleManager.queueX(direction, position), VehicleManager.queueY(direction, position)));
+                return true;
+            }
+            case TraceRecorder.ADMISSION: {
+                Integer rendererId = rendererIds.get(vehicleId);
+                if (rendererId != null) {
+                    renderer.startCrossing(rendererId, UIVehicle.CROSSING_DURATION);
+                }
+                return true;
+            }
+            case TraceRecorder.DEPARTURE: {
+                Integer rendererId = rendererIds.remove(vehicleId);
+                if (rendererId != null) {
+                    renderer.remove(rendererId);
+                    queues.get(direction).remove(vehicleId);
+                }
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+}
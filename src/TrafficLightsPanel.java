@@ -1,4 +1,3 @@
-import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
@@ -6,6 +5,13 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Panneau des feux de circulation de l'intersection.
+ * Les états des feux sont écrits dans un état partagé et appliqués aux cercles une fois par image
+ * (voir FrameCoalescer) : un changement de phase ne poste plus une tâche JavaFX par feu.
+ */
 public class TrafficLightsPanel extends HBox {
 
     // Déclaration des cercles représentant les feux de circulation pour chaque direction
@@ -14,16 +20,27 @@ public class TrafficLightsPanel extends HBox {
     private Circle southNorthLight = new Circle(20); // Feu pour Sud-Nord
     private Circle westEastLight = new Circle(20); // Feu pour Ouest-Est
 
+    // Cercles, derniers états reçus et états affichés, par indice de direction
+    private final Circle[] lights = {northSouthLight, southNorthLight, eastWestLight, westEastLight};
+    private final AtomicReferenceArray<String> lightStates = new AtomicReferenceArray<>(Directions.COUNT);
+    private final String[] displayedStates = new String[Directions.COUNT];
+    private final FrameCoalescer updates = new FrameCoalescer(this, this::applyStates);
+
+    // Couleur d'un feu isolé, appliquée sur le thread JavaFX
+    private static final UiEventRing.Handler LIGHT_COLOR =
+            event -> ((Circle) event.getSubject()).setFill((Color) event.getDetail());
+
     // Constructeur de la classe TrafficLightsPanel
     public TrafficLightsPanel() {
         super(30); // Espace de 30 pixels entre les éléments de l'HBox
         setAlignment(Pos.CENTER); // Alignement des éléments au centre
 
         // Initialisation des couleurs des feux à "RED"
-        updateLightColor(northSouthLight, "RED");
-        updateLightColor(eastWestLight, "RED");
-        updateLightColor(southNorthLight, "RED");
-        updateLightColor(westEastLight, "RED");
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            lightStates.set(direction, "RED");
+            displayedStates[direction] = "RED";
+            lights[direction].setFill(colorOf("RED"));
+        }
 
         // Création des VBox pour chaque direction avec un label et le cercle du feu
         VBox nsLight = new VBox(5, new Label("Nord-Sud"), northSouthLight);
@@ -41,55 +58,62 @@ public class TrafficLightsPanel extends HBox {
         getChildren().addAll(nsLight, ewLight, snLight, weLight);
     }
 
-    // Méthode statique pour mettre à jour la couleur du feu (RED, YELLOW, GREEN)
+    // Méthode statique pour mettre à jour la couleur d'un feu isolé, hors du panneau (RED, YELLOW, GREEN)
     public static void updateLightColor(Circle light, String state) {
-        Platform.runLater(() -> {
-            Color color;
-            switch (state) {
-                case "RED":
-                    color = Color.RED; // Feu rouge
-                    break;
-                case "YELLOW":
-                    color = Color.YELLOW; // Feu jaune
-                    break;
-                case "GREEN":
-                    color = Color.GREEN; // Feu vert
-                    break;
-                default:
-                    color = Color.GRAY;
-            }
-            light.setFill(color);
-        });
+        UiEventRing.shared().publish(LIGHT_COLOR, UiEventRing.PHASE, 0, 0, light, colorOf(state));
     }
 
-    // Méthode pour mettre à jour le feu de circulation en fonction de la direction et de l'état
-    public void updateTrafficLight(String direction, String state) {
-        Circle light = null;
-        switch (direction) {
-            case "North-South":
-                light = northSouthLight;
-                break;
-            case "East-West":
-                light = eastWestLight;
-                break;
-            case "South-North":
-                light = southNorthLight;
-                break;
-            case "West-East":
-                light = westEastLight;
-                break;
+    // Couleur d'un état de feu
+    static Color colorOf(String state) {
+        switch (state) {
+            case "RED":
+                return Color.RED; // Feu rouge
+            case "YELLOW":
+                return Color.YELLOW; // Feu jaune
+            case "GREEN":
+                return Color.GREEN; // Feu vert
+            default:
+                return Color.GRAY;
         }
-        if (light != null) {
-            updateLightColor(light, state);
+    }
+
+    // Méthode pour mettre à jour le feu de circulation en fonction de la direction et de l'état,
+    // depuis n'importe quel thread : la couleur est appliquée à l'image suivante
+    public void updateTrafficLight(String direction, String state) {
+        int index = Directions.indexOf(direction);
+        if (index >= 0) {
+            lightStates.set(index, state);
+            updates.markDirty();
         }
     }
 
     // Méthode pour mettre tous les feux au vert
     public void setAllGreen() {
-        updateLightColor(northSouthLight, "GREEN");
-        updateLightColor(eastWestLight, "GREEN");
-        updateLightColor(southNorthLight, "GREEN");
-        updateLightColor(westEastLight, "GREEN");
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            lightStates.set(direction, "GREEN");
+        }
+        updates.markDirty();
+    }
+
+    // Applique les derniers états aux cercles qui ont changé, une fois par image
+    private void applyStates() {
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            String state = lightStates.get(direction);
+            if (!state.equals(displayedStates[direction])) {
+                displayedStates[direction] = state;
+                lights[direction].setFill(colorOf(state));
+            }
+        }
+    }
+
+    // Arrête la mise à jour des cercles quand le panneau n'est plus affiché, sur le thread JavaFX
+    public void stop() {
+        updates.stop();
+    }
+
+    // Nombre d'applications des états aux cercles, lu sur le thread JavaFX
+    long getApplyCount() {
+        return updates.getApplyCount();
     }
 
     // Méthodes d'accès pour récupérer les cercles représentant les feux de circulation
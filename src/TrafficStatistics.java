@@ -0,0 +1,121 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistiques de trafic d'une intersection, par direction : temps d'attente (de l'arrivée
+ * dans la file à l'entrée dans l'intersection), temps de traversée (de l'entrée à la sortie)
+ * et débit en véhicules par heure. Les durées sont en nanosecondes et enregistrées sans verrou
+ * (voir LatencyHistogram).
+ */
+public class TrafficStatistics {
+    static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final double NANOS_PER_HOUR = TimeUnit.HOURS.toNanos(1);
+
+    private final LatencyHistogram[] waitTimes = new LatencyHistogram[Directions.COUNT];
+    private final LatencyHistogram[] crossingTimes = new LatencyHistogram[Directions.COUNT];
+    private volatile long startNanos = System.nanoTime();
+
+    public TrafficStatistics() {
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waitTimes[direction] = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS);
+            crossingTimes[direction] = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS);
+        }
+    }
+
+    /**
+     * Enregistre le temps d'attente d'un véhicule, de son arrivée dans la file à son entrée dans l'intersection.
+     * @param direction L'indice de la direction du véhicule
+     * @param nanos La durée en nanosecondes
+     */
+    public void recordWait(int direction, long nanos) {
+        waitTimes[direction].record(nanos);
+    }
+
+    /**
+     * Enregistre le temps de traversée d'un véhicule, de son entrée à sa sortie de l'intersection.
+     * Chaque traversée compte un véhicule dans le débit de sa direction.
+     * @param direction L'indice de la direction du véhicule
+     * @param nanos La durée en nanosecondes
+     */
+    public void recordCrossing(int direction, long nanos) {
+        crossingTimes[direction].record(nanos);
+    }
+
+    public LatencyHistogram getWaitTimes(int direction) {
+        return waitTimes[direction];
+    }
+
+    public LatencyHistogram getCrossingTimes(int direction) {
+        return crossingTimes[direction];
+    }
+
+    /**
+     * Ajoute toutes les mesures d'autres statistiques à celles-ci (voir LatencyHistogram.add).
+     * Le début des mesures n'est pas modifié.
+     * @param other Les statistiques à ajouter
+     */
+    public void add(TrafficStatistics other) {
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waitTimes[direction].add(other.waitTimes[direction]);
+            crossingTimes[direction].add(other.crossingTimes[direction]);
+        }
+    }
+
+    /**
+     * Retourne le débit d'une direction en véhicules par heure depuis le début des mesures.
+     * @param direction L'indice de la direction
+     */
+    public double getVehiclesPerHour(int direction) {
+        return getVehiclesPerHour(direction, getElapsedNanos());
+    }
+
+    /**
+     * Retourne le débit d'une direction en véhicules par heure sur une durée donnée,
+     * pour les simulations dont le temps n'est pas le temps réel.
+     * @param direction L'indice de la direction
+     * @param elapsedNanos La durée de la mesure en nanosecondes
+     */
+    public double getVehiclesPerHour(int direction, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : crossingTimes[direction].getTotalCount() * NANOS_PER_HOUR / elapsedNanos;
+    }
+
+    /**
+     * Retourne le temps réel écoulé depuis le début des mesures, en nanosecondes.
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Écrit les histogrammes dans un point de contrôle (voir LatencyHistogram.writeTo).
+     */
+    void writeTo(DataOutput out) throws IOException {
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waitTimes[direction].writeTo(out);
+            crossingTimes[direction].writeTo(out);
+        }
+    }
+
+    /**
+     * Remplace les histogrammes par ceux écrits par writeTo.
+     */
+    void readFrom(DataInput in) throws IOException {
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waitTimes[direction].readFrom(in);
+            crossingTimes[direction].readFrom(in);
+        }
+    }
+
+    /**
+     * Efface toutes les mesures et redémarre le calcul du débit.
+     */
+    public void reset() {
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waitTimes[direction].reset();
+            crossingTimes[direction].reset();
+        }
+        startNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,116 @@
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.util.Duration;
+
+/**
+ * Panneau des statistiques de trafic d'une intersection : percentiles du temps d'attente
+ * et du temps de traversée, et débit en véhicules par heure, pour chaque direction.
+ * Les valeurs sont relues dans les histogrammes de l'intersection une fois par seconde.
+ */
+public class TrafficStatisticsPanel extends VBox {
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(1);
+    private static final String[] DIRECTION_LABELS = {"Nord-Sud", "Sud-Nord", "Est-Ouest", "Ouest-Est"};
+
+    private final TrafficStatistics statistics;
+    private final Label[] waitMedianLabels = new Label[Directions.COUNT];
+    private final Label[] waitP99Labels = new Label[Directions.COUNT];
+    private final Label[] crossingMedianLabels = new Label[Directions.COUNT];
+    private final Label[] throughputLabels = new Label[Directions.COUNT];
+    private final Label backpressureLabel = new Label();
+    private final Timeline refreshTimeline;
+
+    /**
+     * Constructeur du panneau.
+     * @param statistics Les statistiques de trafic affichées
+     */
+    public TrafficStatisticsPanel(TrafficStatistics statistics) {
+        this.statistics = statistics;
+        setPadding(new Insets(10));
+        setSpacing(10);
+        setStyle("-fx-background-color: #f0f0f0; -fx-border-color: #cccccc; -fx-border-width: 1;");
+
+        // Titre
+        Label titleLabel = new Label("Temps d'attente et débit");
+        titleLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+
+        // Grille pour les statistiques
+        GridPane statsGrid = new GridPane();
+        statsGrid.setHgap(10);
+        statsGrid.setVgap(5);
+
+        String[] headers = {"Direction", "Attente p50", "Attente p99", "Traversée p50", "Véh./h"};
+        for (int column = 0; column < headers.length; column++) {
+            Label header = new Label(headers[column]);
+            header.setFont(Font.font("System", FontWeight.BOLD, 12));
+            statsGrid.add(header, column, 0);
+        }
+
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waitMedianLabels[direction] = new Label("-");
+            waitP99Labels[direction] = new Label("-");
+            crossingMedianLabels[direction] = new Label("-");
+            throughputLabels[direction] = new Label("0");
+            statsGrid.addRow(direction + 1, new Label(DIRECTION_LABELS[direction]), waitMedianLabels[direction],
+                    waitP99Labels[direction], crossingMedianLabels[direction], throughputLabels[direction]);
+        }
+
+        getChildren().addAll(titleLabel, statsGrid, backpressureLabel);
+        refreshBackpressure();
+
+        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+        refreshTimeline.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /**
+     * Démarre le rafraîchissement périodique du panneau.
+     */
+    public void start() {
+        refreshTimeline.play();
+    }
+
+    /**
+     * Arrête le rafraîchissement périodique du panneau.
+     */
+    public void stop() {
+        refreshTimeline.stop();
+    }
+
+    /**
+     * Relit les statistiques et met à jour les valeurs affichées. Doit être appelée sur le thread JavaFX.
+     */
+    public void refresh() {
+        long elapsed = statistics.getElapsedNanos();
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            LatencyHistogram waits = statistics.getWaitTimes(direction);
+            LatencyHistogram crossings = statistics.getCrossingTimes(direction);
+            waitMedianLabels[direction].setText(formatDuration(waits, 50));
+            waitP99Labels[direction].setText(formatDuration(waits, 99));
+            crossingMedianLabels[direction].setText(formatDuration(crossings, 50));
+            throughputLabels[direction].setText(String.format("%.0f", statistics.getVehiclesPerHour(direction, elapsed)));
+        }
+        refreshBackpressure();
+    }
+
+    /**
+     * Affiche le nombre d'attentes des threads de la simulation sur l'anneau d'événements de l'interface,
+     * en rouge dès que l'interface a pris du retard.
+     */
+    private void refreshBackpressure() {
+        long backpressure = UiEventRing.shared().getBackpressureCount();
+        backpressureLabel.setText("Retard de l'interface : " + backpressure + " attente(s)");
+        backpressureLabel.setStyle(backpressure > 0 ? "-fx-text-fill: red;" : "");
+    }
+
+    private static String formatDuration(LatencyHistogram histogram, double percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return "-";
+        }
+        return String.format("%.1f s", histogram.getValueAtPercentile(percentile) / 1e9);
+    }
+}
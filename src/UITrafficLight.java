@@ -1,5 +1,3 @@
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.atomic.AtomicBoolean;
 import javafx.scene.shape.Circle;
 
 /**
@@ -11,12 +9,10 @@ public class UITrafficLight extends TrafficLight {
     /**
      * Constructeur de UITrafficLight.
      * @param direction Direction du feu
-     * @param running État d'exécution
-     * @param semaphore Sémaphore pour la synchronisation
      * @param lightCircle Cercle représentant le feu dans l'interface
      */
-    public UITrafficLight(String direction, AtomicBoolean running, Semaphore semaphore, Circle lightCircle) {
-        super(running, semaphore, null, direction);
+    public UITrafficLight(String direction, Circle lightCircle) {
+        super(null, direction);
         this.lightCircle = lightCircle;
     }
 
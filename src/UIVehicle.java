@@ -1,39 +1,103 @@
 import javafx.animation.TranslateTransition;
-import javafx.application.Platform;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
 
-public class UIVehicle {
+/**
+ * Cycle attente-traversée d'un véhicule de la simulation.
+ * Les instances sont réutilisées par le VehicleManager (voir obtainUIVehicle) : chaque instance garde
+ * son animation de traversée d'un véhicule à l'autre, et init la rattache au véhicule suivant.
+ * Une instance n'est rendue au gestionnaire qu'à la fin de la traversée ; son attente
+ * (thread dédié ou action de l'intersection) s'arrête au départ dans l'intersection, CROSSING_DURATION plus tôt.
+ * En mode pool partagé, les véhicules en attente clignotent par la pulsation commune du gestionnaire.
+ */
+public class UIVehicle implements UiEventRing.Handler {
+    private static final AsyncLogger LOG = AsyncLogger.getLogger("UIVehicle");
+    static final int CHECK_INTERVAL = 500; // Intervalle de vérification du feu en millisecondes
+    static final int CROSSING_DURATION = 5000; // Durée de la traversée en millisecondes
+
     private Rectangle vehicle;
     private String direction;
+    private int approach; // Indice de la direction, pour lire l'état du feu sans comparer de chaînes
     private Intersection intersection;
     private VehicleManager vehicleManager;
-    private boolean hasPassedIntersection = false;
+    private volatile boolean hasPassedIntersection = false;
     private SmartTrafficLight smartTrafficLight;
+    private long queuedAt; // Arrivée dans la file de la direction
+    private long enteredAt; // Entrée dans l'intersection
+    private TraceRecorder traceRecorder; // Enregistreur d'événements, ou null
+    private int traceId; // Identifiant du véhicule dans la trace
+    // Animation de traversée et attente sur thread dédié, réutilisées d'un véhicule à l'autre
+    private final TranslateTransition transition = new TranslateTransition(Duration.millis(CROSSING_DURATION));
+    private final Runnable awaitLightTask = this::awaitLight;
+    int blinkIndex = -1; // Place dans la liste des véhicules qui clignotent (voir VehicleManager), ou -1
 
     public UIVehicle(Rectangle vehicle, String direction, Intersection intersection, VehicleManager vehicleManager) {
-        this.vehicle = vehicle;
-        this.direction = direction;
-        this.intersection = intersection;
-        this.vehicleManager = vehicleManager;
-        this.smartTrafficLight = null;
+        this(vehicle, direction, intersection, vehicleManager, null);
     }
     
     public UIVehicle(Rectangle vehicle, String direction, Intersection intersection, VehicleManager vehicleManager, SmartTrafficLight smartTrafficLight) {
+        transition.setOnFinished(e -> finish());
+        init(vehicle, direction, intersection, vehicleManager, smartTrafficLight);
+    }
+
+    /**
+     * Rattache l'instance à un nouveau véhicule, arrivé dans la file de sa direction.
+     * Doit être appelée sur le thread JavaFX.
+     */
+    void init(Rectangle vehicle, String direction, Intersection intersection, VehicleManager vehicleManager,
+              SmartTrafficLight smartTrafficLight) {
         this.vehicle = vehicle;
         this.direction = direction;
+        this.approach = Directions.indexOf(direction);
         this.intersection = intersection;
         this.vehicleManager = vehicleManager;
         this.smartTrafficLight = smartTrafficLight;
+        this.hasPassedIntersection = false;
+        this.queuedAt = System.nanoTime();
+        this.enteredAt = 0;
+        this.traceRecorder = vehicleManager.getTraceRecorder();
+        this.traceId = traceRecorder != null ? traceRecorder.recordArrival(approach) : 0;
+        vehicle.setUserData(this); // Le rectangle n'est pas réutilisé tant que le véhicule roule
         
         // Signaler qu'un véhicule est en attente pour cette direction
         if (smartTrafficLight != null) {
             smartTrafficLight.incrementWaitingVehicles(direction);
+        } else if (intersection != null) {
+            intersection.getDemandRegistry().incrementWaiting(approach);
         }
     }
 
-    public void move() {
-        TranslateTransition transition = new TranslateTransition(Duration.seconds(5), vehicle);
+    /**
+     * Détache l'instance de son véhicule avant sa réutilisation.
+     */
+    void release() {
+        vehicle.setUserData(null);
+        transition.setNode(null);
+        vehicle = null;
+        smartTrafficLight = null;
+        intersection = null;
+    }
+
+    /**
+     * Crée l'animation de traversée d'un véhicule jusqu'à la fin de la rue.
+     * Partagée avec le rejeu des traces (TraceReplayer).
+     * @param vehicle Le véhicule
+     * @param direction La direction du véhicule
+     * @return L'animation, à démarrer par l'appelant
+     */
+    static TranslateTransition createCrossing(Rectangle vehicle, String direction) {
+        TranslateTransition transition = new TranslateTransition(Duration.millis(CROSSING_DURATION), vehicle);
+        configureCrossing(transition, direction);
+        return transition;
+    }
+
+    /**
+     * Configure le déplacement d'une animation de traversée selon la direction.
+     */
+    private static void configureCrossing(TranslateTransition transition, String direction) {
+        // Effacer le déplacement d'une traversée précédente
+        transition.setByX(0);
+        transition.setByY(0);
         
         // Configuration du mouvement en fonction de la direction pour aller jusqu'à la fin de la rue
         switch (direction) {
@@ -50,67 +114,172 @@ public class UIVehicle {
                 transition.setByX(500); // Augmenter la distance pour aller jusqu'à la fin
                 break;
         }
+    }
 
-        // Gestion de la fin de l'animation
-        transition.setOnFinished(e -> {
-            // Si nous utilisons des feux intelligents, signaler qu'un véhicule a terminé son passage
-            if (smartTrafficLight != null) {
-                smartTrafficLight.decrementPassingVehicles(direction);
-                System.out.println("Véhicule " + direction + " a terminé son trajet");
-            }
-            vehicleManager.removeVehicle(vehicle);
-        });
+    public void move() {
+        transition.setNode(vehicle);
+        configureCrossing(transition, direction);
 
         // Mode sans synchronisation - démarrer immédiatement
         if (intersection == null) {
+            if (traceRecorder != null) {
+                traceRecorder.recordAdmission(approach, traceId);
+            }
             transition.play();
             return;
         }
         
         // Mode avec synchronisation - vérifier l'état du feu
-        Thread checkLightThread = new Thread(() -> {
-            try {
-                while (!hasPassedIntersection && !Thread.currentThread().isInterrupted()) {
-                    // Vérifier si le feu est vert
-                    boolean canPass = intersection.canPass(direction);
-                    
-                    if (canPass) {
-                        hasPassedIntersection = true;
-                        
-                        // Si nous utilisons des feux intelligents, mettre à jour les compteurs
-                        if (smartTrafficLight != null) {
-                            smartTrafficLight.decrementWaitingVehicles(direction);
-                            smartTrafficLight.incrementPassingVehicles(direction);
-                            System.out.println("Véhicule " + direction + " commence à traverser l'intersection");
-                        }
-                        
-                        Platform.runLater(() -> {
-                            // Ajouter un effet visuel pour indiquer que le véhicule est en mouvement
-                            vehicle.setOpacity(0.8);
-                            transition.play();
-                        });
-                        break;
-                    } else {
-                        // Si le véhicule est en attente, le faire clignoter légèrement
-                        if (smartTrafficLight != null) {
-                            Platform.runLater(() -> {
-                                if (vehicle.getOpacity() == 1.0) {
-                                    vehicle.setOpacity(0.7);
-                                } else {
-                                    vehicle.setOpacity(1.0);
-                                }
-                            });
-                        }
-                    }
-                    Thread.sleep(500); // Vérifier plus fréquemment
+        if (vehicleManager.getExecutionMode() == VehicleExecutionMode.SHARED_POOL) {
+            // Le véhicule n'occupe aucun thread : il est relâché par l'intersection au passage au vert
+            if (smartTrafficLight != null) {
+                vehicleManager.startBlinking(this);
+            }
+            waitForGreenOnPool(transition);
+            return;
+        }
+
+        // Thread dédié au véhicule pendant son attente, réutilisé ensuite par un autre véhicule
+        VehicleScheduler.executeDedicated(awaitLightTask);
+    }
+
+    /**
+     * Fin de la traversée : libère la place dans l'intersection, retire le véhicule
+     * et rend l'instance au gestionnaire.
+     */
+    private void finish() {
+        // Libérer la place du véhicule dans l'intersection
+        if (intersection != null && hasPassedIntersection) {
+            intersection.exit(approach);
+            intersection.getStatistics().recordCrossing(approach, System.nanoTime() - enteredAt);
+        }
+        
+        // Signaler que le véhicule a terminé son passage, avec les statistiques des feux intelligents le cas échéant
+        if (smartTrafficLight != null) {
+            smartTrafficLight.decrementPassingVehicles(direction);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Véhicule sorti de l'intersection", "direction", direction);
+            }
+        } else if (intersection != null) {
+            intersection.getDemandRegistry().decrementPassing(approach);
+        }
+        if (traceRecorder != null) {
+            traceRecorder.recordDeparture(approach, traceId);
+        }
+        vehicleManager.removeVehicle(vehicle);
+        vehicleManager.releaseVehicle(this);
+    }
+
+    /**
+     * Termine immédiatement la traversée, comme à la fin de l'animation.
+     * Visible dans le paquetage pour les mesures de performance ; doit être appelée sur le thread JavaFX.
+     */
+    void finishCrossing() {
+        transition.stop();
+        finish();
+    }
+
+    /**
+     * Attente sur un thread dédié : interroge le feu jusqu'au départ dans l'intersection.
+     */
+    private void awaitLight() {
+        try {
+            while (!hasPassedIntersection && !Thread.currentThread().isInterrupted()) {
+                // Réveillé dès le passage au vert, ou après le délai pour faire clignoter le véhicule
+                intersection.awaitGreen(direction, CHECK_INTERVAL);
+                if (checkLight(transition)) {
+                    break;
                 }
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
             }
-        });
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Attente sur le pool partagé : la vérification est déclenchée par le passage au vert
+     * ou la sortie d'un véhicule en conflit, et exécutée sur le pool pour ne pas retarder
+     * le thread qui l'a déclenchée.
+     */
+    private void waitForGreenOnPool(TranslateTransition transition) {
+        intersection.whenGreen(direction, () -> VehicleScheduler.execute(() -> {
+            if (!checkLight(transition)) {
+                waitForGreenOnPool(transition);
+            }
+        }));
+    }
+
+    /**
+     * Vérifie une fois l'état du feu et lance la traversée s'il est vert
+     * et qu'aucun véhicule en conflit n'occupe l'intersection.
+     * @param transition L'animation de traversée
+     * @return true si le véhicule s'est engagé dans l'intersection, false s'il doit attendre
+     */
+    private boolean checkLight(TranslateTransition transition) {
+        // Vérifier si le feu est vert, puis réserver la place du véhicule dans l'intersection
+        boolean canPass = intersection.canPass(approach) && intersection.tryEnter(approach);
         
-        checkLightThread.setDaemon(true); // Pour que le thread se termine quand l'application se ferme
-        checkLightThread.start();
+        if (canPass) {
+            enteredAt = System.nanoTime();
+            hasPassedIntersection = true;
+            intersection.getStatistics().recordWait(approach, enteredAt - queuedAt);
+            if (traceRecorder != null) {
+                traceRecorder.recordAdmission(approach, traceId);
+            }
+            
+            // Mettre à jour les compteurs de demande, avec les statistiques des feux intelligents le cas échéant
+            if (smartTrafficLight != null) {
+                smartTrafficLight.decrementWaitingVehicles(direction);
+                smartTrafficLight.incrementPassingVehicles(direction);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Véhicule entré dans l'intersection", "direction", direction);
+                }
+            } else {
+                DemandRegistry registry = intersection.getDemandRegistry();
+                registry.decrementWaiting(approach);
+                registry.incrementPassing(approach);
+            }
+            
+            UiEventRing.shared().publish(this, UiEventRing.MOVE, 0, approach, transition, null);
+            return true;
+        }
+
+        // Si le véhicule attend sur son thread, le faire clignoter légèrement
+        // (en mode pool partagé, il clignote par la pulsation du gestionnaire)
+        if (smartTrafficLight != null && vehicleManager.getExecutionMode() != VehicleExecutionMode.SHARED_POOL) {
+            blink();
+        }
+        return false;
+    }
+
+    private void blink() {
+        UiEventRing.shared().publish(this, UiEventRing.BLINK, 0, approach, null, null);
+    }
+
+    /**
+     * Applique sur le thread JavaFX le départ ou le clignotement publié par le thread du véhicule.
+     */
+    @Override
+    public void onEvent(UiEventRing.Event event) {
+        if (event.getType() == UiEventRing.MOVE) {
+            vehicleManager.stopBlinking(this);
+            // Ajouter un effet visuel pour indiquer que le véhicule est en mouvement
+            vehicle.setOpacity(0.8);
+            ((TranslateTransition) event.getSubject()).play();
+        } else {
+            toggleBlink();
+        }
+    }
+
+    /**
+     * Alterne l'opacité du véhicule en attente. Doit être appelée sur le thread JavaFX.
+     */
+    void toggleBlink() {
+        if (vehicle.getOpacity() == 1.0) {
+            vehicle.setOpacity(0.7);
+        } else {
+            vehicle.setOpacity(1.0);
+        }
     }
 
     public Rectangle getVehicle() {
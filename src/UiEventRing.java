@@ -0,0 +1,395 @@
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Anneau d'événements entre les threads de la simulation et le thread JavaFX, à la manière
+ * d'un Disruptor : les événements (création, déplacement, retrait de véhicule, changement de feu,
+ * collision, logs) sont écrits dans des cases allouées une fois pour toutes, puis traités par lots
+ * sur le thread JavaFX à chaque pulsation. Une publication n'alloue rien et ne passe pas par
+ * la file de Platform.runLater.
+ *
+ * Chaque producteur réserve une séquence par un échange atomique, remplit la case puis la publie ;
+ * le thread JavaFX traite les cases publiées dans l'ordre des séquences. Les événements ne sont
+ * pas perdus tant que l'anneau n'est pas arrêté : si l'interface a un tour de retard, le producteur
+ * attend qu'une case se libère et l'attente est comptée (voir getBackpressureCount). Après stop,
+ * plus aucune pulsation ne libère de case : les publications sont ignorées et comptées
+ * (voir getDroppedCount) au lieu de bloquer leur thread.
+ *
+ * Le thread JavaFX lui-même n'attend jamais : sur un anneau plein, il traite d'abord les événements
+ * publiés puis publie normalement. Si ce traitement ne libère aucune case, son événement va dans
+ * une file de débordement confinée au thread JavaFX, que drain vide dans l'ordre avant l'anneau.
+ * Les événements publiés par les gestionnaires pendant drain vont aussi dans cette file.
+ */
+public class UiEventRing {
+    // Types d'événements
+    public static final int SPAWN = 1; // Création d'un véhicule
+    public static final int MOVE = 2; // Départ d'un véhicule dans l'intersection
+    public static final int BLINK = 3; // Clignotement d'un véhicule en attente
+    public static final int REMOVE = 4; // Retrait d'un véhicule du panneau
+    public static final int PHASE = 5; // Changement de couleur d'un feu
+    public static final int COLLISION = 6; // Collision entre deux véhicules
+    public static final int LOG = 7; // Messages de log en attente
+
+    private static final UiEventRing SHARED = new UiEventRing(16384);
+    private static final AsyncLogger LOG_OUTPUT = AsyncLogger.getLogger("UiEventRing");
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 50_000; // Attente d'un producteur sur un anneau plein
+    private static final long OVERFLOW = -1; // Séquence du thread JavaFX sur un anneau plein
+    private static final long DROPPED = -2; // Séquence d'une publication sur un anneau arrêté
+
+    private final Event[] events;
+    private final int mask;
+    private final AtomicLongArray published; // Séquence publiée dans chaque case
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong consumedSequence = new AtomicLong(); // Première séquence non traitée
+    private final AtomicLong backpressureCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean closed; // Plus aucune pulsation : les publications sont ignorées
+    private AnimationTimer timer;
+
+    // État du thread JavaFX
+    private boolean draining; // Vrai pendant drain, dont les gestionnaires peuvent publier
+    private final ArrayDeque<Event> overflow = new ArrayDeque<>(); // Événements publiés sur un anneau plein
+    private final ArrayDeque<Event> spareEvents = new ArrayDeque<>(); // Cases de débordement à réutiliser
+    private long processedCount;
+    private long batchCount;
+    private long reportedBackpressure;
+
+    /**
+     * Constructeur de l'anneau.
+     * @param capacity Le nombre minimal de cases, arrondi à la puissance de deux supérieure
+     */
+    public UiEventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.events = new Event[size];
+        for (int i = 0; i < size; i++) {
+            events[i] = new Event();
+        }
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Retourne l'anneau partagé par toute l'interface.
+     */
+    public static UiEventRing shared() {
+        return SHARED;
+    }
+
+    /**
+     * Publie un événement. Peut être appelée par n'importe quel thread.
+     * @param handler L'objet qui traite l'événement sur le thread JavaFX
+     * @param type Le type de l'événement
+     * @param id L'identifiant du véhicule, ou 0
+     * @param direction L'indice de la direction, ou 0
+     * @param subject L'objet concerné (véhicule, animation, cercle...), ou null
+     * @param detail Une donnée supplémentaire, ou null
+     */
+    public void publish(Handler handler, int type, int id, int direction, Object subject, Object detail) {
+        publish(handler, type, id, direction, subject, detail, 0, 0);
+    }
+
+    /**
+     * Publie un événement avec une position. Peut être appelée par n'importe quel thread.
+     */
+    public void publish(Handler handler, int type, int id, int direction, Object subject, Object detail,
+                        double x, double y) {
+        ensureStarted();
+        long sequence = claim();
+        if (sequence == DROPPED) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        Event event;
+        if (sequence == OVERFLOW) {
+            // Thread JavaFX sur un anneau plein qu'il n'a pas pu vider : traité par le prochain drain
+            event = spareEvents.poll();
+            if (event == null) {
+                event = new Event();
+            }
+        } else {
+            event = events[(int) sequence & mask];
+        }
+        event.handler = handler;
+        event.type = type;
+        event.id = id;
+        event.direction = direction;
+        event.subject = subject;
+        event.detail = detail;
+        event.x = x;
+        event.y = y;
+        if (sequence == OVERFLOW) {
+            overflow.add(event);
+        } else {
+            published.set((int) sequence & mask, sequence);
+        }
+    }
+
+    /**
+     * Réserve la séquence suivante, en attendant qu'une case se libère si l'anneau est plein.
+     * Le thread JavaFX libère lui-même les cases en traitant les événements publiés.
+     * @return La séquence réservée, OVERFLOW pour le thread JavaFX pendant drain, sur un anneau plein
+     *         qu'il n'a pas pu vider ou tant que sa file de débordement n'est pas vide,
+     *         DROPPED si l'anneau est arrêté
+     */
+    private long claim() {
+        boolean fxThread = Platform.isFxApplicationThread();
+        // Pas de traitement imbriqué, et rien avant les événements déjà en débordement
+        if (fxThread && (draining || !overflow.isEmpty())) {
+            return closed ? DROPPED : OVERFLOW;
+        }
+        boolean waited = false;
+        int spins = 0;
+        while (true) {
+            if (closed) {
+                return DROPPED;
+            }
+            long sequence = nextSequence.get();
+            if (sequence - events.length < consumedSequence.get()) {
+                if (nextSequence.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+                continue;
+            }
+            if (!waited) {
+                waited = true;
+                backpressureCount.incrementAndGet();
+            }
+            if (fxThread) {
+                // Les gestionnaires appelés par drain ont pu publier en débordement
+                if (drain() == 0 || !overflow.isEmpty()) {
+                    return OVERFLOW;
+                }
+                continue;
+            }
+            if (++spins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Démarre le traitement à chaque pulsation au premier événement publié. Si le toolkit JavaFX
+     * refuse la tâche de démarrage, le démarrage est retenté à la publication suivante.
+     */
+    private void ensureStarted() {
+        if (started.get() || closed || !started.compareAndSet(false, true)) {
+            return;
+        }
+        if (Platform.isFxApplicationThread()) {
+            startTimer();
+        } else {
+            try {
+                Platform.runLater(this::startTimer);
+            } catch (IllegalStateException e) {
+                // Toolkit pas encore démarré ou déjà arrêté
+                started.set(false);
+            }
+        }
+    }
+
+    private void startTimer() {
+        if (closed) {
+            return;
+        }
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                drain();
+            }
+        };
+        timer.start();
+    }
+
+    /**
+     * Arrête le traitement à chaque pulsation, à la fermeture de l'interface. Les publications
+     * suivantes sont ignorées, et les producteurs qui attendaient une case libre reprennent.
+     */
+    public void stop() {
+        closed = true;
+        if (Platform.isFxApplicationThread()) {
+            stopTimer();
+        } else {
+            try {
+                Platform.runLater(this::stopTimer);
+            } catch (IllegalStateException e) {
+                // Toolkit déjà arrêté : plus aucune pulsation
+            }
+        }
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Traite les événements en débordement puis tous les événements publiés, dans l'ordre des séquences.
+     * Appelée sur le thread JavaFX à chaque pulsation, et par claim quand l'anneau est plein.
+     * @return Le nombre d'événements traités
+     */
+    int drain() {
+        int count = 0;
+        draining = true;
+        try {
+            // Seulement ceux présents au départ : leurs gestionnaires peuvent en ajouter
+            for (int pending = overflow.size(); pending > 0; pending--) {
+                Event event = overflow.poll();
+                dispatch(event);
+                event.clear();
+                spareEvents.push(event);
+                count++;
+            }
+            long sequence = consumedSequence.get();
+            long end = nextSequence.get();
+            while (sequence < end) {
+                int index = (int) sequence & mask;
+                if (published.get(index) != sequence) {
+                    break; // Case réservée mais pas encore publiée
+                }
+                Event event = events[index];
+                dispatch(event);
+                event.clear();
+                sequence++;
+                count++;
+                // Libère la case pour les producteurs en attente
+                consumedSequence.lazySet(sequence);
+            }
+        } finally {
+            draining = false;
+        }
+        if (count > 0) {
+            processedCount += count;
+            batchCount++;
+        }
+        long backpressure = backpressureCount.get();
+        if (backpressure != reportedBackpressure) {
+            LOG_OUTPUT.warn("Interface en retard : producteurs en attente", "count", backpressure - reportedBackpressure);
+            reportedBackpressure = backpressure;
+        }
+        return count;
+    }
+
+    private static void dispatch(Event event) {
+        try {
+            event.handler.onEvent(event);
+        } catch (RuntimeException e) {
+            // Un événement en erreur ne doit pas arrêter le traitement des suivants
+            LOG_OUTPUT.error("Événement en erreur", "type", event.type, "exception", e);
+        }
+    }
+
+    /**
+     * Retourne le nombre de publications qui ont dû attendre une case libre.
+     */
+    public long getBackpressureCount() {
+        return backpressureCount.get();
+    }
+
+    /**
+     * Retourne le nombre de publications ignorées parce que l'anneau était arrêté.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Retourne le nombre d'événements publiés dans l'anneau.
+     */
+    public long getPublishedCount() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Retourne le nombre d'événements traités. Lecture sur le thread JavaFX.
+     */
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    /**
+     * Retourne le nombre de lots traités, au plus un par pulsation. Lecture sur le thread JavaFX.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Traitement des événements d'un producteur, sur le thread JavaFX.
+     */
+    public interface Handler {
+        /**
+         * Traite un événement. La case est réutilisée après l'appel : ses valeurs ne doivent
+         * pas être conservées.
+         */
+        void onEvent(Event event);
+    }
+
+    /**
+     * Case de l'anneau, réutilisée d'un tour à l'autre.
+     */
+    public static final class Event {
+        private Handler handler;
+        private int type;
+        private int id;
+        private int direction;
+        private Object subject;
+        private Object detail;
+        private double x;
+        private double y;
+
+        public int getType() {
+            return type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getDirection() {
+            return direction;
+        }
+
+        public Object getSubject() {
+            return subject;
+        }
+
+        public Object getDetail() {
+            return detail;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        /**
+         * Oublie les références de l'événement traité, pour ne pas retenir les nœuds retirés.
+         */
+        private void clear() {
+            handler = null;
+            subject = null;
+            detail = null;
+        }
+    }
+}
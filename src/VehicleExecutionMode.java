@@ -0,0 +1,18 @@
+/**
+ * Mode d'exécution du cycle attente-traversée des véhicules.
+ */
+public enum VehicleExecutionMode {
+    THREAD_PER_VEHICLE("Un thread par véhicule"), // Un thread dédié qui interroge le feu
+    SHARED_POOL("Pool partagé"); // Des tâches planifiées sur un petit pool de threads commun
+
+    private final String label;
+
+    VehicleExecutionMode(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -1,8 +1,7 @@
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
-import javafx.application.Platform;
+import javafx.geometry.Bounds;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
@@ -12,23 +11,65 @@ import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
 
-public class VehicleManager {
+/**
+ * Gestionnaire des véhicules d'un panneau d'intersection : création, files d'attente, déplacement,
+ * retrait et détection de collision. Les rectangles et les UIVehicle sont réutilisés d'un véhicule
+ * à l'autre : un rectangle retiré du panneau revient dans sa réserve une fois que plus aucun
+ * UIVehicle ne le déplace, et un UIVehicle revient dans la sienne à la fin de sa traversée.
+ * Les réserves sont confinées au thread JavaFX.
+ */
+public class VehicleManager implements UiEventRing.Handler {
+    static final int MAX_POOLED_VEHICLES = 4096; // Nombre maximal d'objets conservés par réserve
+    
     private IntersectionPanel intersectionPanel;
     private LogPanel logPanel;
     private ConcurrentHashMap<Rectangle, String> vehicleDirections = new ConcurrentHashMap<>();
     private boolean collisionDetection;
     private volatile boolean collisionDetected = false;
     private Intersection intersection;
-    private List<UIVehicle> movingVehicles = new ArrayList<>();
+    private VehicleExecutionMode executionMode = VehicleExecutionMode.THREAD_PER_VEHICLE;
+    private volatile TraceRecorder traceRecorder; // Enregistreur d'événements, ou null
+    private IntConsumer removalListener; // Action exécutée à chaque véhicule retiré, ou null
     
     // Listes des véhicules en attente par direction
     private Map<String, List<Rectangle>> vehicleQueues = new HashMap<>();
+    
+    // Phase large de la détection de collision : grille couvrant la zone de conflit des deux routes
+    // (220 à 280 sur chaque axe), élargie de la moitié d'un véhicule et de son déplacement entre deux vérifications
+    private final CollisionGrid collisionGrid = new CollisionGrid(200, 200, 300, 300, 40);
+    private final Map<Rectangle, CollisionGrid.Entry> collisionEntries = new LinkedHashMap<>();
+    private final List<Rectangle> collisionCandidates = new ArrayList<>();
+    
+    // Pulsation unique de vérification des collisions pour toute la simulation,
+    // démarrée au premier véhicule enregistré et arrêtée lorsqu'il n'y en a plus
+    private static final Duration COLLISION_CHECK_INTERVAL = Duration.millis(100);
+    private Timeline collisionPulse;
+    
+    // Clignotement de tous les véhicules en attente du mode pool partagé, par une seule pulsation
+    // démarrée au premier véhicule en attente et arrêtée lorsqu'il n'y en a plus
+    private static final Duration BLINK_INTERVAL = Duration.millis(UIVehicle.CHECK_INTERVAL);
+    private final List<UIVehicle> blinkingVehicles = new ArrayList<>();
+    private Timeline blinkPulse;
+    
+    // Réserves de véhicules à réutiliser, confinées au thread JavaFX
+    private final ArrayDeque<Rectangle> vehiclePool = new ArrayDeque<>();
+    private final ArrayDeque<UIVehicle> uiVehiclePool = new ArrayDeque<>();
+    private long allocatedVehicles;
+    private long allocatedUIVehicles;
+    
+    // Métriques de la pulsation
+    private long collisionPulseCount;
+    private long lastCollisionPulseNanos;
+    private long totalCollisionPulseNanos;
 
     /**
      * Constructeur pour le gestionnaire de véhicules.
@@ -70,8 +111,127 @@ public class VehicleManager {
         this.intersection = intersection;
     }
 
+    /**
+     * Définit le mode d'exécution des véhicules créés par ce gestionnaire.
+     * @param executionMode Le mode d'exécution
+     */
+    public void setExecutionMode(VehicleExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public VehicleExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Définit l'enregistreur des événements des véhicules créés par ce gestionnaire, ou null.
+     */
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    /**
+     * Définit l'action exécutée à chaque véhicule retiré, à la fin de sa traversée ou par un clic.
+     * Elle reçoit l'indice de la direction du véhicule et est appelée une seule fois par véhicule,
+     * sur le thread JavaFX.
+     * @param removalListener L'action à exécuter, ou null
+     */
+    public void setRemovalListener(IntConsumer removalListener) {
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * Fait clignoter un véhicule en attente, jusqu'à stopBlinking. Doit être appelée sur le thread JavaFX.
+     */
+    void startBlinking(UIVehicle uiVehicle) {
+        if (uiVehicle.blinkIndex >= 0) {
+            return;
+        }
+        uiVehicle.blinkIndex = blinkingVehicles.size();
+        blinkingVehicles.add(uiVehicle);
+        
+        if (blinkPulse == null) {
+            blinkPulse = new Timeline(new KeyFrame(BLINK_INTERVAL, e -> runBlinkPulse()));
+            blinkPulse.setCycleCount(Timeline.INDEFINITE);
+        }
+        blinkPulse.play();
+    }
+
+    /**
+     * Arrête le clignotement d'un véhicule. Doit être appelée sur le thread JavaFX.
+     * La pulsation s'arrête lorsque plus aucun véhicule ne clignote.
+     */
+    void stopBlinking(UIVehicle uiVehicle) {
+        int index = uiVehicle.blinkIndex;
+        if (index < 0) {
+            return;
+        }
+        // Le dernier véhicule prend la place libérée
+        UIVehicle last = blinkingVehicles.remove(blinkingVehicles.size() - 1);
+        if (last != uiVehicle) {
+            blinkingVehicles.set(index, last);
+            last.blinkIndex = index;
+        }
+        uiVehicle.blinkIndex = -1;
+        if (blinkingVehicles.isEmpty() && blinkPulse != null) {
+            blinkPulse.stop();
+        }
+    }
+
+    /**
+     * Arrête le clignotement de tous les véhicules en attente. Appelée à la fin de la simulation,
+     * lorsque les véhicules en attente ne passeront plus.
+     */
+    public void stopBlinking() {
+        if (blinkPulse != null) {
+            blinkPulse.stop();
+        }
+        for (UIVehicle uiVehicle : blinkingVehicles) {
+            uiVehicle.blinkIndex = -1;
+        }
+        blinkingVehicles.clear();
+    }
+
+    /**
+     * Fait clignoter tous les véhicules en attente, une fois par pulsation.
+     * Visible dans le paquetage pour les tests ; doit être appelée sur le thread JavaFX.
+     */
+    void runBlinkPulse() {
+        for (int i = 0; i < blinkingVehicles.size(); i++) {
+            blinkingVehicles.get(i).toggleBlink();
+        }
+    }
+
+    /**
+     * Retourne le nombre de véhicules en attente qui clignotent. Lecture sur le thread JavaFX.
+     */
+    public int getBlinkingVehicleCount() {
+        return blinkingVehicles.size();
+    }
+
+    /**
+     * Crée un véhicule, ou réutilise un véhicule retiré. Doit être appelée sur le thread JavaFX.
+     * 
+     * @param id L'identifiant du véhicule
+     * @param direction La direction du véhicule, qui choisit sa couleur
+     * @return Le véhicule, hors du panneau
+     */
     public Rectangle createVehicle(int id, String direction) {
-        Rectangle vehicle = new Rectangle(20, 20);
+        Rectangle vehicle = vehiclePool.poll();
+        if (vehicle == null) {
+            vehicle = new Rectangle(20, 20);
+            allocatedVehicles++;
+        } else {
+            // Effacer l'état laissé par le véhicule précédent
+            vehicle.setOpacity(1.0);
+            vehicle.setTranslateX(0);
+            vehicle.setTranslateY(0);
+            vehicle.setOnMouseClicked(null);
+        }
         vehicle.setId(String.valueOf(id));
 
         // Définir la couleur en fonction de la direction
@@ -101,27 +261,50 @@ public class VehicleManager {
         queue.add(vehicle);
         
         // Positionner le véhicule au point de départ selon sa direction
-        switch (direction) {
-            case "North-South":
-                vehicle.setTranslateX(250);
-                vehicle.setTranslateY(-30 - (queue.size() - 1) * 40); // Décaler les véhicules en file d'attente
-                break;
-            case "South-North":
-                vehicle.setTranslateX(220);
-                vehicle.setTranslateY(530 + (queue.size() - 1) * 40);
-                break;
-            case "East-West":
-                vehicle.setTranslateX(530 + (queue.size() - 1) * 40);
-                vehicle.setTranslateY(250);
-                break;
-            case "West-East":
-                vehicle.setTranslateX(-30 - (queue.size() - 1) * 40);
-                vehicle.setTranslateY(220);
-                break;
+        int index = Directions.indexOf(direction);
+        if (index >= 0) {
+            vehicle.setTranslateX(queueX(index, queue.size() - 1));
+            vehicle.setTranslateY(queueY(index, queue.size() - 1));
         }
 
         intersectionPanel.addVehicle(vehicle);
     }
+
+    /**
+     * Retourne l'abscisse d'un véhicule à une place de la file d'attente de sa direction.
+     * @param direction L'indice de la direction
+     * @param position La place dans la file, 0 pour le premier véhicule
+     */
+    static double queueX(int direction, int position) {
+        switch (direction) {
+            case Directions.NORTH_SOUTH:
+                return 250;
+            case Directions.SOUTH_NORTH:
+                return 220;
+            case Directions.EAST_WEST:
+                return 530 + position * 40; // Décaler les véhicules en file d'attente
+            default:
+                return -30 - position * 40;
+        }
+    }
+
+    /**
+     * Retourne l'ordonnée d'un véhicule à une place de la file d'attente de sa direction.
+     * @param direction L'indice de la direction
+     * @param position La place dans la file, 0 pour le premier véhicule
+     */
+    static double queueY(int direction, int position) {
+        switch (direction) {
+            case Directions.NORTH_SOUTH:
+                return -30 - position * 40; // Décaler les véhicules en file d'attente
+            case Directions.SOUTH_NORTH:
+                return 530 + position * 40;
+            case Directions.EAST_WEST:
+                return 250;
+            default:
+                return 220;
+        }
+    }
     
     /**
      * Ajoute un véhicule à la simulation sans le mettre en file d'attente.
@@ -133,169 +316,181 @@ public class VehicleManager {
     public void addVehicle(Rectangle vehicle, String direction) {
         vehicleDirections.put(vehicle, direction);
         
-        // Démarrer la détection de collision si activée
+        // Enregistrer le véhicule auprès de la détection de collision si activée
         if (collisionDetection) {
-            startCollisionDetection(vehicle);
+            registerForCollisionDetection(vehicle);
         }
     }
 
-    public void moveVehicle(Rectangle vehicle, String direction) {
+    /**
+     * Lance un véhicule en file d'attente vers l'intersection. Doit être appelée sur le thread JavaFX.
+     * 
+     * @return Le cycle attente-traversée du véhicule, ou null si le véhicule n'est pas en file
+     */
+    public UIVehicle moveVehicle(Rectangle vehicle, String direction) {
         if (vehicleDirections.containsKey(vehicle)) {
-            UIVehicle uiVehicle = new UIVehicle(vehicle, direction, intersection, this);
+            UIVehicle uiVehicle = obtainUIVehicle(vehicle, direction, intersection, null);
             uiVehicle.move();
             
-            // Ajouter le véhicule à la liste des véhicules en mouvement
-            movingVehicles.add(uiVehicle);
-            
-            // Démarrer un thread pour vérifier les collisions
+            // Enregistrer le véhicule auprès de la détection de collision
             if (collisionDetection) {
-                startCollisionDetection(vehicle);
+                registerForCollisionDetection(vehicle);
             }
+            return uiVehicle;
         }
+        return null;
     }
 
-    private void startCollisionDetection(Rectangle vehicle) {
-        Timeline timeline = new Timeline(new KeyFrame(Duration.millis(100), e -> checkCollisions(vehicle)));
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+    /**
+     * Retourne le cycle attente-traversée d'un véhicule, réutilisé s'il y en a un en réserve.
+     * Doit être appelée sur le thread JavaFX.
+     * 
+     * @param vehicle Le véhicule
+     * @param direction La direction du véhicule
+     * @param intersection L'intersection traversée, ou null sans synchronisation
+     * @param smartTrafficLight Le feu intelligent de la direction, ou null
+     */
+    public UIVehicle obtainUIVehicle(Rectangle vehicle, String direction, Intersection intersection,
+                                     SmartTrafficLight smartTrafficLight) {
+        UIVehicle uiVehicle = uiVehiclePool.poll();
+        if (uiVehicle == null) {
+            allocatedUIVehicles++;
+            return new UIVehicle(vehicle, direction, intersection, this, smartTrafficLight);
+        }
+        uiVehicle.init(vehicle, direction, intersection, this, smartTrafficLight);
+        return uiVehicle;
     }
 
-    private void checkCollisions(Rectangle vehicle) {
-        if (!intersectionPanel.getVehicleLayer().getChildren().contains(vehicle) || collisionDetected) {
+    /**
+     * Remet en réserve un UIVehicle dont la traversée est terminée. Appelée sur le thread JavaFX.
+     */
+    void releaseVehicle(UIVehicle uiVehicle) {
+        uiVehicle.release();
+        if (uiVehiclePool.size() < MAX_POOLED_VEHICLES) {
+            uiVehiclePool.push(uiVehicle);
+        }
+    }
+
+    /**
+     * Enregistre un véhicule auprès de la pulsation de détection de collision.
+     * Le véhicule est vérifié à chaque pulsation jusqu'à son retrait par deregisterFromCollisionDetection.
+     * 
+     * @param vehicle Le véhicule à enregistrer
+     */
+    private void registerForCollisionDetection(Rectangle vehicle) {
+        String direction = vehicleDirections.get(vehicle);
+        if (direction == null || collisionEntries.containsKey(vehicle) || collisionDetected) {
             return;
         }
+        collisionEntries.put(vehicle, collisionGrid.register(vehicle, Directions.indexOf(direction)));
         
-        // Vérifier les collisions avec les autres véhicules
-        for (Rectangle otherVehicle : vehicleDirections.keySet()) {
-            if (vehicle != otherVehicle && 
-                intersectionPanel.getVehicleLayer().getChildren().contains(otherVehicle)) {
-                
-                String direction1 = vehicleDirections.get(vehicle);
-                String direction2 = vehicleDirections.get(otherVehicle);
-                
-                // Vérifier si les directions peuvent entrer en collision
-                if (directionsCanCollide(direction1, direction2)) {
-                    // Vérifier si les véhicules se chevauchent
-                    if (vehicle.getBoundsInParent().intersects(otherVehicle.getBoundsInParent())) {
-                        
-                        // Créer un effet d'explosion
-                        createExplosionEffect(
-                            (vehicle.getBoundsInParent().getMinX() + vehicle.getBoundsInParent().getMaxX()) / 2,
-                            (vehicle.getBoundsInParent().getMinY() + vehicle.getBoundsInParent().getMaxY()) / 2
-                        );
-                        
-                        // Marquer la collision
-                        collisionDetected = true;
-                        
-                        // Afficher l'écran de fin de jeu
-                        Platform.runLater(() -> showGameOverScreen());
-                        
-                        break;
-                    }
-                }
-            }
+        if (collisionPulse == null) {
+            collisionPulse = new Timeline(new KeyFrame(COLLISION_CHECK_INTERVAL, e -> runCollisionPulse()));
+            collisionPulse.setCycleCount(Timeline.INDEFINITE);
         }
+        collisionPulse.play();
     }
 
-    private boolean directionsCanCollide(String dir1, String dir2) {
-        if (intersection != null) {
-            return intersection.directionsCanCollide(dir1, dir2);
+    /**
+     * Retire un véhicule de la détection de collision.
+     * La pulsation s'arrête lorsque plus aucun véhicule n'est enregistré.
+     * 
+     * @param vehicle Le véhicule à retirer
+     */
+    private void deregisterFromCollisionDetection(Rectangle vehicle) {
+        CollisionGrid.Entry entry = collisionEntries.remove(vehicle);
+        if (entry != null) {
+            collisionGrid.remove(entry);
         }
-        
-        // Implémentation par défaut si l'intersection n'est pas définie
-        // Les directions opposées ne peuvent pas entrer en collision
-        if ((dir1.equals("North-South") && dir2.equals("South-North")) ||
-            (dir1.equals("South-North") && dir2.equals("North-South")) ||
-            (dir1.equals("East-West") && dir2.equals("West-East")) ||
-            (dir1.equals("West-East") && dir2.equals("East-West"))) {
-            return false;
+        if (collisionEntries.isEmpty() && collisionPulse != null) {
+            collisionPulse.stop();
         }
-        
-        // Les directions sur le même axe ne peuvent pas entrer en collision
-        boolean dir1IsNorthSouth = dir1.equals("North-South") || dir1.equals("South-North");
-        boolean dir2IsNorthSouth = dir2.equals("North-South") || dir2.equals("South-North");
-        
-        // Si les deux directions sont sur le même axe, elles ne peuvent pas entrer en collision
-        return dir1IsNorthSouth != dir2IsNorthSouth;
     }
 
-    public void createExplosionEffect(double x, double y) {
-        List<Circle> explosionParticles = new ArrayList<>();
-        
-        // Créer plusieurs particules d'explosion avec des couleurs et tailles variées
-        for (int i = 0; i < 30; i++) {
-            double size = Math.random() * 8 + 3; // Taille entre 3 et 11
-            Color color;
-            
-            // Variation de couleurs pour un effet plus réaliste
-            double rand = Math.random();
-            if (rand < 0.4) {
-                color = Color.ORANGE;
-            } else if (rand < 0.7) {
-                color = Color.RED;
-            } else if (rand < 0.9) {
-                color = Color.YELLOW;
-            } else {
-                color = Color.WHITE;
+    /**
+     * Arrête la détection de collision et oublie tous les véhicules enregistrés.
+     * Appelée à la fin de la simulation.
+     */
+    public void stopCollisionDetection() {
+        if (collisionPulse != null) {
+            collisionPulse.stop();
+        }
+        for (CollisionGrid.Entry entry : collisionEntries.values()) {
+            collisionGrid.remove(entry);
+        }
+        collisionEntries.clear();
+    }
+
+    /**
+     * Vérifie les collisions de tous les véhicules enregistrés, une fois par pulsation.
+     * Visible dans le paquetage pour les mesures de performance (voir CollisionBenchmark) ;
+     * doit être appelée sur le thread JavaFX.
+     */
+    void runCollisionPulse() {
+        long start = System.nanoTime();
+        for (Rectangle vehicle : collisionEntries.keySet()) {
+            if (collisionDetected) {
+                break;
             }
-            
-            // Position aléatoire autour du point de collision
-            double offsetX = Math.random() * 40 - 20;
-            double offsetY = Math.random() * 40 - 20;
-            
-            Circle particle = new Circle(x + offsetX, y + offsetY, size, color);
-            explosionParticles.add(particle);
-            
-            // Ajouter la particule à la couche d'effets
-            Platform.runLater(() -> intersectionPanel.getEffectLayer().getChildren().add(particle));
+            checkCollisions(vehicle);
+        }
+        if (collisionDetected) {
+            collisionPulse.stop();
         }
         
-        // Ajouter un cercle plus grand au centre pour l'onde de choc
-        Circle shockwave = new Circle(x, y, 5, Color.WHITE);
-        Platform.runLater(() -> intersectionPanel.getEffectLayer().getChildren().add(shockwave));
-        
-        // Animation pour faire disparaître progressivement les particules
-        Timeline timeline = new Timeline();
+        lastCollisionPulseNanos = System.nanoTime() - start;
+        totalCollisionPulseNanos += lastCollisionPulseNanos;
+        collisionPulseCount++;
+    }
+
+    private void checkCollisions(Rectangle vehicle) {
+        CollisionGrid.Entry entry = collisionEntries.get(vehicle);
+        if (entry == null || vehicle.getParent() != intersectionPanel.getVehicleLayer() || collisionDetected) {
+            return;
+        }
         
-        // Animation de l'onde de choc
-        KeyFrame[] shockwaveFrames = new KeyFrame[10];
-        for (int i = 0; i < 10; i++) {
-            final int frameIndex = i;
-            shockwaveFrames[i] = new KeyFrame(Duration.millis(i * 50), e -> {
-                shockwave.setRadius(5 + frameIndex * 5);
-                shockwave.setOpacity(1.0 - (frameIndex * 0.1));
-            });
-            timeline.getKeyFrames().add(shockwaveFrames[i]);
+        // Phase large : placer le véhicule dans la grille de la zone de conflit.
+        // Hors de la zone, aucun véhicule d'un axe croisé ne peut le toucher.
+        Bounds bounds = vehicle.getBoundsInParent();
+        if (!collisionGrid.update(entry, bounds.getCenterX(), bounds.getCenterY())) {
+            return;
         }
+        collisionCandidates.clear();
+        collisionGrid.collectCandidates(entry, collisionCandidates);
         
-        // Animation des particules
-        for (Circle particle : explosionParticles) {
-            KeyFrame[] particleFrames = new KeyFrame[10];
-            for (int i = 0; i < 10; i++) {
-                final int frameIndex = i;
-                particleFrames[i] = new KeyFrame(Duration.millis(i * 100), e -> {
-                    // Déplacer les particules vers l'extérieur
-                    double angle = Math.random() * 2 * Math.PI;
-                    double distance = frameIndex * 5;
-                    particle.setCenterX(particle.getCenterX() + Math.cos(angle) * distance);
-                    particle.setCenterY(particle.getCenterY() + Math.sin(angle) * distance);
-                    
-                    // Réduire l'opacité progressivement
-                    particle.setOpacity(1.0 - (frameIndex * 0.1));
-                });
-                timeline.getKeyFrames().add(particleFrames[i]);
+        // Phase fine : vérifier le chevauchement avec les seuls véhicules candidats
+        for (Rectangle otherVehicle : collisionCandidates) {
+            if (otherVehicle.getParent() == intersectionPanel.getVehicleLayer() &&
+                bounds.intersects(otherVehicle.getBoundsInParent())) {
+                
+                // Créer un effet d'explosion
+                createExplosionEffect(bounds.getCenterX(), bounds.getCenterY());
+                TraceRecorder recorder = traceRecorder;
+                if (recorder != null) {
+                    CollisionGrid.Entry otherEntry = collisionEntries.get(otherVehicle);
+                    recorder.recordCollision(entry.getDirection(),
+                            otherEntry != null ? otherEntry.getDirection() : entry.getDirection(),
+                            bounds.getCenterX(), bounds.getCenterY());
+                }
+                
+                // Marquer la collision
+                collisionDetected = true;
+                
+                // Afficher l'écran de fin de jeu, après la pulsation en cours
+                UiEventRing.shared().publish(this, UiEventRing.COLLISION, 0, entry.getDirection(), null, null,
+                        bounds.getCenterX(), bounds.getCenterY());
+                
+                break;
             }
         }
-        
-        // Supprimer les particules à la fin de l'animation
-        timeline.setOnFinished(e -> {
-            Platform.runLater(() -> {
-                intersectionPanel.getEffectLayer().getChildren().removeAll(explosionParticles);
-                intersectionPanel.getEffectLayer().getChildren().remove(shockwave);
-            });
-        });
-        
-        timeline.play();
+    }
+
+    /**
+     * Crée un effet d'explosion au point de collision, dessiné par le système de particules
+     * de la couche d'effets. Doit être appelée sur le thread JavaFX.
+     */
+    public void createExplosionEffect(double x, double y) {
+        intersectionPanel.getExplosionRenderer().explode(x, y);
         
         // Ajouter un son d'explosion (si disponible)
         logPanel.addLog("BOUM ! Collision à l'intersection !");
@@ -313,10 +508,54 @@ public class VehicleManager {
             // Retirer le véhicule de la map des directions
             vehicleDirections.remove(vehicle);
             
+            // Retirer le véhicule de la détection de collision
+            deregisterFromCollisionDetection(vehicle);
+            
             // Retirer le véhicule du panneau
-            Platform.runLater(() -> {
+            int directionIndex = Directions.indexOf(direction);
+            UiEventRing.shared().publish(this, UiEventRing.REMOVE, 0, directionIndex, vehicle, null);
+            if (removalListener != null) {
+                removalListener.accept(directionIndex);
+            }
+        }
+    }
+
+    /**
+     * Crée un véhicule et le lance vers l'intersection, puis ajoute un message au log.
+     * Doit être appelée sur le thread JavaFX.
+     * @param id L'identifiant du véhicule
+     * @param direction La direction du véhicule
+     */
+    public void spawnVehicle(int id, String direction) {
+        Rectangle vehicle = createVehicle(id, direction);
+        queueVehicle(vehicle, direction);
+        moveVehicle(vehicle, direction);
+        logPanel.addLog("Nouveau véhicule créé (ID: " + id + ", Direction: " + direction + ")");
+    }
+
+    /**
+     * Applique sur le thread JavaFX les événements publiés par les threads de la simulation.
+     */
+    @Override
+    public void onEvent(UiEventRing.Event event) {
+        switch (event.getType()) {
+            case UiEventRing.SPAWN:
+                spawnVehicle(event.getId(), Directions.nameOf(event.getDirection()));
+                break;
+            case UiEventRing.REMOVE: {
+                Rectangle vehicle = (Rectangle) event.getSubject();
                 intersectionPanel.removeVehicle(vehicle);
-            });
+                // Un véhicule retiré pendant sa traversée (clic) reste à son UIVehicle jusqu'à la fin
+                if (vehicle.getUserData() == null && vehiclePool.size() < MAX_POOLED_VEHICLES) {
+                    vehiclePool.push(vehicle);
+                }
+                break;
+            }
+            case UiEventRing.COLLISION:
+                showGameOverScreen();
+                break;
+            default:
+                break;
         }
     }
 
@@ -324,6 +563,34 @@ public class VehicleManager {
         return collisionDetected;
     }
 
+    /**
+     * Retourne le nombre de véhicules vérifiés à chaque pulsation de détection de collision.
+     */
+    public int getActiveCollisionChecks() {
+        return collisionEntries.size();
+    }
+
+    /**
+     * Retourne le nombre de pulsations de détection de collision exécutées.
+     */
+    public long getCollisionPulseCount() {
+        return collisionPulseCount;
+    }
+
+    /**
+     * Retourne la durée de la dernière pulsation de détection de collision, en nanosecondes.
+     */
+    public long getLastCollisionPulseNanos() {
+        return lastCollisionPulseNanos;
+    }
+
+    /**
+     * Retourne la durée moyenne d'une pulsation de détection de collision, en nanosecondes.
+     */
+    public long getAverageCollisionPulseNanos() {
+        return collisionPulseCount == 0 ? 0 : totalCollisionPulseNanos / collisionPulseCount;
+    }
+
     private void showGameOverScreen() {
         // Créer un panneau semi-transparent pour le message de fin
         Pane gameOverPane = new Pane();
@@ -365,6 +632,20 @@ public class VehicleManager {
         intersectionPanel.getChildren().add(gameOverPane);
     }
 
+    /**
+     * Retourne le nombre de rectangles créés, hors réutilisations. Lecture sur le thread JavaFX.
+     */
+    public long getAllocatedVehicleCount() {
+        return allocatedVehicles;
+    }
+
+    /**
+     * Retourne le nombre de UIVehicle créés, hors réutilisations. Lecture sur le thread JavaFX.
+     */
+    public long getAllocatedUIVehicleCount() {
+        return allocatedUIVehicles;
+    }
+
     /**
      * Récupère le panneau de logs.
      * 
@@ -0,0 +1,76 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de threads partagé par tous les véhicules en mode SHARED_POOL.
+ * Un véhicule en attente n'occupe aucun thread : il n'est qu'une tâche planifiée,
+ * ce qui permet d'avoir des centaines de milliers de véhicules avec quelques threads.
+ * Les threads dédiés du mode THREAD_PER_VEHICLE sont aussi fournis ici : un thread par véhicule
+ * en attente, réutilisé par les véhicules suivants plutôt que créé à chaque véhicule.
+ */
+public final class VehicleScheduler {
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final ScheduledExecutorService EXECUTOR = createExecutor();
+    private static final ExecutorService DEDICATED_EXECUTOR = createDedicatedExecutor();
+
+    private VehicleScheduler() {
+    }
+
+    private static ScheduledExecutorService createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(POOL_SIZE, task -> {
+            Thread thread = new Thread(task, "vehicle-pool-" + counter.incrementAndGet());
+            thread.setDaemon(true); // Pour que les threads se terminent quand l'application se ferme
+            return thread;
+        });
+        // Les tâches annulées sont retirées immédiatement de la file du pool
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ExecutorService createDedicatedExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "vehicle-thread-" + counter.incrementAndGet());
+            thread.setDaemon(true); // Pour que les threads se terminent quand l'application se ferme
+            return thread;
+        });
+    }
+
+    /**
+     * Exécute une tâche dès qu'un thread du pool est disponible.
+     * @param task La tâche à exécuter
+     */
+    public static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Exécute une tâche longue sur un thread qui lui est dédié jusqu'à sa fin.
+     * Le thread est repris dans un cache inactif puis réutilisé par une tâche suivante.
+     * @param task La tâche à exécuter
+     */
+    public static void executeDedicated(Runnable task) {
+        DEDICATED_EXECUTOR.execute(task);
+    }
+
+    /**
+     * Planifie une tâche après un délai.
+     * @param task La tâche à exécuter
+     * @param delayMillis Le délai en millisecondes
+     */
+    public static void schedule(Runnable task, long delayMillis) {
+        EXECUTOR.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retourne le nombre de threads du pool.
+     */
+    public static int getPoolSize() {
+        return POOL_SIZE;
+    }
+}
@@ -0,0 +1,57 @@
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de non-régression du repos des feux : une intersection à feux intelligents sans aucun
+ * véhicule ne doit presque pas consommer de temps processeur. Les feux sont pilotés par la roue
+ * temporelle, dont le thread est mesuré pendant IDLE_SECONDS secondes.
+ */
+class IdleLightCpuTest {
+    static final int IDLE_SECONDS = 10;
+    static final long MAX_CPU_MILLIS = 20; // Temps processeur toléré pour toute la durée
+    static final long SETTLE_MILLIS = 500; // Premières décisions avant le repos
+
+    @Test
+    void idleSmartLightsUseAlmostNoCpu() throws Exception {
+        TimerWheel timerWheel = new TimerWheel(10, 512);
+        AtomicBoolean running = new AtomicBoolean(true);
+        SignalExecutor[] executors = {
+                startIntersection(timerWheel, SignalControllerType.SMART, running),
+                startIntersection(timerWheel, SignalControllerType.ACTUATED, running)
+        };
+        try {
+            TimeUnit.MILLISECONDS.sleep(SETTLE_MILLIS);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long worker = timerWheel.getWorker().getId();
+            long cpuBefore = threads.getThreadCpuTime(worker);
+            TimeUnit.SECONDS.sleep(IDLE_SECONDS);
+            long cpuMillis = TimeUnit.NANOSECONDS.toMillis(threads.getThreadCpuTime(worker) - cpuBefore);
+
+            assertTrue(cpuMillis <= MAX_CPU_MILLIS, "temps processeur des feux au repos : " + cpuMillis + " ms");
+        } finally {
+            running.set(false);
+            for (SignalExecutor executor : executors) {
+                executor.cancel();
+            }
+        }
+    }
+
+    private static SignalExecutor startIntersection(TimerWheel timerWheel, SignalControllerType type,
+                                                    AtomicBoolean running) {
+        Intersection intersection = new Intersection();
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            intersection.addTrafficLight(new SmartTrafficLight(Directions.nameOf(direction), null, null));
+        }
+        SignalExecutor executor = new SignalExecutor(intersection, type.create(), running);
+        executor.setTimerWheel(timerWheel);
+        executor.start();
+        return executor;
+    }
+}
@@ -0,0 +1,115 @@
+import javafx.application.Platform;
+import javafx.scene.shape.Rectangle;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de charge du mode SHARED_POOL : 100 000 véhicules attendent en même temps un feu rouge,
+ * avec un nombre de threads natifs et une mémoire bornés, et sans aucune tâche par véhicule
+ * pendant l'attente (le clignotement passe par la pulsation commune du VehicleManager).
+ */
+class SharedPoolStressTest {
+    static final int WAITING_VEHICLES = 100_000;
+    static final int MAX_EXTRA_THREADS = VehicleScheduler.getPoolSize() + 16; // Pool partagé et threads JavaFX
+    static final long MAX_BYTES_PER_VEHICLE = 4096;
+    static final long MAX_EVENTS_WHILE_WAITING = 1000; // Publications tolérées pendant l'attente
+
+    private static VehicleManager vehicleManager;
+
+    @BeforeAll
+    static void startToolkit() throws Exception {
+        Platform.startup(() -> { });
+        Platform.setImplicitExit(false);
+    }
+
+    @AfterAll
+    static void stopBlinking() throws Exception {
+        if (vehicleManager != null) {
+            onFxThread(() -> {
+                vehicleManager.stopBlinking();
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void hundredThousandWaitingVehiclesUseBoundedThreadsAndMemory() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threads.getThreadCount();
+        long heapBefore = usedHeap();
+
+        Intersection intersection = onFxThread(() -> {
+            vehicleManager = new VehicleManager(new IntersectionPanel());
+            vehicleManager.setExecutionMode(VehicleExecutionMode.SHARED_POOL);
+            // Tous les feux restent rouges : aucun véhicule ne peut passer
+            Intersection redIntersection = new Intersection();
+            SmartTrafficLight[] lights = new SmartTrafficLight[Directions.COUNT];
+            for (int direction = 0; direction < Directions.COUNT; direction++) {
+                lights[direction] = new SmartTrafficLight(Directions.nameOf(direction), null, null);
+                redIntersection.addTrafficLight(lights[direction]);
+            }
+            vehicleManager.setIntersection(redIntersection);
+            for (int i = 0; i < WAITING_VEHICLES; i++) {
+                int direction = i & 3;
+                String name = Directions.nameOf(direction);
+                Rectangle vehicle = vehicleManager.createVehicle(i, name);
+                vehicleManager.obtainUIVehicle(vehicle, name, redIntersection, lights[direction]).move();
+            }
+            return redIntersection;
+        });
+
+        int waiting = 0;
+        for (int direction = 0; direction < Directions.COUNT; direction++) {
+            waiting += intersection.getDemandRegistry().getWaiting(direction);
+        }
+        assertEquals(WAITING_VEHICLES, waiting);
+        assertEquals(WAITING_VEHICLES, (int) onFxThread(vehicleManager::getBlinkingVehicleCount));
+
+        // Les véhicules en attente n'occupent aucun thread
+        int extraThreads = threads.getThreadCount() - threadsBefore;
+        assertTrue(extraThreads <= MAX_EXTRA_THREADS, "threads supplémentaires : " + extraThreads);
+
+        long bytesPerVehicle = (usedHeap() - heapBefore) / WAITING_VEHICLES;
+        assertTrue(bytesPerVehicle <= MAX_BYTES_PER_VEHICLE, "octets par véhicule : " + bytesPerVehicle);
+
+        // Pendant l'attente, le clignotement ne publie rien et ne planifie rien par véhicule
+        long publishedBefore = UiEventRing.shared().getPublishedCount();
+        TimeUnit.MILLISECONDS.sleep(3 * UIVehicle.CHECK_INTERVAL);
+        onFxThread(() -> {
+            vehicleManager.runBlinkPulse();
+            return null;
+        });
+        long published = UiEventRing.shared().getPublishedCount() - publishedBefore;
+        assertTrue(published <= MAX_EVENTS_WHILE_WAITING, "événements publiés pendant l'attente : " + published);
+
+        // À la fin de la simulation, la pulsation s'arrête avec les véhicules toujours en attente
+        assertEquals(0, (int) onFxThread(() -> {
+            vehicleManager.stopBlinking();
+            return vehicleManager.getBlinkingVehicleCount();
+        }));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static <T> T onFxThread(Callable<T> task) throws Exception {
+        FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+        return future.get(60, TimeUnit.SECONDS);
+    }
+}